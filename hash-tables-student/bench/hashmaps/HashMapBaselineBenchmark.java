@@ -0,0 +1,101 @@
+package hashmaps;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import hashtables.KeyDistribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * java.util.HashMap under the workload of SimpleHashMapBenchmark, with the
+ * same keys, sizes and hit ratios, as the baseline for its results.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HashMapBaselineBenchmark {
+    private static final int LOOKUPS = 1 << 20;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "UNIFORM", "ZIPFIAN"})
+    public KeyDistribution distribution;
+
+    @Param({"1.0", "0.0"})
+    public double hitRatio;
+
+    private HashMap<Object, Object> map;
+    private Object[] probes;
+    private boolean[] hits;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Object[] present = this.distribution.present(this.size, 42);
+        Object[] absent = this.distribution.absent(this.size, 42);
+        this.map = new HashMap<>();
+        for (Object key : present) {
+            this.map.put(key, key);
+        }
+
+        int[] order = this.distribution.lookupOrder(this.size, LOOKUPS, 43);
+        this.probes = new Object[LOOKUPS];
+        this.hits = new boolean[LOOKUPS];
+        Random random = new Random(44);
+        for (int i = 0; i < LOOKUPS; i++) {
+            this.hits[i] = random.nextDouble() < this.hitRatio;
+            this.probes[i] = this.hits[i] ? present[order[i]] : absent[order[i]];
+        }
+    }
+
+    private Object nextProbe() {
+        Object probe = this.probes[this.cursor];
+        this.cursor = (this.cursor + 1) & (LOOKUPS - 1);
+        return probe;
+    }
+
+    @Benchmark
+    public Object get() {
+        return this.map.get(nextProbe());
+    }
+
+    /**
+     * Overwrites a present key, or inserts an absent one and removes it
+     * again, as SimpleHashMapBenchmark.put() does.
+     */
+    @Benchmark
+    public void put() {
+        boolean hit = this.hits[this.cursor];
+        Object key = nextProbe();
+        this.map.put(key, key);
+        if (!hit) {
+            this.map.remove(key);
+        }
+    }
+
+    @Benchmark
+    public void merge() {
+        boolean hit = this.hits[this.cursor];
+        Object key = nextProbe();
+        this.map.merge(key, key, (old, v) -> old);
+        if (!hit) {
+            this.map.remove(key);
+        }
+    }
+}
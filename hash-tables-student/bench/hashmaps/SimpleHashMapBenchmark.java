@@ -0,0 +1,142 @@
+package hashmaps;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import hashtables.Engine;
+import hashtables.KeyDistribution;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Steady-state cost of single SimpleHashMap operations, on top of each of
+ * the table engines. HashMapBaselineBenchmark measures java.util.HashMap on
+ * the same keys, once rather than once per engine.
+ *
+ * Set up like HashTableBenchmark: `size` keys are put once per trial, and
+ * each invocation uses the next key of a precomputed order in which
+ * `hitRatio` of the keys are in the map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SimpleHashMapBenchmark {
+    private static final int LOOKUPS = 1 << 20;
+
+    @Param({"CHAINING", "CHAINING_POW2", "INCREMENTAL", "LINEAR_PROBING", "ROBIN_HOOD", "CUCKOO", "SWISS", "CONCURRENT"})
+    public Engine engine;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "UNIFORM", "ZIPFIAN"})
+    public KeyDistribution distribution;
+
+    @Param({"1.0", "0.0"})
+    public double hitRatio;
+
+    private SimpleHashMap<Object, Object> map;
+    private Object[] probes;
+    private boolean[] hits;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Object[] present = this.distribution.present(this.size, 42);
+        Object[] absent = this.distribution.absent(this.size, 42);
+        this.map = new SimpleHashMap<>(this.engine.create(7));
+        for (Object key : present) {
+            this.map.put(key, key);
+        }
+
+        int[] order = this.distribution.lookupOrder(this.size, LOOKUPS, 43);
+        this.probes = new Object[LOOKUPS];
+        this.hits = new boolean[LOOKUPS];
+        Random random = new Random(44);
+        for (int i = 0; i < LOOKUPS; i++) {
+            this.hits[i] = random.nextDouble() < this.hitRatio;
+            this.probes[i] = this.hits[i] ? present[order[i]] : absent[order[i]];
+        }
+    }
+
+    private Object nextProbe() {
+        Object probe = this.probes[this.cursor];
+        this.cursor = (this.cursor + 1) & (LOOKUPS - 1);
+        return probe;
+    }
+
+    @Benchmark
+    public Object get() {
+        return this.map.get(nextProbe());
+    }
+
+    @Benchmark
+    public Object getOrDefault() {
+        return this.map.getOrDefault(nextProbe(), this);
+    }
+
+    /**
+     * Overwrites a present key, or inserts an absent one and removes it
+     * again, so the map's size does not drift.
+     */
+    @Benchmark
+    public void put() {
+        boolean hit = this.hits[this.cursor];
+        Object key = nextProbe();
+        this.map.put(key, key);
+        if (!hit) {
+            this.map.remove(key);
+        }
+    }
+
+    /**
+     * A read-modify-write done with get() followed by put(), which searches
+     * the table twice. Misses are removed again, as in put().
+     */
+    @Benchmark
+    public void getThenPut() {
+        boolean hit = this.hits[this.cursor];
+        Object key = nextProbe();
+        Object old = this.map.get(key);
+        this.map.put(key, old == null ? key : old);
+        if (!hit) {
+            this.map.remove(key);
+        }
+    }
+
+    /**
+     * The read-modify-write of getThenPut() as a single merge().
+     */
+    @Benchmark
+    public void merge() {
+        boolean hit = this.hits[this.cursor];
+        Object key = nextProbe();
+        this.map.merge(key, key, (old, v) -> old);
+        if (!hit) {
+            this.map.remove(key);
+        }
+    }
+
+    @Benchmark
+    public Object removeAndPut() {
+        Object key = nextProbe();
+        Object old = this.map.remove(key);
+        if (old != null) {
+            this.map.put(key, old);
+        }
+        return old;
+    }
+}
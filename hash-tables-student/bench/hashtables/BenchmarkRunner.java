@@ -0,0 +1,34 @@
+package hashtables;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the allocation profiler (-prof gc) attached.
+ *
+ * The first argument, if given, is a regular expression selecting the
+ * benchmarks to run (for example "HashTableBenchmark.get"); the default runs
+ * everything under bench/. Use the JMH command line instead to override
+ * parameters, e.g. -p size=1000,100000 for a quick run.
+ *
+ * Each forked JVM gets a fixed heap (-Xms and -Xmx), 4g unless the system
+ * property bench.heap says otherwise, e.g. -Dbench.heap=24g for sizes of
+ * 100 million keys. The forks also get the jdk.incubator.vector module, so
+ * that SWISS runs with its Vector API group matcher. See bench/README.md
+ * for how to build and run the suite.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : "(hashtables|hashmaps)\\..*Benchmark";
+        String heap = System.getProperty("bench.heap", "4g");
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend("--add-modules", "jdk.incubator.vector", "-Xms" + heap, "-Xmx" + heap)
+                .build();
+        new Runner(options).run();
+    }
+}
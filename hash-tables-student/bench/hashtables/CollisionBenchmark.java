@@ -0,0 +1,90 @@
+package hashtables;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Steady-state cost of single operations on a table whose keys come from
+ * KeyDistribution.COLLISIONS, so that they share only 64 hash codes.
+ *
+ * Set up like HashTableBenchmark, but only at small sizes: every lookup scans
+ * a chain or probe run of about size/64 keys (or a tree, in a treeified
+ * ChainingHashTable bucket), and filling a larger table takes quadratic time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+    private static final int LOOKUPS = 1 << 16;
+
+    @Param({"CHAINING", "CHAINING_POW2", "INCREMENTAL", "LINEAR_PROBING", "ROBIN_HOOD", "CUCKOO", "SWISS", "CONCURRENT"})
+    public Engine engine;
+
+    @Param({"1000", "10000"})
+    public int size;
+
+    @Param({"1.0", "0.0"})
+    public double hitRatio;
+
+    private KeyedHashTable<Object> table;
+    private Object[] probes;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Object[] present = KeyDistribution.COLLISIONS.present(this.size, 42);
+        Object[] absent = KeyDistribution.COLLISIONS.absent(this.size, 42);
+        this.table = this.engine.create(7);
+        for (Object key : present) {
+            this.table.add(key);
+        }
+
+        int[] order = KeyDistribution.COLLISIONS.lookupOrder(this.size, LOOKUPS, 43);
+        this.probes = new Object[LOOKUPS];
+        Random random = new Random(44);
+        for (int i = 0; i < LOOKUPS; i++) {
+            boolean hit = random.nextDouble() < this.hitRatio;
+            this.probes[i] = hit ? present[order[i]] : absent[order[i]];
+        }
+    }
+
+    private Object nextProbe() {
+        Object probe = this.probes[this.cursor];
+        this.cursor = (this.cursor + 1) & (LOOKUPS - 1);
+        return probe;
+    }
+
+    @Benchmark
+    public Object get() {
+        return this.table.get(nextProbe());
+    }
+
+    /**
+     * A remove followed by an add of the same key, as in HashTableBenchmark.
+     */
+    @Benchmark
+    public boolean removeAndAdd() {
+        Object key = nextProbe();
+        if (this.table.remove(key)) {
+            return this.table.add(key);
+        }
+        this.table.add(key);
+        return this.table.remove(key);
+    }
+}
@@ -0,0 +1,65 @@
+package hashtables;
+
+/**
+ * The hash table implementations under benchmark, by name, so that a JMH
+ * @Param can select one. New engines should be added here so that every
+ * benchmark compares them against the chaining table.
+ */
+public enum Engine {
+    CHAINING {
+        @Override
+        public <E> KeyedHashTable<E> create(int n) {
+            return new ChainingHashTable<>(n);
+        }
+    },
+    CHAINING_POW2 {
+        @Override
+        public <E> KeyedHashTable<E> create(int n) {
+            return new ChainingHashTable<>(n, CapacityPolicy.POWER_OF_TWO);
+        }
+    },
+    INCREMENTAL {
+        @Override
+        public <E> KeyedHashTable<E> create(int n) {
+            return new IncrementalChainingHashTable<>(n, CapacityPolicy.POWER_OF_TWO);
+        }
+    },
+    LINEAR_PROBING {
+        @Override
+        public <E> KeyedHashTable<E> create(int n) {
+            return new LinearProbingHashTable<>(n);
+        }
+    },
+    ROBIN_HOOD {
+        @Override
+        public <E> KeyedHashTable<E> create(int n) {
+            return new RobinHoodHashTable<>(n);
+        }
+    },
+    CUCKOO {
+        @Override
+        public <E> KeyedHashTable<E> create(int n) {
+            return new CuckooHashTable<>(n);
+        }
+    },
+    SWISS {
+        @Override
+        public <E> KeyedHashTable<E> create(int n) {
+            return new SwissHashTable<>(n);
+        }
+    },
+    CONCURRENT {
+        @Override
+        public <E> KeyedHashTable<E> create(int n) {
+            return new ConcurrentChainingHashTable<>(n, ConcurrentChainingHashTable.DEFAULT_CONCURRENCY_LEVEL);
+        }
+    };
+
+    /**
+     * Create an empty table with room for at least n elements.
+     *
+     * @param n the initial capacity hint
+     * @return the new table
+     */
+    public abstract <E> KeyedHashTable<E> create(int n);
+}
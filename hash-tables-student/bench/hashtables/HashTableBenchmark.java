@@ -0,0 +1,104 @@
+package hashtables;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Steady-state cost of single operations on a populated table.
+ *
+ * The table is filled with `size` keys once per trial. Each invocation then
+ * looks up (or removes and re-adds) one key, walking a precomputed order of
+ * present and absent keys so that `hitRatio` of the lookups succeed. The
+ * table's size does not change across invocations, so no resizing is
+ * measured here; see ResizeBenchmark for that, and CollisionBenchmark for
+ * keys whose hash codes collide.
+ *
+ * The default sizes fit in the heap BenchmarkRunner gives a fork; larger
+ * ones can be added with, e.g., -p size=100000000 and -Dbench.heap=24g.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HashTableBenchmark {
+    private static final int LOOKUPS = 1 << 20;
+
+    @Param({"CHAINING", "CHAINING_POW2", "INCREMENTAL", "LINEAR_PROBING", "ROBIN_HOOD", "CUCKOO", "SWISS", "CONCURRENT"})
+    public Engine engine;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "UNIFORM", "ZIPFIAN"})
+    public KeyDistribution distribution;
+
+    @Param({"1.0", "0.0"})
+    public double hitRatio;
+
+    private KeyedHashTable<Object> table;
+    private Object[] probes;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Object[] present = this.distribution.present(this.size, 42);
+        Object[] absent = this.distribution.absent(this.size, 42);
+        this.table = this.engine.create(7);
+        for (Object key : present) {
+            this.table.add(key);
+        }
+
+        int[] order = this.distribution.lookupOrder(this.size, LOOKUPS, 43);
+        this.probes = new Object[LOOKUPS];
+        java.util.Random random = new java.util.Random(44);
+        for (int i = 0; i < LOOKUPS; i++) {
+            boolean hit = random.nextDouble() < this.hitRatio;
+            this.probes[i] = hit ? present[order[i]] : absent[order[i]];
+        }
+    }
+
+    private Object nextProbe() {
+        Object probe = this.probes[this.cursor];
+        this.cursor = (this.cursor + 1) & (LOOKUPS - 1);
+        return probe;
+    }
+
+    @Benchmark
+    public boolean contains() {
+        return this.table.contains(nextProbe());
+    }
+
+    @Benchmark
+    public Object get() {
+        return this.table.get(nextProbe());
+    }
+
+    /**
+     * A remove followed by an add of the same key, which leaves the table as
+     * it was. Misses make this a failed remove plus an add and a remove of a
+     * fresh key, so the size still does not drift.
+     */
+    @Benchmark
+    public boolean removeAndAdd() {
+        Object key = nextProbe();
+        if (this.table.remove(key)) {
+            return this.table.add(key);
+        }
+        this.table.add(key);
+        return this.table.remove(key);
+    }
+}
@@ -0,0 +1,173 @@
+package hashtables;
+
+import java.util.Random;
+
+/**
+ * Generates the keys used by the benchmarks.
+ *
+ * Every distribution produces n distinct keys to insert ("present" keys) and
+ * n keys guaranteed not to be in the table ("absent" keys), so that a
+ * benchmark can mix hits and misses in any ratio. The lookup order is drawn
+ * separately, so Zipfian traffic hammers a few hot keys.
+ */
+public enum KeyDistribution {
+
+    /**
+     * The integers 0 to n-1, inserted in order. Easy for every hash function.
+     */
+    SEQUENTIAL,
+
+    /**
+     * Uniformly random distinct integers.
+     */
+    UNIFORM,
+
+    /**
+     * Uniformly random distinct integers, looked up with a Zipfian
+     * (skew 0.99) popularity, as in the YCSB benchmarks.
+     */
+    ZIPFIAN,
+
+    /**
+     * Keys whose hashCode() only takes 64 distinct values, so that every
+     * table degenerates into a few long chains or probe runs.
+     */
+    COLLISIONS;
+
+    /**
+     * A key with a chosen hash code, used by COLLISIONS.
+     */
+    public static final class CollidingKey {
+        private final int id;
+
+        public CollidingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.id & 63;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CollidingKey && ((CollidingKey) obj).id == this.id;
+        }
+    }
+
+    /**
+     * Return n distinct keys that will be inserted.
+     *
+     * @param n    the number of keys
+     * @param seed the random seed
+     * @return the keys
+     */
+    public Object[] present(int n, long seed) {
+        Object[] keys = new Object[n];
+        int salt = new Random(seed).nextInt();
+        for (int i = 0; i < n; i++) {
+            keys[i] = key(i, salt);
+        }
+        return keys;
+    }
+
+    /**
+     * Return n distinct keys that are disjoint from present(n, seed).
+     *
+     * @param n    the number of keys
+     * @param seed the random seed used for present()
+     * @return the keys
+     */
+    public Object[] absent(int n, long seed) {
+        Object[] keys = new Object[n];
+        int salt = new Random(seed).nextInt();
+        for (int i = 0; i < n; i++) {
+            keys[i] = key(n + i, salt);
+        }
+        return keys;
+    }
+
+    /**
+     * Return the order in which a benchmark should look up keys: `count`
+     * indexes into an array of n keys.
+     *
+     * @param n     the number of keys
+     * @param count the number of lookups
+     * @param seed  the random seed
+     * @return the lookup order
+     */
+    public int[] lookupOrder(int n, int count, long seed) {
+        int[] order = new int[count];
+        Random random = new Random(seed);
+        if (this == ZIPFIAN) {
+            Zipfian zipf = new Zipfian(n, 0.99);
+            for (int i = 0; i < count; i++) {
+                order[i] = zipf.next(random);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                order[i] = random.nextInt(n);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * The i-th key. Random keys are a bijective scramble of i (an odd
+     * multiply, a rotation and an xor with a seeded salt), so they look
+     * uniform over the whole int range but are guaranteed distinct.
+     */
+    private Object key(int i, int salt) {
+        switch (this) {
+            case SEQUENTIAL:
+                return i;
+            case COLLISIONS:
+                return new CollidingKey(i);
+            default:
+                return Integer.rotateLeft(i * 0x9E3779B1, 7) ^ salt;
+        }
+    }
+
+    /**
+     * Draws ranks in [0, n) with probability proportional to 1/(rank+1)^theta,
+     * using the rejection-free method of Gray et al., "Quickly Generating
+     * Billion-Record Synthetic Databases".
+     */
+    static final class Zipfian {
+        private final int n;
+        private final double theta;
+        private final double alpha;
+        private final double zetan;
+        private final double eta;
+
+        Zipfian(int n, double theta) {
+            this.n = n;
+            this.theta = theta;
+            this.alpha = 1.0 / (1.0 - theta);
+            this.zetan = zeta(n, theta);
+            double zeta2 = zeta(2, theta);
+            this.eta = (1 - Math.pow(2.0 / n, 1 - theta)) / (1 - zeta2 / this.zetan);
+        }
+
+        int next(Random random) {
+            double u = random.nextDouble();
+            double uz = u * this.zetan;
+            if (uz < 1.0) {
+                return 0;
+            }
+            if (uz < 1.0 + Math.pow(0.5, this.theta)) {
+                return Math.min(1, this.n - 1);
+            }
+            int rank = (int) (this.n * Math.pow(this.eta * u - this.eta + 1, this.alpha));
+            return Math.min(rank, this.n - 1);
+        }
+
+        private static double zeta(int n, double theta) {
+            double sum = 0;
+            for (int i = 1; i <= n; i++) {
+                sum += 1 / Math.pow(i, theta);
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package hashtables;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The distribution of single lookup times, not just their mean, for a table
+ * filled as close to its resize threshold as it gets.
+ *
+ * This is where CuckooHashTable's bound of two buckets per lookup should
+ * show against the chains of ChainingHashTable: the mean is similar, but the
+ * p99.9 and maximum reported by SampleTime mode are not. Each table is
+ * filled from its initial capacity until the next add would resize it, so
+ * every engine is measured at its own highest load factor.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LookupLatencyBenchmark {
+    private static final int LOOKUPS = 1 << 20;
+
+    @Param({"CHAINING", "CHAINING_POW2", "LINEAR_PROBING", "ROBIN_HOOD", "CUCKOO", "SWISS"})
+    public Engine engine;
+
+    @Param({"1024", "1048576", "4194304"})
+    public int capacity;
+
+    @Param({"1.0", "0.0"})
+    public double hitRatio;
+
+    private KeyedHashTable<Object> table;
+    private Object[] probes;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.table = this.engine.create(this.capacity);
+        int initialCapacity = this.table.capacity();
+        Object[] keys = KeyDistribution.UNIFORM.present(this.capacity * 2, 42);
+        Object[] absent = KeyDistribution.UNIFORM.absent(this.capacity * 2, 42);
+        // the capacity change reveals the add that resized, which is undone
+        int added = 0;
+        while (true) {
+            this.table.add(keys[added]);
+            if (this.table.capacity() != initialCapacity) {
+                break;
+            }
+            added++;
+        }
+        this.table = this.engine.create(this.capacity);
+        for (int i = 0; i < added; i++) {
+            this.table.add(keys[i]);
+        }
+
+        Random random = new Random(43);
+        this.probes = new Object[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            boolean hit = random.nextDouble() < this.hitRatio;
+            this.probes[i] = hit ? keys[random.nextInt(added)] : absent[random.nextInt(absent.length)];
+        }
+    }
+
+    @Benchmark
+    public Object get() {
+        Object probe = this.probes[this.cursor];
+        this.cursor = (this.cursor + 1) & (LOOKUPS - 1);
+        return this.table.get(probe);
+    }
+}
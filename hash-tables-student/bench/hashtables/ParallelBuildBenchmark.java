@@ -0,0 +1,61 @@
+package hashtables;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Building a ChainingHashTable from a large list: one addAll() on a single
+ * thread against parallelBuild() on the common fork-join pool.
+ *
+ * Like ResizeBenchmark, each invocation builds one complete table.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelBuildBenchmark {
+
+    @Param({"MERSENNE", "POWER_OF_TWO"})
+    public CapacityPolicy policy;
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "UNIFORM"})
+    public KeyDistribution distribution;
+
+    private List<Object> keys;
+
+    @Setup(Level.Trial)
+    public void setupKeys() {
+        this.keys = Arrays.asList(this.distribution.present(this.size, 42));
+    }
+
+    @Benchmark
+    public ChainingHashTable<Object> sequentialAddAll() {
+        ChainingHashTable<Object> table = new ChainingHashTable<>(7, this.policy);
+        table.addAll(this.keys);
+        return table;
+    }
+
+    @Benchmark
+    public ChainingHashTable<Object> parallelBuild() {
+        return ChainingHashTable.parallelBuild(this.keys, this.policy);
+    }
+}
@@ -0,0 +1,143 @@
+package hashtables;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The cost of building a table from empty, including every resize on the way,
+ * and the cost of a single resize of a full table.
+ *
+ * Both are single-shot measurements: each invocation starts from a fresh
+ * table, so the time reported is for one complete build or one resize.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Thread)
+public class ResizeBenchmark {
+
+    @Param({"CHAINING", "CHAINING_POW2", "INCREMENTAL", "LINEAR_PROBING", "ROBIN_HOOD", "CUCKOO", "SWISS"})
+    public Engine engine;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "UNIFORM"})
+    public KeyDistribution distribution;
+
+    private Object[] keys;
+    // the same keys, seen as a Set so that addAll knows they are distinct
+    private Set<Object> keySet;
+    // keys followed by size more keys, the order in which resizeOnAdd fills a table
+    private Object[] sequence;
+    // the index in sequence of the first add, after all of keys, that grows the table
+    private int trigger;
+    private KeyedHashTable<Object> full;
+
+    @Setup(Level.Trial)
+    public void setupKeys() {
+        this.keys = this.distribution.present(this.size, 42);
+        this.keySet = new AbstractSet<Object>() {
+            @Override
+            public Iterator<Object> iterator() {
+                return Arrays.asList(keys).iterator();
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+        Object[] extra = this.distribution.absent(this.size, 42);
+        this.sequence = new Object[this.keys.length + extra.length];
+        System.arraycopy(this.keys, 0, this.sequence, 0, this.keys.length);
+        System.arraycopy(extra, 0, this.sequence, this.keys.length, extra.length);
+
+        // resizing is deterministic, so a dry run finds the add that triggers one
+        KeyedHashTable<Object> table = this.engine.create(7);
+        for (int i = 0; i < this.keys.length; i++) {
+            table.add(this.sequence[i]);
+        }
+        int capacity = table.capacity();
+        this.trigger = this.keys.length;
+        while (true) {
+            table.add(this.sequence[this.trigger]);
+            if (table.capacity() != capacity) {
+                break;
+            }
+            this.trigger++;
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupFullTable() {
+        this.full = this.engine.create(7);
+        for (int i = 0; i < this.trigger; i++) {
+            this.full.add(this.sequence[i]);
+        }
+    }
+
+    /**
+     * Insert every key into an empty table that starts at the default
+     * capacity, so that it resizes roughly log2(size) times.
+     */
+    @Benchmark
+    public KeyedHashTable<Object> buildFromEmpty() {
+        KeyedHashTable<Object> table = this.engine.create(7);
+        for (Object key : this.keys) {
+            table.add(key);
+        }
+        return table;
+    }
+
+    /**
+     * Insert keys into a table that was sized for all of them up front,
+     * which is the lower bound buildFromEmpty is compared against.
+     */
+    @Benchmark
+    public KeyedHashTable<Object> buildPresized() {
+        KeyedHashTable<Object> table = this.engine.create((int) Math.min(Integer.MAX_VALUE / 2, this.size * 4L / 3 + 1));
+        for (Object key : this.keys) {
+            table.add(key);
+        }
+        return table;
+    }
+
+    /**
+     * Insert every key with one addAll() into an empty table at the default
+     * capacity, which grows the table once, up front, where it can.
+     */
+    @Benchmark
+    public KeyedHashTable<Object> buildWithAddAll() {
+        KeyedHashTable<Object> table = this.engine.create(7);
+        table.addAll(this.keySet);
+        return table;
+    }
+
+    /**
+     * The single add() that makes a table of at least `size` elements grow,
+     * which is where a stop-the-world rehash shows up as a latency spike.
+     */
+    @Benchmark
+    public boolean resizeOnAdd() {
+        return this.full.add(this.sequence[this.trigger]);
+    }
+}
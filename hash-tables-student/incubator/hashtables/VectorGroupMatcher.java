@@ -0,0 +1,32 @@
+package hashtables;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A GroupMatcher that compares a whole group of control bytes with one
+ * 128-bit vector comparison, using the incubating Vector API.
+ *
+ * This class lives in its own source root because it needs
+ * --add-modules jdk.incubator.vector both to compile and to run.
+ * SwissHashTable loads it reflectively and falls back to SwarGroupMatcher
+ * if it is missing or the module is not available.
+ */
+final class VectorGroupMatcher implements GroupMatcher {
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_128;
+
+    @Override
+    public int match(byte[] ctrl, int offset, byte h2) {
+        return (int) ByteVector.fromArray(SPECIES, ctrl, offset).eq(h2).toLong();
+    }
+
+    @Override
+    public int matchEmpty(byte[] ctrl, int offset) {
+        return (int) ByteVector.fromArray(SPECIES, ctrl, offset).eq(SwissHashTable.EMPTY).toLong();
+    }
+
+    @Override
+    public int matchEmptyOrDeleted(byte[] ctrl, int offset) {
+        return (int) ByteVector.fromArray(SPECIES, ctrl, offset).lt((byte) 0).toLong();
+    }
+}
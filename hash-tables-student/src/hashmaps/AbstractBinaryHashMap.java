@@ -0,0 +1,403 @@
+package hashmaps;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import hashtables.Hashing;
+
+/**
+ * A skeletal SimpleMap that stores encoded keys and values in regions of
+ * memory outside the Java heap, so that the number of heap objects it uses
+ * does not grow with its size.
+ *
+ * Keys and values are converted to bytes with a Codec. The map uses two
+ * regions:
+ *
+ * - The index is an open-addressing table of 16-byte slots, each holding the
+ *   offset of a record in the data region and the record's key hash, after
+ *   a 64-byte header. Like LinearProbingHashTable, it uses linear probing
+ *   with backward-shift deletion, and a power-of-two capacity that doubles
+ *   when the load factor would exceed 0.75.
+ *
+ * - The data region is a log of records, each holding the lengths of the
+ *   encoded key and value and then their bytes, padded to 8 bytes. A null
+ *   value is recorded with a length of -1 and no bytes, so it is never
+ *   passed to the value codec. Records are only ever appended: replacing a
+ *   value appends a new record and points the slot at it, and removing a key
+ *   only clears its slot. The space taken by records that are no longer
+ *   referenced is reported by garbageBytes().
+ *
+ * compact() copies the live records into a fresh data region, in index
+ * order, and releases the old one. A put() or remove() calls it whenever
+ * more than half of the data region, and at least COMPACT_MIN_GARBAGE
+ * bytes, is garbage, so the data never takes more than about twice the
+ * space of the live entries, and each byte of garbage is paid for by
+ * copying at most one byte of live data.
+ *
+ * Keys are hashed and compared by their encoded bytes, so lookups never
+ * decode a key. Subclasses decide where the regions live.
+ *
+ * keySet(), values() and entries() decode each entry as they visit it.
+ * Their iterators do not support remove(), like those of
+ * LinearProbingHashTable, but the views' own remove methods work.
+ */
+public abstract class AbstractBinaryHashMap<K, V> extends AbstractSimpleMap<K, V> {
+    static final int HEADER_SIZE = 64;
+    static final int SLOT_SIZE = 16;
+    // the data region starts with an 8-byte header, so no record is at offset 0
+    static final long DATA_START = 8;
+    private static final double LOAD_FACTOR_THRESHOLD = 0.75;
+    // the value length of a record whose value is null
+    private static final int NULL_VALUE = -1;
+
+    /**
+     * The least garbage, in bytes, that makes a put() or remove() compact
+     * the data region.
+     */
+    public static final long COMPACT_MIN_GARBAGE = 1 << 16;
+
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    ChunkedRegion index;
+    ChunkedRegion data;
+    int capacity;
+    int size;
+    long dataEnd;
+    long garbage;
+
+    AbstractBinaryHashMap(Codec<K> keyCodec, Codec<V> valueCodec) {
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+    }
+
+    /**
+     * Return a new, zeroed index region with room for the header and
+     * capacity slots.
+     *
+     * @param capacity the number of slots
+     * @return the new index
+     */
+    abstract ChunkedRegion newIndex(int capacity);
+
+    /**
+     * Make newIndex, which holds every entry, the map's index in place of
+     * the current one.
+     *
+     * @param newIndex the new index
+     */
+    abstract void replaceIndex(ChunkedRegion newIndex);
+
+    /**
+     * Return a new, zeroed data region of the given length.
+     *
+     * @param length the length of the region
+     * @return the new data region
+     */
+    abstract ChunkedRegion newData(long length);
+
+    /**
+     * Make newIndex and newData, which compact() has filled with every
+     * entry, the map's index and data in place of the current ones. The
+     * size, end of the data and garbage count are already up to date.
+     *
+     * @param newIndex the new index
+     * @param newData  the new data region
+     */
+    abstract void replaceStorage(ChunkedRegion newIndex, ChunkedRegion newData);
+
+    /**
+     * Called after every change to the size, the end of the data or the
+     * garbage count.
+     */
+    void onChange() {
+    }
+
+    /**
+     * @return the number of slots in the index
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * @return the number of bytes in the data region taken by records that
+     *         were replaced or removed
+     */
+    public long garbageBytes() {
+        return this.garbage;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public void put(K k, V v) {
+        if (k == null) {
+            return;
+        }
+        byte[] key = this.keyCodec.encode(k);
+        byte[] value = v == null ? null : this.valueCodec.encode(v);
+        int hash = hash(key);
+        long slot = findSlot(key, hash);
+        if (slot >= 0) {
+            long old = this.index.getLong(slot);
+            this.garbage += recordSize(old);
+            this.index.putLong(slot, append(key, value));
+            onChange();
+            compactIfWasteful();
+            return;
+        }
+        if (this.size + 1 > LOAD_FACTOR_THRESHOLD * this.capacity) {
+            resize();
+        }
+        long offset = append(key, value);
+        insert(this.index, this.capacity, offset, hash);
+        this.size++;
+        onChange();
+    }
+
+    @Override
+    public V get(K k) {
+        return getOrDefault(k, null);
+    }
+
+    @Override
+    public V getOrDefault(K k, V defaultValue) {
+        if (k == null) {
+            return null;
+        }
+        byte[] key = this.keyCodec.encode(k);
+        long slot = findSlot(key, hash(key));
+        if (slot < 0) {
+            return defaultValue;
+        }
+        return readValue(this.index.getLong(slot));
+    }
+
+    @Override
+    public V remove(K k) {
+        if (k == null) {
+            return null;
+        }
+        byte[] key = this.keyCodec.encode(k);
+        long slot = findSlot(key, hash(key));
+        if (slot < 0) {
+            return null;
+        }
+        long offset = this.index.getLong(slot);
+        V v = readValue(offset);
+        this.garbage += recordSize(offset);
+        deleteSlot(slot);
+        this.size--;
+        onChange();
+        compactIfWasteful();
+        return v;
+    }
+
+    @Override
+    protected SimpleMapEntry<K, V> getEntry(K k) {
+        byte[] key = this.keyCodec.encode(k);
+        long slot = findSlot(key, hash(key));
+        if (slot < 0) {
+            return null;
+        }
+        return readEntry(this.index.getLong(slot));
+    }
+
+    @Override
+    protected Iterator<SimpleMapEntry<K, V>> entryIterator() {
+        return new Iterator<SimpleMapEntry<K, V>>() {
+            private int next = advance(0);
+
+            private int advance(int i) {
+                while (i < capacity && index.getLong(slotPosition(i)) == 0) {
+                    i++;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.next < capacity;
+            }
+
+            @Override
+            public SimpleMapEntry<K, V> next() {
+                if (this.next >= capacity) {
+                    throw new NoSuchElementException();
+                }
+                SimpleMapEntry<K, V> e = readEntry(index.getLong(slotPosition(this.next)));
+                this.next = advance(this.next + 1);
+                return e;
+            }
+        };
+    }
+
+    /**
+     * Copy the live records into a new data region, with no garbage between
+     * them, and release the old region. The index keeps its capacity and
+     * every entry keeps its slot.
+     */
+    public void compact() {
+        long live = this.dataEnd - DATA_START - this.garbage;
+        ChunkedRegion newIndex = newIndex(this.capacity);
+        ChunkedRegion newData = newData(Math.max(4096, DATA_START + live));
+        long end = DATA_START;
+        for (int i = 0; i < this.capacity; i++) {
+            long slot = slotPosition(i);
+            long offset = this.index.getLong(slot);
+            if (offset == 0) {
+                continue;
+            }
+            byte[] record = new byte[(int) recordSize(offset)];
+            this.data.get(offset, record);
+            newData.put(end, record);
+            newIndex.putLong(slot, end);
+            newIndex.putInt(slot + 8, this.index.getInt(slot + 8));
+            end += record.length;
+        }
+        this.dataEnd = end;
+        this.garbage = 0;
+        replaceStorage(newIndex, newData);
+    }
+
+    private void compactIfWasteful() {
+        if (this.garbage >= COMPACT_MIN_GARBAGE && this.garbage * 2 > this.dataEnd - DATA_START) {
+            compact();
+        }
+    }
+
+    /**
+     * Returns the position in the index of the slot holding key, or -1.
+     */
+    private long findSlot(byte[] key, int hash) {
+        int mask = this.capacity - 1;
+        int i = hash & mask;
+        while (true) {
+            long slot = slotPosition(i);
+            long offset = this.index.getLong(slot);
+            if (offset == 0) {
+                return -1;
+            }
+            if (this.index.getInt(slot + 8) == hash && keyEquals(offset, key)) {
+                return slot;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private boolean keyEquals(long offset, byte[] key) {
+        if (this.data.getInt(offset) != key.length) {
+            return false;
+        }
+        return this.data.equals(offset + 8, key);
+    }
+
+    /**
+     * Removes the slot by shifting later members of its probe run back
+     * over it, as LinearProbingHashTable does.
+     */
+    private void deleteSlot(long slot) {
+        int mask = this.capacity - 1;
+        int hole = (int) ((slot - HEADER_SIZE) / SLOT_SIZE);
+        int j = hole;
+        while (true) {
+            j = (j + 1) & mask;
+            long offset = this.index.getLong(slotPosition(j));
+            if (offset == 0) {
+                break;
+            }
+            int hash = this.index.getInt(slotPosition(j) + 8);
+            int home = hash & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                this.index.putLong(slotPosition(hole), offset);
+                this.index.putInt(slotPosition(hole) + 8, hash);
+                hole = j;
+            }
+        }
+        this.index.putLong(slotPosition(hole), 0);
+        this.index.putInt(slotPosition(hole) + 8, 0);
+    }
+
+    /**
+     * Doubles the index. Only the slots are rehashed; the data region is not
+     * touched.
+     */
+    private void resize() {
+        int newCapacity = this.capacity << 1;
+        ChunkedRegion newIndex = newIndex(newCapacity);
+        for (int i = 0; i < this.capacity; i++) {
+            long offset = this.index.getLong(slotPosition(i));
+            if (offset != 0) {
+                insert(newIndex, newCapacity, offset, this.index.getInt(slotPosition(i) + 8));
+            }
+        }
+        this.capacity = newCapacity;
+        replaceIndex(newIndex);
+    }
+
+    private static void insert(ChunkedRegion index, int capacity, long offset, int hash) {
+        int mask = capacity - 1;
+        int i = hash & mask;
+        while (index.getLong(slotPosition(i)) != 0) {
+            i = (i + 1) & mask;
+        }
+        index.putLong(slotPosition(i), offset);
+        index.putInt(slotPosition(i) + 8, hash);
+    }
+
+    /**
+     * Appends a record to the data region and returns its offset. A null
+     * value is recorded as NULL_VALUE.
+     */
+    private long append(byte[] key, byte[] value) {
+        long offset = this.dataEnd;
+        int valueLength = value == null ? 0 : value.length;
+        long end = offset + align(8L + key.length + valueLength);
+        this.data.ensureLength(end);
+        this.data.putInt(offset, key.length);
+        this.data.putInt(offset + 4, value == null ? NULL_VALUE : value.length);
+        this.data.put(offset + 8, key);
+        if (value != null) {
+            this.data.put(offset + 8 + key.length, value);
+        }
+        this.dataEnd = end;
+        return offset;
+    }
+
+    private long recordSize(long offset) {
+        return align(8L + this.data.getInt(offset) + Math.max(0, this.data.getInt(offset + 4)));
+    }
+
+    private V readValue(long offset) {
+        int keyLength = this.data.getInt(offset);
+        int valueLength = this.data.getInt(offset + 4);
+        if (valueLength == NULL_VALUE) {
+            return null;
+        }
+        byte[] value = new byte[valueLength];
+        this.data.get(offset + 8 + keyLength, value);
+        return this.valueCodec.decode(value);
+    }
+
+    private SimpleMapEntry<K, V> readEntry(long offset) {
+        byte[] key = new byte[this.data.getInt(offset)];
+        this.data.get(offset + 8, key);
+        return new SimpleMapEntry<>(this.keyCodec.decode(key), readValue(offset));
+    }
+
+    static long slotPosition(int i) {
+        return HEADER_SIZE + (long) i * SLOT_SIZE;
+    }
+
+    private static long align(long n) {
+        return (n + 7) & ~7L;
+    }
+
+    private static int hash(byte[] key) {
+        return Hashing.mix(Arrays.hashCode(key));
+    }
+}
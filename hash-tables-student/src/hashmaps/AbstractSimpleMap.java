@@ -0,0 +1,182 @@
+package hashmaps;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * A skeletal implementation of SimpleMap, in the spirit of
+ * java.util.AbstractMap.
+ *
+ * Subclasses provide an iterator over their entries and a way to find the
+ * entry for a key; this class builds keys() and the live keySet(), values()
+ * and entries() views on top of them. The views are created once and hold
+ * no elements of their own, so iterating over them allocates nothing beyond
+ * the subclass's entry iterator.
+ */
+public abstract class AbstractSimpleMap<K, V> implements SimpleMap<K, V> {
+    private Set<K> keySet;
+    private Collection<V> values;
+    private Set<SimpleMapEntry<K, V>> entries;
+
+    /**
+     * Return an iterator over the entries of the map. If the map allows it,
+     * the iterator's remove() removes the last returned entry from the map.
+     *
+     * @return an iterator over the entries of the map
+     */
+    protected abstract Iterator<SimpleMapEntry<K, V>> entryIterator();
+
+    /**
+     * Return the entry for the given key, or null if the key is not in the map.
+     *
+     * @param k the (non-null) key
+     * @return the entry for k, or null
+     */
+    protected abstract SimpleMapEntry<K, V> getEntry(K k);
+
+    @Override
+    public Set<K> keys() {
+        Set<K> s = new HashSet<K>();
+        for (SimpleMapEntry<K, V> e : entries()) {
+            s.add(e.k);
+        }
+        return s;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        if (this.keySet == null) {
+            this.keySet = new KeySet();
+        }
+        return this.keySet;
+    }
+
+    @Override
+    public Collection<V> values() {
+        if (this.values == null) {
+            this.values = new Values();
+        }
+        return this.values;
+    }
+
+    @Override
+    public Set<SimpleMapEntry<K, V>> entries() {
+        if (this.entries == null) {
+            this.entries = new Entries();
+        }
+        return this.entries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean containsKey(Object o) {
+        if (o == null) {
+            return false;
+        }
+        try {
+            return getEntry((K) o) != null;
+        } catch (ClassCastException e) {
+            return false;
+        }
+    }
+
+    private class KeySet extends AbstractSet<K> {
+        @Override
+        public Iterator<K> iterator() {
+            Iterator<SimpleMapEntry<K, V>> it = entryIterator();
+            return new Iterator<K>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public K next() {
+                    return it.next().k;
+                }
+
+                @Override
+                public void remove() {
+                    it.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return AbstractSimpleMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return containsKey(o);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            if (!containsKey(o)) {
+                return false;
+            }
+            AbstractSimpleMap.this.remove((K) o);
+            return true;
+        }
+    }
+
+    private class Values extends AbstractCollection<V> {
+        @Override
+        public Iterator<V> iterator() {
+            Iterator<SimpleMapEntry<K, V>> it = entryIterator();
+            return new Iterator<V>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public V next() {
+                    return it.next().v;
+                }
+
+                @Override
+                public void remove() {
+                    it.remove();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return AbstractSimpleMap.this.size();
+        }
+    }
+
+    /**
+     * Entries are equal when their keys are, so an entry is in this set iff
+     * its key is in the map.
+     */
+    private class Entries extends AbstractSet<SimpleMapEntry<K, V>> {
+        @Override
+        public Iterator<SimpleMapEntry<K, V>> iterator() {
+            return entryIterator();
+        }
+
+        @Override
+        public int size() {
+            return AbstractSimpleMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof SimpleMapEntry && containsKey(((SimpleMapEntry<?, ?>) o).k);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof SimpleMapEntry && keySet().remove(((SimpleMapEntry<?, ?>) o).k);
+        }
+    }
+}
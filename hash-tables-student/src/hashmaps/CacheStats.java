@@ -0,0 +1,77 @@
+package hashmaps;
+
+/**
+ * A snapshot of the counters kept by a bounded cache.
+ *
+ * A lookup (get or getOrDefault) is a hit if the key was in the cache and a
+ * miss otherwise. An eviction is an entry removed by the cache itself to stay
+ * within its maximum size; entries removed explicitly are not counted.
+ */
+public class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    /**
+     * Create a snapshot of the given counters.
+     *
+     * @param hitCount      the number of lookups that found their key
+     * @param missCount     the number of lookups that did not
+     * @param evictionCount the number of entries evicted
+     */
+    CacheStats(long hitCount, long missCount, long evictionCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * @return the number of lookups that found their key
+     */
+    public long hitCount() {
+        return this.hitCount;
+    }
+
+    /**
+     * @return the number of lookups that did not find their key
+     */
+    public long missCount() {
+        return this.missCount;
+    }
+
+    /**
+     * @return the number of entries evicted to respect the maximum size
+     */
+    public long evictionCount() {
+        return this.evictionCount;
+    }
+
+    /**
+     * @return the total number of lookups
+     */
+    public long requestCount() {
+        return this.hitCount + this.missCount;
+    }
+
+    /**
+     * @return the fraction of lookups that were hits, or 1 if there were none
+     */
+    public double hitRate() {
+        long requests = requestCount();
+        return requests == 0 ? 1.0 : (double) this.hitCount / requests;
+    }
+
+    /**
+     * @return the fraction of lookups that were misses, or 0 if there were none
+     */
+    public double missRate() {
+        long requests = requestCount();
+        return requests == 0 ? 0.0 : (double) this.missCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats[hits=%d, misses=%d, evictions=%d, hitRate=%.4f]",
+                this.hitCount, this.missCount, this.evictionCount, hitRate());
+    }
+}
@@ -0,0 +1,122 @@
+package hashmaps;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A growable run of bytes outside the Java heap, addressed with long
+ * offsets.
+ *
+ * A single ByteBuffer cannot exceed 2GB, so the region is a series of 1GB
+ * chunks; only the last one may be shorter. Longs and ints must be aligned
+ * to their size, so that they never straddle two chunks; byte arrays can go
+ * anywhere. Subclasses decide where the chunks come from.
+ */
+abstract class ChunkedRegion {
+    static final int CHUNK_SHIFT = 30;
+    static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = (int) (CHUNK_SIZE - 1);
+
+    ByteBuffer[] chunks = new ByteBuffer[0];
+    long length;
+
+    /**
+     * Replace the chunks so that the region is newLength bytes long, keeping
+     * its contents. Bytes added to the region read as zero.
+     *
+     * @param newLength the new length, larger than the current one
+     */
+    abstract void grow(long newLength);
+
+    /**
+     * @return the length of the region
+     */
+    long length() {
+        return this.length;
+    }
+
+    /**
+     * Grow the region to at least minLength bytes, at least doubling it so
+     * that a series of appends grows it O(log n) times.
+     */
+    void ensureLength(long minLength) {
+        if (minLength > this.length) {
+            grow(Math.max(minLength, this.length * 2));
+        }
+    }
+
+    long getLong(long pos) {
+        return chunk(pos).getLong(offset(pos));
+    }
+
+    void putLong(long pos, long value) {
+        chunk(pos).putLong(offset(pos), value);
+    }
+
+    int getInt(long pos) {
+        return chunk(pos).getInt(offset(pos));
+    }
+
+    void putInt(long pos, int value) {
+        chunk(pos).putInt(offset(pos), value);
+    }
+
+    void get(long pos, byte[] dst) {
+        int done = 0;
+        while (done < dst.length) {
+            ByteBuffer chunk = chunk(pos + done);
+            int offset = offset(pos + done);
+            int n = Math.min(dst.length - done, chunk.capacity() - offset);
+            chunk.get(offset, dst, done, n);
+            done += n;
+        }
+    }
+
+    void put(long pos, byte[] src) {
+        int done = 0;
+        while (done < src.length) {
+            ByteBuffer chunk = chunk(pos + done);
+            int offset = offset(pos + done);
+            int n = Math.min(src.length - done, chunk.capacity() - offset);
+            chunk.put(offset, src, done, n);
+            done += n;
+        }
+    }
+
+    /**
+     * Compares the bytes at pos with bytes in place, without copying them
+     * out of the region.
+     *
+     * @return true iff the region holds exactly bytes at pos
+     */
+    boolean equals(long pos, byte[] bytes) {
+        int done = 0;
+        while (done < bytes.length) {
+            ByteBuffer chunk = chunk(pos + done);
+            int offset = offset(pos + done);
+            int n = Math.min(bytes.length - done, chunk.capacity() - offset);
+            for (int i = 0; i < n; i++) {
+                if (chunk.get(offset + i) != bytes[done + i]) {
+                    return false;
+                }
+            }
+            done += n;
+        }
+        return true;
+    }
+
+    /**
+     * @param length a region length
+     * @return the number of chunks a region of that length needs
+     */
+    static int chunkCount(long length) {
+        return (int) ((length + CHUNK_SIZE - 1) >>> CHUNK_SHIFT);
+    }
+
+    private ByteBuffer chunk(long pos) {
+        return this.chunks[(int) (pos >>> CHUNK_SHIFT)];
+    }
+
+    private static int offset(long pos) {
+        return (int) pos & CHUNK_MASK;
+    }
+}
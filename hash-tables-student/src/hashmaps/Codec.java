@@ -0,0 +1,87 @@
+package hashmaps;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts keys or values to and from bytes, for maps that store their
+ * entries outside the Java heap.
+ *
+ * Such maps compare and hash keys by their encoded bytes, so a key codec
+ * must encode equal keys to equal bytes. The result of encode() must not be
+ * modified by the codec afterwards.
+ */
+public interface Codec<T> {
+
+    /**
+     * Encodes strings as UTF-8.
+     */
+    Codec<String> STRING = new Codec<String>() {
+        @Override
+        public byte[] encode(String s) {
+            return s.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * Encodes integers as 4 big-endian bytes.
+     */
+    Codec<Integer> INTEGER = new Codec<Integer>() {
+        @Override
+        public byte[] encode(Integer i) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt(i).array();
+        }
+
+        @Override
+        public Integer decode(byte[] bytes) {
+            return ByteBuffer.wrap(bytes).getInt();
+        }
+    };
+
+    /**
+     * Encodes longs as 8 big-endian bytes.
+     */
+    Codec<Long> LONG = new Codec<Long>() {
+        @Override
+        public byte[] encode(Long l) {
+            return ByteBuffer.allocate(Long.BYTES).putLong(l).array();
+        }
+
+        @Override
+        public Long decode(byte[] bytes) {
+            return ByteBuffer.wrap(bytes).getLong();
+        }
+    };
+
+    /**
+     * Stores byte arrays as they are, without copying them.
+     */
+    Codec<byte[]> BYTES = new Codec<byte[]>() {
+        @Override
+        public byte[] encode(byte[] bytes) {
+            return bytes;
+        }
+
+        @Override
+        public byte[] decode(byte[] bytes) {
+            return bytes;
+        }
+    };
+
+    /**
+     * @param t the (non-null) object to encode
+     * @return the encoding of t
+     */
+    byte[] encode(T t);
+
+    /**
+     * @param bytes an encoding returned by encode()
+     * @return the object it encodes
+     */
+    T decode(byte[] bytes);
+}
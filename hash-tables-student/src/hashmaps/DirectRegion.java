@@ -0,0 +1,43 @@
+package hashmaps;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A ChunkedRegion made of direct ByteBuffers, i.e. memory outside the Java
+ * heap that the garbage collector never scans or moves.
+ *
+ * Growing the region allocates the new chunks, and copies the old last
+ * chunk into a bigger one if it was short. The memory is released when the
+ * region becomes unreachable and its buffers are collected.
+ */
+final class DirectRegion extends ChunkedRegion {
+
+    /**
+     * Allocate a region of length zeroed bytes.
+     */
+    DirectRegion(long length) {
+        grow(length);
+    }
+
+    @Override
+    void grow(long newLength) {
+        int count = chunkCount(newLength);
+        ByteBuffer[] newChunks = Arrays.copyOf(this.chunks, count);
+        for (int i = Math.max(0, this.chunks.length - 1); i < count; i++) {
+            long start = (long) i << CHUNK_SHIFT;
+            int size = (int) Math.min(CHUNK_SIZE, newLength - start);
+            ByteBuffer old = i < this.chunks.length ? this.chunks[i] : null;
+            if (old != null && old.capacity() == size) {
+                continue;
+            }
+            ByteBuffer chunk = ByteBuffer.allocateDirect(size);
+            if (old != null) {
+                chunk.put(0, old, 0, old.capacity());
+            }
+            newChunks[i] = chunk;
+        }
+        this.chunks = newChunks;
+        this.length = newLength;
+    }
+}
@@ -0,0 +1,315 @@
+package hashmaps;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import hashtables.ChainingHashTable;
+import hashtables.KeyedHashTable;
+
+/**
+ * A SimpleMap whose entries expire a fixed time after they were written
+ * and/or last read, and which can reload popular entries before they do.
+ *
+ * Each entry records when it was written and when it was last read, and
+ * expires when either age exceeds its limit (a limit of 0 disables it).
+ * Expiry is enforced in two ways:
+ *
+ * - Lazily: a lookup that finds an expired entry removes it and reports a
+ *   miss, so no read ever sees stale data.
+ *
+ * - By a sweeper: every entry has a timer on a TimerWheel, and cleanUp()
+ *   advances the wheel and removes the entries whose timers fire. Writes call
+ *   cleanUp() themselves; callers that write rarely can also schedule it.
+ *   Entries that nobody reads are therefore removed too, at a cost
+ *   proportional to the number of entries that expire.
+ *
+ * With a refresh interval, a loader and an executor, a read of an entry
+ * older than the refresh interval returns the current value at once and
+ * asks the executor to load a new one with the loader. When the load
+ * completes the entry is replaced, and its write time restarts. Only one
+ * reload per entry is in flight at a time, so a key that is read by many
+ * callers as it ages is reloaded once instead of all of them rebuilding it
+ * together when it expires. If the load throws, the entry keeps its value
+ * and the next read after the refresh interval tries again.
+ *
+ * Time comes from a ticker that returns nanoseconds, System.nanoTime() by
+ * default; tests can supply their own.
+ *
+ * Every method synchronizes on the map, since reloads complete on the
+ * executor's threads. Starting an iteration over keySet(), values() or
+ * entries() removes the expired entries first; if reloads may be in
+ * flight, iterate while holding the map's lock.
+ */
+public class ExpiringHashMap<K, V> extends AbstractSimpleMap<K, V> {
+    private static final BiPredicate<SimpleMapEntry<?, ?>, Object> KEY_MATCHER =
+            (entry, k) -> k.equals(entry.k);
+
+    private final KeyedHashTable<Node<K, V>> table = new ChainingHashTable<>();
+    private final TimerWheel<Node<K, V>> wheel;
+    private final long expireAfterWriteNanos;
+    private final long expireAfterAccessNanos;
+    private final long refreshAfterWriteNanos;
+    private final Function<? super K, ? extends V> loader;
+    private final Executor executor;
+    private final LongSupplier ticker;
+
+    private static final class Node<K, V> extends SimpleMapEntry<K, V> {
+        final long writeTime;
+        long accessTime;
+        TimerWheel.Timer<Node<K, V>> timer;
+        boolean refreshing;
+
+        Node(K k, V v, long now) {
+            super(k, v);
+            this.writeTime = now;
+            this.accessTime = now;
+        }
+    }
+
+    /**
+     * Instantiate a new map whose entries expire the given time after they
+     * were written and/or last read. A duration of 0 disables that limit.
+     *
+     * @param expireAfterWrite  how long an entry lives after it is written
+     * @param expireAfterAccess how long an entry lives after it is last read
+     * @param unit              the unit of both durations
+     */
+    public ExpiringHashMap(long expireAfterWrite, long expireAfterAccess, TimeUnit unit) {
+        this(expireAfterWrite, expireAfterAccess, 0, unit, null, null, System::nanoTime);
+    }
+
+    /**
+     * Instantiate a new map that expires entries as above and also reloads
+     * entries that are read once they are older than refreshAfterWrite, by
+     * running loader on executor.
+     *
+     * @param expireAfterWrite  how long an entry lives after it is written,
+     *                          or 0
+     * @param expireAfterAccess how long an entry lives after it is last read,
+     *                          or 0
+     * @param refreshAfterWrite how old an entry must be for a read to reload
+     *                          it, or 0 to never reload
+     * @param unit              the unit of all three durations
+     * @param loader            computes a fresh value for a key, or null
+     * @param executor          runs the loader, or null
+     * @param ticker            the clock, in nanoseconds
+     */
+    public ExpiringHashMap(long expireAfterWrite, long expireAfterAccess, long refreshAfterWrite,
+            TimeUnit unit, Function<? super K, ? extends V> loader, Executor executor,
+            LongSupplier ticker) {
+        if (expireAfterWrite < 0 || expireAfterAccess < 0 || refreshAfterWrite < 0) {
+            throw new IllegalArgumentException("durations must not be negative");
+        }
+        if (refreshAfterWrite > 0 && (loader == null || executor == null)) {
+            throw new IllegalArgumentException("refreshing requires a loader and an executor");
+        }
+        this.expireAfterWriteNanos = unit.toNanos(expireAfterWrite);
+        this.expireAfterAccessNanos = unit.toNanos(expireAfterAccess);
+        this.refreshAfterWriteNanos = unit.toNanos(refreshAfterWrite);
+        this.loader = loader;
+        this.executor = executor;
+        this.ticker = ticker;
+        this.wheel = new TimerWheel<>(ticker.getAsLong());
+    }
+
+    /**
+     * Return the number of entries in the map. This includes entries that
+     * have expired but have not been removed yet; call cleanUp() first for a
+     * closer count.
+     */
+    @Override
+    public synchronized int size() {
+        return this.table.size();
+    }
+
+    @Override
+    public synchronized void put(K k, V v) {
+        if (k == null) {
+            return;
+        }
+        long now = this.ticker.getAsLong();
+        cleanUp(now);
+        replace(new Node<>(k, v, now));
+    }
+
+    @Override
+    public V get(K k) {
+        return getOrDefault(k, null);
+    }
+
+    @Override
+    public synchronized V getOrDefault(K k, V defaultValue) {
+        if (k == null) {
+            return null;
+        }
+        long now = this.ticker.getAsLong();
+        Node<K, V> node = this.table.findKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
+        if (node == null) {
+            return defaultValue;
+        }
+        if (isExpired(node, now)) {
+            removeNode(node);
+            return defaultValue;
+        }
+        if (this.expireAfterAccessNanos > 0) {
+            node.accessTime = now;
+            this.wheel.reschedule(node.timer, expirationTime(node));
+        }
+        if (this.refreshAfterWriteNanos > 0 && !node.refreshing
+                && now - node.writeTime >= this.refreshAfterWriteNanos) {
+            refresh(node);
+        }
+        return node.v;
+    }
+
+    @Override
+    public synchronized V remove(K k) {
+        if (k == null) {
+            return null;
+        }
+        cleanUp(this.ticker.getAsLong());
+        Node<K, V> node = this.table.removeKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
+        if (node == null) {
+            return null;
+        }
+        cancel(node);
+        return node.v;
+    }
+
+    /**
+     * Remove every entry whose timer has fired since the last clean-up.
+     */
+    public synchronized void cleanUp() {
+        cleanUp(this.ticker.getAsLong());
+    }
+
+    @Override
+    protected synchronized SimpleMapEntry<K, V> getEntry(K k) {
+        Node<K, V> node = this.table.findKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
+        if (node == null || isExpired(node, this.ticker.getAsLong())) {
+            return null;
+        }
+        return node;
+    }
+
+    /**
+     * Removes every expired entry, then returns an iterator over the rest
+     * that supports remove().
+     */
+    @Override
+    protected synchronized Iterator<SimpleMapEntry<K, V>> entryIterator() {
+        long now = this.ticker.getAsLong();
+        for (Iterator<Node<K, V>> it = this.table.iterator(); it.hasNext();) {
+            Node<K, V> node = it.next();
+            if (isExpired(node, now)) {
+                it.remove();
+                cancel(node);
+            }
+        }
+        Iterator<Node<K, V>> it = this.table.iterator();
+        return new Iterator<SimpleMapEntry<K, V>>() {
+            private Node<K, V> last;
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public SimpleMapEntry<K, V> next() {
+                this.last = it.next();
+                return this.last;
+            }
+
+            @Override
+            public void remove() {
+                synchronized (ExpiringHashMap.this) {
+                    it.remove();
+                    cancel(this.last);
+                }
+            }
+        };
+    }
+
+    private void cleanUp(long now) {
+        this.wheel.advance(now, node -> {
+            this.table.removeKey(node.k, node.hash, KEY_MATCHER);
+        });
+    }
+
+    /**
+     * Stores node in place of any entry with the same key and schedules its
+     * expiry.
+     */
+    private void replace(Node<K, V> node) {
+        Node<K, V> old = this.table.put(node);
+        if (old != null) {
+            cancel(old);
+        }
+        if (this.expireAfterWriteNanos > 0 || this.expireAfterAccessNanos > 0) {
+            node.timer = this.wheel.schedule(node, expirationTime(node));
+        }
+    }
+
+    private void removeNode(Node<K, V> node) {
+        this.table.removeKey(node.k, node.hash, KEY_MATCHER);
+        cancel(node);
+    }
+
+    private void cancel(Node<K, V> node) {
+        if (node.timer != null) {
+            this.wheel.cancel(node.timer);
+        }
+    }
+
+    /**
+     * Starts an asynchronous reload of node. The result replaces node only
+     * if node is still the entry for its key.
+     */
+    private void refresh(Node<K, V> node) {
+        node.refreshing = true;
+        try {
+            this.executor.execute(() -> {
+                V v;
+                try {
+                    v = this.loader.apply(node.k);
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        node.refreshing = false;
+                    }
+                    return;
+                }
+                synchronized (this) {
+                    node.refreshing = false;
+                    Node<K, V> current = this.table.findKey(node.k, node.hash, KEY_MATCHER);
+                    if (current == node && v != null) {
+                        replace(new Node<>(node.k, v, this.ticker.getAsLong()));
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // the executor rejected the task; a later read will try again
+            node.refreshing = false;
+        }
+    }
+
+    private long expirationTime(Node<K, V> node) {
+        long time = Long.MAX_VALUE;
+        if (this.expireAfterWriteNanos > 0) {
+            time = node.writeTime + this.expireAfterWriteNanos;
+        }
+        if (this.expireAfterAccessNanos > 0) {
+            time = Math.min(time, node.accessTime + this.expireAfterAccessNanos);
+        }
+        return time;
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        return (this.expireAfterWriteNanos > 0 && now - node.writeTime >= this.expireAfterWriteNanos)
+                || (this.expireAfterAccessNanos > 0 && now - node.accessTime >= this.expireAfterAccessNanos);
+    }
+}
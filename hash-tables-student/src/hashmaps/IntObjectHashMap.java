@@ -0,0 +1,244 @@
+package hashmaps;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+import hashtables.Hashing;
+
+/**
+ * A map from int keys to object values, specialized so that keys are never
+ * boxed and no entry objects are allocated.
+ *
+ * Keys and values are stored in parallel int[] and Object[] arrays using
+ * open addressing with linear probing and backward-shift deletion. The key 0
+ * marks an empty slot, so a mapping for the key 0 is held in separate fields.
+ *
+ * As in SimpleMap, a null value is indistinguishable from an absent key
+ * for get(); use containsKey() to tell them apart.
+ */
+public class IntObjectHashMap<V> {
+    private int[] keys;
+    private Object[] values;
+    private boolean containsZero;
+    private V zeroValue;
+    private int size;
+    private int capacity;
+    private final double loadFactorThreshold = 0.75;
+    private int n = 0;
+
+    /**
+     * Instantiate a new map. The initial capacity should be 8.
+     */
+    public IntObjectHashMap() {
+        this(8);
+    }
+
+    /**
+     * Instantiate a new map. The initial capacity should be at least
+     * sufficient to hold n mappings, and must be a power of two.
+     */
+    public IntObjectHashMap(int n) {
+        this.n = 1;
+        this.capacity = 1 << this.n;
+        while (this.capacity < n) {
+            this.n++;
+            this.capacity = 1 << this.n;
+        }
+        this.keys = new int[this.capacity];
+        this.values = new Object[this.capacity];
+    }
+
+    /**
+     * @return the number of mappings in the map
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the length of the underlying arrays
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Associate v with k, overwriting any existing mapping for k.
+     *
+     * @param k the key
+     * @param v the value
+     * @return the value previously associated with k, or null if there was none
+     */
+    public V put(int k, V v) {
+        if (k == 0) {
+            V old = this.zeroValue;
+            if (!this.containsZero) {
+                this.containsZero = true;
+                this.size++;
+            }
+            this.zeroValue = v;
+            return old;
+        }
+        if (this.size + 1 > loadFactorThreshold * this.capacity) {
+            resize();
+        }
+        int mask = this.capacity - 1;
+        int i = Hashing.mix(k) & mask;
+        while (this.keys[i] != 0) {
+            if (this.keys[i] == k) {
+                V old = valueAt(i);
+                this.values[i] = v;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        this.keys[i] = k;
+        this.values[i] = v;
+        this.size++;
+        return null;
+    }
+
+    /**
+     * @param k the key
+     * @return the value associated with k, or null if there is none
+     */
+    public V get(int k) {
+        return getOrDefault(k, null);
+    }
+
+    /**
+     * @param k            the key
+     * @param defaultValue the value to return if k is not in the map
+     * @return the value associated with k, or defaultValue if there is none
+     */
+    public V getOrDefault(int k, V defaultValue) {
+        if (k == 0) {
+            return this.containsZero ? this.zeroValue : defaultValue;
+        }
+        int i = indexOf(k);
+        return i < 0 ? defaultValue : valueAt(i);
+    }
+
+    /**
+     * @param k the key
+     * @return true iff the map holds a mapping for k
+     */
+    public boolean containsKey(int k) {
+        if (k == 0) {
+            return this.containsZero;
+        }
+        return indexOf(k) >= 0;
+    }
+
+    /**
+     * Remove the mapping for k, if present.
+     *
+     * @param k the key
+     * @return the value that was associated with k, or null if there was none
+     */
+    public V remove(int k) {
+        if (k == 0) {
+            V old = this.zeroValue;
+            if (this.containsZero) {
+                this.containsZero = false;
+                this.zeroValue = null;
+                this.size--;
+            }
+            return old;
+        }
+        int i = indexOf(k);
+        if (i < 0) {
+            return null;
+        }
+        V old = valueAt(i);
+        int mask = this.capacity - 1;
+        int hole = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            int w = this.keys[j];
+            if (w == 0) {
+                break;
+            }
+            int home = Hashing.mix(w) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                this.keys[hole] = w;
+                this.values[hole] = this.values[j];
+                hole = j;
+            }
+        }
+        this.keys[hole] = 0;
+        this.values[hole] = null;
+        this.size--;
+        return old;
+    }
+
+    /**
+     * Remove every mapping, keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(this.keys, 0);
+        Arrays.fill(this.values, null);
+        this.containsZero = false;
+        this.zeroValue = null;
+        this.size = 0;
+    }
+
+    /**
+     * Pass every mapping to the action, in no particular order.
+     *
+     * @param action the action to perform on each value and key
+     */
+    public void forEach(ObjIntConsumer<? super V> action) {
+        if (this.containsZero) {
+            action.accept(this.zeroValue, 0);
+        }
+        for (int i = 0; i < this.capacity; i++) {
+            if (this.keys[i] != 0) {
+                action.accept(valueAt(i), this.keys[i]);
+            }
+        }
+    }
+
+    /**
+     * Resize the map to double its current capacity.
+     */
+    public void resize() {
+        int[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        this.n++;
+        this.capacity = 1 << this.n;
+        this.keys = new int[this.capacity];
+        this.values = new Object[this.capacity];
+        int mask = this.capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            int k = oldKeys[j];
+            if (k == 0) {
+                continue;
+            }
+            int i = Hashing.mix(k) & mask;
+            while (this.keys[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            this.keys[i] = k;
+            this.values[i] = oldValues[j];
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int i) {
+        return (V) this.values[i];
+    }
+
+    private int indexOf(int k) {
+        int mask = this.capacity - 1;
+        int i = Hashing.mix(k) & mask;
+        while (this.keys[i] != 0) {
+            if (this.keys[i] == k) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,244 @@
+package hashmaps;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+import hashtables.ChainingHashTable;
+import hashtables.KeyedHashTable;
+
+/**
+ * A SimpleMap that iterates over its entries in a predictable order, in the
+ * spirit of java.util.LinkedHashMap.
+ *
+ * Entries are stored the same way SimpleHashMap stores them, in a
+ * ChainingHashTable found by key, but each entry is also a node in a doubly
+ * linked list, as in LruCache. The order of the list is either:
+ *
+ * - insertion order (the default): an entry goes to the end of the list when
+ *   its key is first put, and replacing its value with put() keeps its place;
+ *   or
+ *
+ * - access order: get(), getOrDefault() and put() move the entry they touch
+ *   to the end, so the list runs from the least to the most recently used
+ *   entry.
+ *
+ * The links live in the entries themselves, so keeping the order costs no
+ * extra allocation and every operation stays O(1).
+ *
+ * keySet(), values() and entries() walk the list in place, from the oldest
+ * entry to the newest, without copying it, and keys() returns a set with the
+ * same order. The iterators support remove() and fail fast; in access order
+ * a lookup reorders the list, so a get() during iteration counts as a
+ * modification.
+ *
+ * Like SimpleHashMap, this class is not thread-safe.
+ */
+public class LinkedSimpleHashMap<K, V> extends AbstractSimpleMap<K, V> {
+    private static final BiPredicate<SimpleMapEntry<?, ?>, Object> KEY_MATCHER =
+            (entry, k) -> k.equals(entry.k);
+
+    private final KeyedHashTable<Node<K, V>> table;
+    // sentinel.after is the oldest entry, sentinel.before the newest
+    private final Node<K, V> sentinel = new Node<>(null, null);
+    private final boolean accessOrder;
+    private int modCount;
+
+    private static final class Node<K, V> extends SimpleMapEntry<K, V> {
+        Node<K, V> before;
+        Node<K, V> after;
+
+        Node(K k, V v) {
+            super(k, v);
+            this.before = this;
+            this.after = this;
+        }
+    }
+
+    /**
+     * Instantiate a new map that iterates in insertion order.
+     */
+    public LinkedSimpleHashMap() {
+        this(false);
+    }
+
+    /**
+     * Instantiate a new map that iterates in access order if accessOrder is
+     * true, and in insertion order otherwise.
+     *
+     * @param accessOrder true for access order, false for insertion order
+     */
+    public LinkedSimpleHashMap(boolean accessOrder) {
+        this.accessOrder = accessOrder;
+        this.table = new ChainingHashTable<>();
+    }
+
+    /**
+     * @return true if this map iterates in access order
+     */
+    public boolean accessOrder() {
+        return this.accessOrder;
+    }
+
+    @Override
+    public int size() {
+        return this.table.size();
+    }
+
+    /**
+     * Insert or replace the mapping for k. A new key goes to the end of the
+     * order; a replaced one keeps its place, unless this map is in access
+     * order, in which case it moves to the end.
+     */
+    @Override
+    public void put(K k, V v) {
+        if (k == null) {
+            return;
+        }
+        Node<K, V> node = new Node<>(k, v);
+        Node<K, V> old = this.table.put(node);
+        if (old == null || this.accessOrder) {
+            if (old != null) {
+                unlink(old);
+            }
+            linkLast(node);
+        } else {
+            replace(old, node);
+        }
+        this.modCount++;
+    }
+
+    /**
+     * Copy every mapping of m into this map, in m's iteration order, growing
+     * the table at most once.
+     */
+    @Override
+    public void putAll(SimpleMap<? extends K, ? extends V> m) {
+        this.table.ensureCapacity(this.table.size() + m.size());
+        for (SimpleMapEntry<? extends K, ? extends V> e : m.entries()) {
+            put(e.k, e.v);
+        }
+    }
+
+    @Override
+    public V get(K k) {
+        return getOrDefault(k, null);
+    }
+
+    @Override
+    public V getOrDefault(K k, V defaultValue) {
+        if (k == null) {
+            return null;
+        }
+        Node<K, V> node = this.table.findKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
+        if (node == null) {
+            return defaultValue;
+        }
+        if (this.accessOrder && node.after != this.sentinel) {
+            unlink(node);
+            linkLast(node);
+            this.modCount++;
+        }
+        return node.v;
+    }
+
+    @Override
+    public V remove(K k) {
+        if (k == null) {
+            return null;
+        }
+        Node<K, V> node = this.table.removeKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
+        if (node == null) {
+            return null;
+        }
+        unlink(node);
+        this.modCount++;
+        return node.v;
+    }
+
+    /**
+     * Return the keys in iteration order.
+     */
+    @Override
+    public Set<K> keys() {
+        Set<K> s = new LinkedHashSet<K>();
+        for (Node<K, V> node = this.sentinel.after; node != this.sentinel; node = node.after) {
+            s.add(node.k);
+        }
+        return s;
+    }
+
+    @Override
+    protected SimpleMapEntry<K, V> getEntry(K k) {
+        return this.table.findKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
+    }
+
+    @Override
+    protected Iterator<SimpleMapEntry<K, V>> entryIterator() {
+        return new Iterator<SimpleMapEntry<K, V>>() {
+            private Node<K, V> next = sentinel.after;
+            private Node<K, V> last;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return this.next != sentinel;
+            }
+
+            @Override
+            public SimpleMapEntry<K, V> next() {
+                if (modCount != this.expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (this.next == sentinel) {
+                    throw new NoSuchElementException();
+                }
+                this.last = this.next;
+                this.next = this.next.after;
+                return this.last;
+            }
+
+            @Override
+            public void remove() {
+                if (this.last == null) {
+                    throw new IllegalStateException();
+                }
+                if (modCount != this.expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                LinkedSimpleHashMap.this.remove(this.last.k);
+                this.last = null;
+                this.expectedModCount = modCount;
+            }
+        };
+    }
+
+    private void linkLast(Node<K, V> node) {
+        node.before = this.sentinel.before;
+        node.after = this.sentinel;
+        this.sentinel.before.after = node;
+        this.sentinel.before = node;
+    }
+
+    /**
+     * Puts node in old's place in the list and unlinks old.
+     */
+    private static <K, V> void replace(Node<K, V> old, Node<K, V> node) {
+        node.before = old.before;
+        node.after = old.after;
+        old.before.after = node;
+        old.after.before = node;
+        old.before = old;
+        old.after = old;
+    }
+
+    private static <K, V> void unlink(Node<K, V> node) {
+        node.before.after = node.after;
+        node.after.before = node.before;
+        node.before = node;
+        node.after = node;
+    }
+}
@@ -0,0 +1,578 @@
+package hashmaps;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import hashtables.Hashing;
+
+/**
+ * A non-blocking, thread-safe implementation of SimpleMap.
+ *
+ * No operation takes a lock. Each bucket holds an immutable chain of entries,
+ * and every update builds a new chain (prepending on insert, copying the
+ * entries in front of the affected one on replace or remove) and installs it
+ * with a single compare-and-set on the bucket. If the compare-and-set fails
+ * because another thread changed the bucket first, the update is retried
+ * against the new chain. Readers simply follow whatever chain they find.
+ *
+ * Resizing is cooperative. The thread that pushes the size over 0.75 of the
+ * capacity allocates a table of twice the size, and threads then claim
+ * strides of old buckets to move. Moving a bucket splits its chain into the
+ * two new buckets it maps to and then replaces the old bucket with a
+ * forwarding node; the order guarantees that anyone who sees the forwarding
+ * node finds the moved entries in the new table. Any thread that runs into a
+ * forwarding node helps with the remaining strides before retrying in the new
+ * table, so a writer that is stalled during a resize cannot hold anyone else
+ * up, and the last thread to finish a stride publishes the new table.
+ *
+ * In addition to the SimpleMap operations, the map offers atomic
+ * putIfAbsent() and two forms of replace(), and makes computeIfAbsent(),
+ * computeIfPresent(), compute() and merge() atomic too. size() may lag
+ * behind concurrent updates, and iterators are weakly consistent.
+ */
+public class LockFreeHashMap<K, V> extends AbstractSimpleMap<K, V> {
+    // buckets a resizing thread claims at a time
+    private static final int STRIDE = 16;
+    private static final Object ANY_VALUE = new Object();
+
+    private static final int PUT = 0;
+    private static final int PUT_IF_ABSENT = 1;
+    private static final int REPLACE = 2;
+    private static final int REMOVE = 3;
+
+    private volatile AtomicReferenceArray<Node<K, V>> table;
+    private final AtomicReference<Resize<K, V>> resizing = new AtomicReference<>();
+    private final LongAdder count = new LongAdder();
+    private final double loadFactorThreshold = 0.75;
+
+    /**
+     * An entry in a bucket chain. The key's hash is the one cached in
+     * SimpleMapEntry, so copying a node never calls hashCode() again; the
+     * bucket index is found by spreading it.
+     */
+    private static class Node<K, V> extends SimpleMapEntry<K, V> {
+        final Node<K, V> next;
+
+        Node(int hash, K k, V v, Node<K, V> next) {
+            super(k, v, hash);
+            this.next = next;
+        }
+    }
+
+    /**
+     * Left in an old bucket once its entries have moved to the new table.
+     */
+    private static final class Forward<K, V> extends Node<K, V> {
+        final Resize<K, V> resize;
+
+        Forward(Resize<K, V> resize) {
+            super(0, null, null, null);
+            this.resize = resize;
+        }
+    }
+
+    /**
+     * The shared state of one resize.
+     */
+    private static final class Resize<K, V> {
+        final AtomicReferenceArray<Node<K, V>> oldTable;
+        final AtomicReferenceArray<Node<K, V>> newTable;
+        final Forward<K, V> forward;
+        final AtomicInteger claimed = new AtomicInteger();
+        final AtomicInteger moved = new AtomicInteger();
+
+        Resize(AtomicReferenceArray<Node<K, V>> oldTable) {
+            this.oldTable = oldTable;
+            this.newTable = new AtomicReferenceArray<>(oldTable.length() << 1);
+            this.forward = new Forward<>(this);
+        }
+
+        boolean isDone() {
+            return this.moved.get() == this.oldTable.length();
+        }
+    }
+
+    /**
+     * Instantiate a new map. The initial capacity should be 16.
+     */
+    public LockFreeHashMap() {
+        this(16);
+    }
+
+    /**
+     * Instantiate a new map. The initial capacity should be at least
+     * sufficient to hold n mappings, and must be a power of two.
+     */
+    public LockFreeHashMap(int n) {
+        int capacity = 1;
+        while (capacity < n) {
+            capacity <<= 1;
+        }
+        this.table = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * @return the number of buckets in the current table
+     */
+    public int capacity() {
+        return this.table.length();
+    }
+
+    @Override
+    public int size() {
+        return (int) this.count.sum();
+    }
+
+    @Override
+    public void put(K k, V v) {
+        if (k == null) {
+            return;
+        }
+        update(k, v, PUT, ANY_VALUE);
+    }
+
+    @Override
+    public V get(K k) {
+        SimpleMapEntry<K, V> e = getEntry(k);
+        return e == null ? null : e.v;
+    }
+
+    @Override
+    public V getOrDefault(K k, V defaultValue) {
+        SimpleMapEntry<K, V> e = getEntry(k);
+        return e == null ? defaultValue : e.v;
+    }
+
+    @Override
+    public V remove(K k) {
+        if (k == null) {
+            return null;
+        }
+        Node<K, V> old = update(k, null, REMOVE, ANY_VALUE);
+        return old == null ? null : old.v;
+    }
+
+    /**
+     * Remove the mapping for k only if it is currently mapped to v.
+     *
+     * @param k the key
+     * @param v the value expected to be associated with k
+     * @return true iff the mapping was removed
+     */
+    public boolean remove(K k, V v) {
+        if (k == null) {
+            return false;
+        }
+        Node<K, V> old = update(k, null, REMOVE, v);
+        return old != null && Objects.equals(old.v, v);
+    }
+
+    /**
+     * Associate v with k only if k is not already in the map.
+     *
+     * @param k the (non-null) key
+     * @param v the value
+     * @return the value already associated with k, or null if v was inserted
+     */
+    public V putIfAbsent(K k, V v) {
+        if (k == null) {
+            return null;
+        }
+        Node<K, V> old = update(k, v, PUT_IF_ABSENT, ANY_VALUE);
+        return old == null ? null : old.v;
+    }
+
+    /**
+     * Return the value associated with k, computing and inserting one with
+     * f if k is not in the map or is mapped to null. If f returns null,
+     * nothing is inserted.
+     *
+     * f is called at most once per call, and only if k looked absent. If
+     * another thread maps k to a non-null value in the meantime, its value
+     * wins and the computed one is discarded.
+     *
+     * @param k the (non-null) key
+     * @param f computes a value for k
+     * @return the value now associated with k
+     */
+    @Override
+    public V computeIfAbsent(K k, Function<? super K, ? extends V> f) {
+        if (k == null) {
+            return null;
+        }
+        SimpleMapEntry<K, V> e = getEntry(k);
+        if (e != null && e.v != null) {
+            return e.v;
+        }
+        V v = f.apply(k);
+        if (v == null) {
+            return null;
+        }
+        while (true) {
+            if (e == null) {
+                Node<K, V> old = update(k, v, PUT_IF_ABSENT, ANY_VALUE);
+                if (old == null) {
+                    return v;
+                }
+                if (old.v != null) {
+                    return old.v;
+                }
+            } else if (replace(k, null, v)) {
+                return v;
+            }
+            // lost a race; look again
+            e = getEntry(k);
+            if (e != null && e.v != null) {
+                return e.v;
+            }
+        }
+    }
+
+    /**
+     * Atomically replace the value associated with k with the result of f,
+     * or remove k if f returns null, if k is associated with a value.
+     *
+     * The update is applied with replace() or remove(k, v); if another
+     * thread changes the value first, f is called again on the new one, so
+     * f may be called more than once.
+     */
+    @Override
+    public V computeIfPresent(K k, BiFunction<? super K, ? super V, ? extends V> f) {
+        if (k == null) {
+            return null;
+        }
+        while (true) {
+            SimpleMapEntry<K, V> e = getEntry(k);
+            if (e == null || e.v == null) {
+                return null;
+            }
+            V v = f.apply(k, e.v);
+            if (v == null ? remove(k, e.v) : replace(k, e.v, v)) {
+                return v;
+            }
+        }
+    }
+
+    /**
+     * Atomically associate k with the result of f, or remove k if f returns
+     * null. As with computeIfPresent(), f may be called more than once.
+     */
+    @Override
+    public V compute(K k, BiFunction<? super K, ? super V, ? extends V> f) {
+        if (k == null) {
+            return null;
+        }
+        while (true) {
+            SimpleMapEntry<K, V> e = getEntry(k);
+            V v = f.apply(k, e == null ? null : e.v);
+            if (e == null) {
+                if (v == null || update(k, v, PUT_IF_ABSENT, ANY_VALUE) == null) {
+                    return v;
+                }
+            } else if (v == null ? remove(k, e.v) : replace(k, e.v, v)) {
+                return v;
+            }
+        }
+    }
+
+    /**
+     * Atomically associate k with value, or with the result of f applied to
+     * its current value and value. As with computeIfPresent(), f may be
+     * called more than once.
+     */
+    @Override
+    public V merge(K k, V value, BiFunction<? super V, ? super V, ? extends V> f) {
+        if (k == null) {
+            return null;
+        }
+        while (true) {
+            SimpleMapEntry<K, V> e = getEntry(k);
+            if (e == null) {
+                if (update(k, value, PUT_IF_ABSENT, ANY_VALUE) == null) {
+                    return value;
+                }
+                continue;
+            }
+            V v = e.v == null ? value : f.apply(e.v, value);
+            if (v == null ? remove(k, e.v) : replace(k, e.v, v)) {
+                return v;
+            }
+        }
+    }
+
+    /**
+     * Associate v with k only if k is already in the map.
+     *
+     * @param k the key
+     * @param v the new value
+     * @return the value previously associated with k, or null if k was absent
+     */
+    public V replace(K k, V v) {
+        if (k == null) {
+            return null;
+        }
+        Node<K, V> old = update(k, v, REPLACE, ANY_VALUE);
+        return old == null ? null : old.v;
+    }
+
+    /**
+     * Associate newValue with k only if k is currently mapped to oldValue.
+     *
+     * @param k        the key
+     * @param oldValue the value expected to be associated with k
+     * @param newValue the new value
+     * @return true iff the value was replaced
+     */
+    public boolean replace(K k, V oldValue, V newValue) {
+        if (k == null) {
+            return false;
+        }
+        Node<K, V> old = update(k, newValue, REPLACE, oldValue);
+        return old != null && Objects.equals(old.v, oldValue);
+    }
+
+    @Override
+    protected SimpleMapEntry<K, V> getEntry(K k) {
+        if (k == null) {
+            return null;
+        }
+        int hash = SimpleMapEntry.hash(k);
+        int spread = spread(hash);
+        AtomicReferenceArray<Node<K, V>> tab = this.table;
+        Node<K, V> node = tab.get(spread & (tab.length() - 1));
+        while (node != null) {
+            if (node instanceof Forward) {
+                tab = ((Forward<K, V>) node).resize.newTable;
+                node = tab.get(spread & (tab.length() - 1));
+                continue;
+            }
+            if (node.hash == hash && k.equals(node.k)) {
+                return node;
+            }
+            node = node.next;
+        }
+        return null;
+    }
+
+    /**
+     * Return a weakly consistent iterator over the entries. Its remove()
+     * removes the last returned key only if it is still mapped to the value
+     * that was returned.
+     */
+    @Override
+    protected Iterator<SimpleMapEntry<K, V>> entryIterator() {
+        AtomicReferenceArray<Node<K, V>> top = this.table;
+        return new Iterator<SimpleMapEntry<K, V>>() {
+            private int bucket = -1;
+            // buckets of newer tables still to visit, reached through forwarding nodes
+            private final ArrayDeque<Object[]> pending = new ArrayDeque<>();
+            // the index of the bucket whose chain is being walked
+            private int lastIndex;
+            private Node<K, V> next = advance(null);
+            private Node<K, V> last;
+
+            @SuppressWarnings("unchecked")
+            private Node<K, V> advance(Node<K, V> node) {
+                while (true) {
+                    if (node instanceof Forward) {
+                        Resize<K, V> r = ((Forward<K, V>) node).resize;
+                        int i = this.lastIndex;
+                        this.pending.push(new Object[] {r.newTable, i + r.oldTable.length()});
+                        this.pending.push(new Object[] {r.newTable, i});
+                        node = null;
+                    }
+                    if (node != null) {
+                        return node;
+                    }
+                    if (!this.pending.isEmpty()) {
+                        Object[] ref = this.pending.pop();
+                        this.lastIndex = (Integer) ref[1];
+                        node = ((AtomicReferenceArray<Node<K, V>>) ref[0]).get(this.lastIndex);
+                    } else if (++this.bucket < top.length()) {
+                        this.lastIndex = this.bucket;
+                        node = top.get(this.bucket);
+                    } else {
+                        return null;
+                    }
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.next != null;
+            }
+
+            @Override
+            public SimpleMapEntry<K, V> next() {
+                if (this.next == null) {
+                    throw new NoSuchElementException();
+                }
+                this.last = this.next;
+                this.next = advance(this.next.next);
+                return this.last;
+            }
+
+            @Override
+            public void remove() {
+                if (this.last == null) {
+                    throw new IllegalStateException();
+                }
+                LockFreeHashMap.this.remove(this.last.k, this.last.v);
+                this.last = null;
+            }
+        };
+    }
+
+    /**
+     * The single compare-and-set loop behind every update. Finds the entry
+     * for k and, depending on mode, inserts, replaces or removes it. A
+     * replace or remove only happens if the current value equals expected
+     * (or expected is ANY_VALUE).
+     *
+     * @return the entry for k that was found, or null if k was absent
+     */
+    @SuppressWarnings("unchecked")
+    private Node<K, V> update(K k, V v, int mode, Object expected) {
+        int hash = SimpleMapEntry.hash(k);
+        int spread = spread(hash);
+        AtomicReferenceArray<Node<K, V>> tab = this.table;
+        while (true) {
+            int index = spread & (tab.length() - 1);
+            Node<K, V> head = tab.get(index);
+            if (head instanceof Forward) {
+                Resize<K, V> r = ((Forward<K, V>) head).resize;
+                help(r);
+                tab = r.newTable;
+                continue;
+            }
+            Node<K, V> found = head;
+            while (found != null && !(found.hash == hash && k.equals(found.k))) {
+                found = found.next;
+            }
+            Node<K, V> newHead;
+            if (found == null) {
+                if (mode == REPLACE || mode == REMOVE) {
+                    return null;
+                }
+                newHead = new Node<>(hash, k, v, head);
+            } else {
+                if (mode == PUT_IF_ABSENT
+                        || (expected != ANY_VALUE && !Objects.equals(found.v, expected))) {
+                    return found;
+                }
+                Node<K, V> rest = without(head, found);
+                newHead = mode == REMOVE ? rest : new Node<>(hash, k, v, rest);
+            }
+            if (tab.compareAndSet(index, head, newHead)) {
+                if (found == null) {
+                    this.count.increment();
+                    AtomicReferenceArray<Node<K, V>> current = this.table;
+                    if (this.count.sum() > loadFactorThreshold * current.length()) {
+                        startResize(current);
+                    }
+                } else if (mode == REMOVE) {
+                    this.count.decrement();
+                }
+                return found;
+            }
+        }
+    }
+
+    /**
+     * Begins a resize of tab, or joins the one already under way.
+     *
+     * resizing always holds the most recent resize, which makes it the
+     * point of agreement on which table is current: a new resize may only
+     * replace a finished one whose new table is tab (or, before the first
+     * resize, no resize at all), so a thread holding a stale table can never
+     * start resizing it.
+     */
+    private void startResize(AtomicReferenceArray<Node<K, V>> tab) {
+        Resize<K, V> r = this.resizing.get();
+        if (r != null && !r.isDone()) {
+            help(r);
+            return;
+        }
+        if (r == null ? this.table != tab : r.newTable != tab) {
+            return;
+        }
+        Resize<K, V> fresh = new Resize<>(tab);
+        if (this.resizing.compareAndSet(r, fresh)) {
+            help(fresh);
+        }
+    }
+
+    /**
+     * Claims strides of old buckets and moves them until none are left. The
+     * thread that moves the last bucket publishes the new table.
+     */
+    private void help(Resize<K, V> r) {
+        int length = r.oldTable.length();
+        while (true) {
+            int start = r.claimed.getAndAdd(STRIDE);
+            if (start >= length) {
+                return;
+            }
+            int end = Math.min(length, start + STRIDE);
+            for (int i = start; i < end; i++) {
+                moveBucket(r, i);
+            }
+            if (r.moved.addAndGet(end - start) == length) {
+                this.table = r.newTable;
+            }
+        }
+    }
+
+    /**
+     * Splits old bucket i into new buckets i and i + oldLength, then
+     * forwards the old bucket. If a writer changes the old bucket before the
+     * forwarding node is installed, the split is redone.
+     */
+    private void moveBucket(Resize<K, V> r, int i) {
+        int length = r.oldTable.length();
+        while (true) {
+            Node<K, V> head = r.oldTable.get(i);
+            Node<K, V> low = null;
+            Node<K, V> high = null;
+            for (Node<K, V> node = head; node != null; node = node.next) {
+                if ((spread(node.hash) & length) == 0) {
+                    low = new Node<>(node.hash, node.k, node.v, low);
+                } else {
+                    high = new Node<>(node.hash, node.k, node.v, high);
+                }
+            }
+            r.newTable.set(i, low);
+            r.newTable.set(i + length, high);
+            if (r.oldTable.compareAndSet(i, head, r.forward)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns a chain equal to the one starting at head but without target,
+     * copying the entries in front of target and sharing the ones after it.
+     */
+    private static <K, V> Node<K, V> without(Node<K, V> head, Node<K, V> target) {
+        if (head == target) {
+            return target.next;
+        }
+        return new Node<>(head.hash, head.k, head.v, without(head.next, target));
+    }
+
+    /**
+     * Mixes a hash code so that its low bits, which pick the bucket, depend
+     * on all of its bits.
+     */
+    private static int spread(int h) {
+        return Hashing.mix(h);
+    }
+}
@@ -0,0 +1,240 @@
+package hashmaps;
+
+import java.util.Arrays;
+
+import hashtables.Hashing;
+
+/**
+ * A map from long keys to long values, specialized so that neither keys
+ * nor values are ever boxed and no operation other than a resize allocates.
+ *
+ * Keys and values are stored in parallel long[] arrays using open addressing
+ * with linear probing and backward-shift deletion. The key 0 marks an empty
+ * slot, so a mapping for the key 0 is held in separate fields.
+ *
+ * Since a long value cannot be null, lookups take the value to return
+ * when the key is absent.
+ */
+public class LongLongHashMap {
+    private long[] keys;
+    private long[] values;
+    private boolean containsZero;
+    private long zeroValue;
+    private int size;
+    private int capacity;
+    private final double loadFactorThreshold = 0.75;
+    private int n = 0;
+
+    /**
+     * Instantiate a new map. The initial capacity should be 8.
+     */
+    public LongLongHashMap() {
+        this(8);
+    }
+
+    /**
+     * Instantiate a new map. The initial capacity should be at least
+     * sufficient to hold n mappings, and must be a power of two.
+     */
+    public LongLongHashMap(int n) {
+        this.n = 1;
+        this.capacity = 1 << this.n;
+        while (this.capacity < n) {
+            this.n++;
+            this.capacity = 1 << this.n;
+        }
+        this.keys = new long[this.capacity];
+        this.values = new long[this.capacity];
+    }
+
+    /**
+     * @return the number of mappings in the map
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the length of the underlying arrays
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * Associate v with k, overwriting any existing mapping for k.
+     *
+     * @param k the key
+     * @param v the value
+     */
+    public void put(long k, long v) {
+        int i = insertionSlot(k);
+        if (i < 0) {
+            this.zeroValue = v;
+        } else {
+            this.values[i] = v;
+        }
+    }
+
+    /**
+     * Add delta to the value associated with k, treating an absent key as
+     * mapped to 0. This is the single-lookup form of a counter increment.
+     *
+     * @param k     the key
+     * @param delta the amount to add
+     * @return the new value associated with k
+     */
+    public long addTo(long k, long delta) {
+        int i = insertionSlot(k);
+        if (i < 0) {
+            this.zeroValue += delta;
+            return this.zeroValue;
+        }
+        this.values[i] += delta;
+        return this.values[i];
+    }
+
+    /**
+     * @param k            the key
+     * @param defaultValue the value to return if k is not in the map
+     * @return the value associated with k, or defaultValue if there is none
+     */
+    public long getOrDefault(long k, long defaultValue) {
+        if (k == 0) {
+            return this.containsZero ? this.zeroValue : defaultValue;
+        }
+        int i = indexOf(k);
+        return i < 0 ? defaultValue : this.values[i];
+    }
+
+    /**
+     * @param k the key
+     * @return true iff the map holds a mapping for k
+     */
+    public boolean containsKey(long k) {
+        if (k == 0) {
+            return this.containsZero;
+        }
+        return indexOf(k) >= 0;
+    }
+
+    /**
+     * Remove the mapping for k, if present.
+     *
+     * @param k the key
+     * @return true iff a mapping for k was present and removed
+     */
+    public boolean remove(long k) {
+        if (k == 0) {
+            if (!this.containsZero) {
+                return false;
+            }
+            this.containsZero = false;
+            this.zeroValue = 0;
+            this.size--;
+            return true;
+        }
+        int i = indexOf(k);
+        if (i < 0) {
+            return false;
+        }
+        int mask = this.capacity - 1;
+        int hole = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            long w = this.keys[j];
+            if (w == 0) {
+                break;
+            }
+            int home = Hashing.mix(w) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                this.keys[hole] = w;
+                this.values[hole] = this.values[j];
+                hole = j;
+            }
+        }
+        this.keys[hole] = 0;
+        this.values[hole] = 0;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Remove every mapping, keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(this.keys, 0);
+        Arrays.fill(this.values, 0);
+        this.containsZero = false;
+        this.zeroValue = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Resize the map to double its current capacity.
+     */
+    public void resize() {
+        long[] oldKeys = this.keys;
+        long[] oldValues = this.values;
+        this.n++;
+        this.capacity = 1 << this.n;
+        this.keys = new long[this.capacity];
+        this.values = new long[this.capacity];
+        int mask = this.capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            long k = oldKeys[j];
+            if (k == 0) {
+                continue;
+            }
+            int i = Hashing.mix(k) & mask;
+            while (this.keys[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            this.keys[i] = k;
+            this.values[i] = oldValues[j];
+        }
+    }
+
+    /**
+     * Returns the slot holding k, claiming an empty slot (with value 0) if k
+     * is absent. Returns -1 for the key 0, which lives in zeroValue.
+     */
+    private int insertionSlot(long k) {
+        if (k == 0) {
+            if (!this.containsZero) {
+                this.containsZero = true;
+                this.zeroValue = 0;
+                this.size++;
+            }
+            return -1;
+        }
+        if (this.size + 1 > loadFactorThreshold * this.capacity) {
+            resize();
+        }
+        int mask = this.capacity - 1;
+        int i = Hashing.mix(k) & mask;
+        while (this.keys[i] != 0) {
+            if (this.keys[i] == k) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        this.keys[i] = k;
+        this.values[i] = 0;
+        this.size++;
+        return i;
+    }
+
+    private int indexOf(long k) {
+        int mask = this.capacity - 1;
+        int i = Hashing.mix(k) & mask;
+        while (this.keys[i] != 0) {
+            if (this.keys[i] == k) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,234 @@
+package hashmaps;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+import hashtables.ChainingHashTable;
+import hashtables.KeyedHashTable;
+
+/**
+ * A SimpleMap with a fixed maximum size that evicts the least recently used
+ * entry when it is full.
+ *
+ * Entries are stored the same way SimpleHashMap stores them, in a
+ * ChainingHashTable found by key, but each entry is also a node in a doubly
+ * linked list that runs from the least to the most recently used entry. The
+ * links live in the entries themselves, so keeping the list in access order
+ * costs no extra allocation and every operation stays O(1): get() and
+ * getOrDefault() move the entry they find to the end of the list, put()
+ * links its new entry there, and an eviction unlinks the entry at the front.
+ *
+ * An optional listener is told about every entry that is evicted, so that
+ * callers can release whatever the value holds. Entries removed with
+ * remove() or replaced by put() are not reported. stats() returns the hit,
+ * miss and eviction counts so far.
+ *
+ * keySet(), values() and entries() iterate from the least to the most
+ * recently used entry, without changing the order. Their iterators support
+ * remove() and fail fast; since a lookup reorders the list, a get() during
+ * iteration counts as a modification.
+ *
+ * Like SimpleHashMap, this class is not thread-safe.
+ */
+public class LruCache<K, V> extends AbstractSimpleMap<K, V> {
+    private static final BiPredicate<SimpleMapEntry<?, ?>, Object> KEY_MATCHER =
+            (entry, k) -> k.equals(entry.k);
+
+    private final KeyedHashTable<Node<K, V>> table;
+    // sentinel.after is the least recently used entry, sentinel.before the most
+    private final Node<K, V> sentinel = new Node<>(null, null);
+    private final int maximumSize;
+    private final BiConsumer<? super K, ? super V> evictionListener;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private int modCount;
+
+    private static final class Node<K, V> extends SimpleMapEntry<K, V> {
+        Node<K, V> before;
+        Node<K, V> after;
+
+        Node(K k, V v) {
+            super(k, v);
+            this.before = this;
+            this.after = this;
+        }
+    }
+
+    /**
+     * Instantiate a new cache that holds at most maximumSize entries.
+     *
+     * @param maximumSize the maximum number of entries
+     */
+    public LruCache(int maximumSize) {
+        this(maximumSize, null);
+    }
+
+    /**
+     * Instantiate a new cache that holds at most maximumSize entries and
+     * passes the key and value of each evicted entry to evictionListener.
+     *
+     * @param maximumSize      the maximum number of entries
+     * @param evictionListener called for each evicted entry, or null
+     */
+    public LruCache(int maximumSize, BiConsumer<? super K, ? super V> evictionListener) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.evictionListener = evictionListener;
+        // sized so that filling the cache never resizes, within reason
+        this.table = new ChainingHashTable<>(Math.min(maximumSize, 1 << 16) * 4 / 3 + 1);
+    }
+
+    /**
+     * @return the maximum number of entries this cache holds
+     */
+    public int maximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * @return a snapshot of the hit, miss and eviction counts
+     */
+    public CacheStats stats() {
+        return new CacheStats(this.hitCount, this.missCount, this.evictionCount);
+    }
+
+    @Override
+    public int size() {
+        return this.table.size();
+    }
+
+    /**
+     * Insert or replace the mapping for k, making it the most recently used
+     * entry, and evict the least recently used entry if the cache is over
+     * its maximum size.
+     */
+    @Override
+    public void put(K k, V v) {
+        if (k == null) {
+            return;
+        }
+        Node<K, V> node = new Node<>(k, v);
+        Node<K, V> old = this.table.put(node);
+        if (old != null) {
+            unlink(old);
+        }
+        linkLast(node);
+        this.modCount++;
+        if (old == null && this.table.size() > this.maximumSize) {
+            evict();
+        }
+    }
+
+    @Override
+    public V get(K k) {
+        return getOrDefault(k, null);
+    }
+
+    @Override
+    public V getOrDefault(K k, V defaultValue) {
+        if (k == null) {
+            return null;
+        }
+        Node<K, V> node = this.table.findKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
+        if (node == null) {
+            this.missCount++;
+            return defaultValue;
+        }
+        this.hitCount++;
+        if (node.after != this.sentinel) {
+            unlink(node);
+            linkLast(node);
+            this.modCount++;
+        }
+        return node.v;
+    }
+
+    @Override
+    public V remove(K k) {
+        if (k == null) {
+            return null;
+        }
+        Node<K, V> node = this.table.removeKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
+        if (node == null) {
+            return null;
+        }
+        unlink(node);
+        this.modCount++;
+        return node.v;
+    }
+
+    @Override
+    protected SimpleMapEntry<K, V> getEntry(K k) {
+        return this.table.findKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
+    }
+
+    @Override
+    protected Iterator<SimpleMapEntry<K, V>> entryIterator() {
+        return new Iterator<SimpleMapEntry<K, V>>() {
+            private Node<K, V> next = sentinel.after;
+            private Node<K, V> last;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return this.next != sentinel;
+            }
+
+            @Override
+            public SimpleMapEntry<K, V> next() {
+                if (modCount != this.expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (this.next == sentinel) {
+                    throw new NoSuchElementException();
+                }
+                this.last = this.next;
+                this.next = this.next.after;
+                return this.last;
+            }
+
+            @Override
+            public void remove() {
+                if (this.last == null) {
+                    throw new IllegalStateException();
+                }
+                if (modCount != this.expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                LruCache.this.remove(this.last.k);
+                this.last = null;
+                this.expectedModCount = modCount;
+            }
+        };
+    }
+
+    private void evict() {
+        Node<K, V> eldest = this.sentinel.after;
+        this.table.removeKey(eldest.k, eldest.hash, KEY_MATCHER);
+        unlink(eldest);
+        this.evictionCount++;
+        if (this.evictionListener != null) {
+            this.evictionListener.accept(eldest.k, eldest.v);
+        }
+    }
+
+    private void linkLast(Node<K, V> node) {
+        node.before = this.sentinel.before;
+        node.after = this.sentinel;
+        this.sentinel.before.after = node;
+        this.sentinel.before = node;
+    }
+
+    private static <K, V> void unlink(Node<K, V> node) {
+        node.before.after = node.after;
+        node.after.before = node.before;
+        node.before = node;
+        node.after = node;
+    }
+}
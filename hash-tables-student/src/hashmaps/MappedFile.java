@@ -0,0 +1,80 @@
+package hashmaps;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A file mapped into memory as a ChunkedRegion.
+ *
+ * Growing the region grows the file and maps the new part, remapping the
+ * last chunk if it was only partly mapped before. The JDK offers no way to
+ * unmap a buffer, so the mappings stay in place until they are garbage
+ * collected, even after close().
+ */
+final class MappedFile extends ChunkedRegion implements Closeable {
+    private final FileChannel channel;
+
+    /**
+     * Open (creating if needed) and map the file at path, growing it to at
+     * least minLength bytes. Bytes added to the file read as zero.
+     */
+    MappedFile(Path path, long minLength) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.length = this.channel.size();
+        try {
+            ensureLength(minLength);
+            if (this.chunks.length == 0) {
+                map(this.length);
+            }
+        } catch (UncheckedIOException e) {
+            this.channel.close();
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    void grow(long newLength) {
+        try {
+            // writing the last byte extends the file, sparsely where supported
+            this.channel.write(ByteBuffer.wrap(new byte[1]), newLength - 1);
+            map(newLength);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write every change made through the mapping out to the storage device.
+     */
+    void force() {
+        for (ByteBuffer chunk : this.chunks) {
+            ((MappedByteBuffer) chunk).force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        this.channel.close();
+    }
+
+    private void map(long newLength) throws IOException {
+        int count = chunkCount(newLength);
+        ByteBuffer[] newChunks = Arrays.copyOf(this.chunks, count);
+        for (int i = Math.max(0, this.chunks.length - 1); i < count; i++) {
+            long start = (long) i << CHUNK_SHIFT;
+            long size = Math.min(CHUNK_SIZE, newLength - start);
+            newChunks[i] = this.channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+        }
+        this.chunks = newChunks;
+        this.length = newLength;
+    }
+}
@@ -0,0 +1,257 @@
+package hashmaps;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * A SimpleMap that lives in a pair of memory-mapped files, so that it
+ * survives restarts: opening an existing map only maps its files, and
+ * lookups then run against the operating system's page cache instead of
+ * objects that had to be rebuilt on the heap.
+ *
+ * The layout is that of AbstractBinaryHashMap. The index is the file at the
+ * given path, and its header also records the map's size and where its data
+ * ends; the data is in the same path with ".data" appended. Since keys are
+ * hashed by their encoded bytes, the hash of a key is the same in every run
+ * of the JVM.
+ *
+ * Every change is made directly in the mapped files. force() writes them out
+ * to the storage device, and close() does so too; changes that were not
+ * forced may be lost, or partly lost, if the machine crashes. Growing the
+ * index rebuilds it in a temporary file that then replaces the old one.
+ *
+ * compact(), which put() and remove() call once more than half of the data
+ * file is garbage, likewise writes a new data file and a new index next to
+ * the old ones and then moves them into place, data file first. Both files
+ * carry a generation number that compact() increments. If the machine
+ * crashes between the two moves, the next open finds a data file that is a
+ * generation ahead of its index and finishes the job by moving the new
+ * index into place.
+ *
+ * This class is not thread-safe, and a pair of files must only be open in
+ * one map at a time.
+ */
+public class MappedHashMap<K, V> extends AbstractBinaryHashMap<K, V> implements Closeable {
+    private static final int INDEX_MAGIC = 0x48544958; // "HTIX"
+    private static final int DATA_MAGIC = 0x48544441; // "HTDA"
+    private static final int VERSION = 1;
+
+    // index header fields
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+    private static final int DATA_END_OFFSET = 16;
+    private static final int GARBAGE_OFFSET = 24;
+    private static final int GENERATION_OFFSET = 32;
+    // data header field; the magic number is at offset 0
+    private static final int DATA_GENERATION_OFFSET = 4;
+
+    private final Path indexPath;
+    private int generation;
+
+    /**
+     * Open the map stored at path, or create an empty one there if the
+     * file does not exist.
+     *
+     * @param path       the index file; the data file is next to it
+     * @param keyCodec   converts keys to and from bytes
+     * @param valueCodec converts values to and from bytes
+     * @throws IOException if the files cannot be opened or are not a map
+     */
+    public MappedHashMap(Path path, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        this(path, keyCodec, valueCodec, 8);
+    }
+
+    /**
+     * Open the map stored at path, or create an empty one there with room
+     * for at least n entries (rounded up to a power of two) if the file does
+     * not exist.
+     */
+    public MappedHashMap(Path path, Codec<K> keyCodec, Codec<V> valueCodec, int n) throws IOException {
+        super(keyCodec, valueCodec);
+        this.indexPath = path;
+        if (Files.exists(path)) {
+            this.index = openIndex(path);
+            this.data = new MappedFile(dataPath(path), 4096);
+            if (this.data.getInt(0) != DATA_MAGIC) {
+                close();
+                throw new IOException("not a MappedHashMap data file: " + dataPath(path));
+            }
+            this.generation = this.data.getInt(DATA_GENERATION_OFFSET);
+            if (this.index.getInt(GENERATION_OFFSET) != this.generation) {
+                recoverIndex();
+            }
+            this.capacity = this.index.getInt(CAPACITY_OFFSET);
+            this.size = this.index.getInt(SIZE_OFFSET);
+            this.dataEnd = this.index.getLong(DATA_END_OFFSET);
+            this.garbage = this.index.getLong(GARBAGE_OFFSET);
+            this.data.ensureLength(this.dataEnd);
+        } else {
+            this.capacity = 8;
+            while (this.capacity < n) {
+                this.capacity <<= 1;
+            }
+            this.index = createIndex(path, this.capacity);
+            this.dataEnd = DATA_START;
+            this.data = new MappedFile(dataPath(path), 4096);
+            this.data.putInt(0, DATA_MAGIC);
+            this.data.putInt(DATA_GENERATION_OFFSET, 0);
+        }
+        onChange();
+    }
+
+    /**
+     * @param path the index file of a map
+     * @return the data file that goes with it
+     */
+    public static Path dataPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".data");
+    }
+
+    /**
+     * Write every change so far out to the storage device.
+     */
+    public void force() {
+        ((MappedFile) this.index).force();
+        ((MappedFile) this.data).force();
+    }
+
+    /**
+     * Force and close the files. The map must not be used afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            ((MappedFile) this.index).close();
+        } finally {
+            ((MappedFile) this.data).close();
+        }
+    }
+
+    @Override
+    ChunkedRegion newIndex(int capacity) {
+        try {
+            Path tmp = resizePath();
+            Files.deleteIfExists(tmp);
+            return createIndex(tmp, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    void replaceIndex(ChunkedRegion newIndex) {
+        MappedFile mapped = (MappedFile) newIndex;
+        mapped.putInt(CAPACITY_OFFSET, this.capacity);
+        ChunkedRegion old = this.index;
+        this.index = mapped;
+        onChange();
+        mapped.force();
+        try {
+            ((MappedFile) old).close();
+            Files.move(resizePath(), this.indexPath,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    ChunkedRegion newData(long length) {
+        try {
+            Path tmp = compactPath();
+            Files.deleteIfExists(tmp);
+            return new MappedFile(tmp, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    void replaceStorage(ChunkedRegion newIndex, ChunkedRegion newData) {
+        MappedFile mappedIndex = (MappedFile) newIndex;
+        MappedFile mappedData = (MappedFile) newData;
+        this.generation++;
+        mappedData.putInt(0, DATA_MAGIC);
+        mappedData.putInt(DATA_GENERATION_OFFSET, this.generation);
+        mappedIndex.putInt(CAPACITY_OFFSET, this.capacity);
+        ChunkedRegion oldIndex = this.index;
+        ChunkedRegion oldData = this.data;
+        this.index = mappedIndex;
+        this.data = mappedData;
+        onChange();
+        mappedData.force();
+        mappedIndex.force();
+        try {
+            try {
+                ((MappedFile) oldIndex).close();
+            } finally {
+                ((MappedFile) oldData).close();
+            }
+            // see recoverIndex() for a crash between these two moves
+            Files.move(compactPath(), dataPath(this.indexPath),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(resizePath(), this.indexPath,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    void onChange() {
+        this.index.putInt(SIZE_OFFSET, this.size);
+        this.index.putLong(DATA_END_OFFSET, this.dataEnd);
+        this.index.putLong(GARBAGE_OFFSET, this.garbage);
+        this.index.putInt(GENERATION_OFFSET, this.generation);
+    }
+
+    /**
+     * Replaces an index that is behind the data file with the one that
+     * compact() left next to it, when a crash stopped it from moving that
+     * index into place.
+     */
+    private void recoverIndex() throws IOException {
+        ((MappedFile) this.index).close();
+        Path pending = resizePath();
+        if (Files.exists(pending)) {
+            Files.move(pending, this.indexPath,
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        this.index = openIndex(this.indexPath);
+        if (this.index.getInt(GENERATION_OFFSET) != this.generation) {
+            close();
+            throw new IOException("index does not match its data file: " + this.indexPath);
+        }
+    }
+
+    private Path compactPath() {
+        return this.indexPath.resolveSibling(this.indexPath.getFileName() + ".compact");
+    }
+
+    private static MappedFile openIndex(Path path) throws IOException {
+        MappedFile index = new MappedFile(path, HEADER_SIZE);
+        if (index.getInt(MAGIC_OFFSET) != INDEX_MAGIC || index.getInt(VERSION_OFFSET) != VERSION) {
+            index.close();
+            throw new IOException("not a MappedHashMap index: " + path);
+        }
+        return index;
+    }
+
+    private Path resizePath() {
+        return this.indexPath.resolveSibling(this.indexPath.getFileName() + ".resize");
+    }
+
+    private static MappedFile createIndex(Path path, int capacity) throws IOException {
+        MappedFile index = new MappedFile(path, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+        index.putInt(MAGIC_OFFSET, INDEX_MAGIC);
+        index.putInt(VERSION_OFFSET, VERSION);
+        index.putInt(CAPACITY_OFFSET, capacity);
+        return index;
+    }
+}
@@ -0,0 +1,67 @@
+package hashmaps;
+
+/**
+ * A SimpleMap that keeps its keys and values outside the Java heap.
+ *
+ * A SimpleHashMap holds at least three heap objects per entry (the entry,
+ * its key and its value) that every full garbage collection has to trace.
+ * This map stores encoded entries in direct memory instead, laid out as
+ * described in AbstractBinaryHashMap, so it only ever holds a handful of heap
+ * objects, whatever its size: the codecs, and the 1GB slabs of direct memory
+ * its index and data live in. Each lookup decodes the value it returns.
+ *
+ * The memory is released when the map is garbage collected, and the data
+ * region is replaced by a compacted copy, freeing the old one, once more
+ * than half of it is taken by replaced or removed entries. Direct memory is
+ * limited by -XX:MaxDirectMemorySize, which defaults to the maximum heap size.
+ *
+ * This class is not thread-safe.
+ */
+public class OffHeapHashMap<K, V> extends AbstractBinaryHashMap<K, V> {
+
+    /**
+     * Instantiate a new, empty map.
+     *
+     * @param keyCodec   converts keys to and from bytes
+     * @param valueCodec converts values to and from bytes
+     */
+    public OffHeapHashMap(Codec<K> keyCodec, Codec<V> valueCodec) {
+        this(keyCodec, valueCodec, 8);
+    }
+
+    /**
+     * Instantiate a new, empty map with room for at least n entries
+     * (rounded up to a power of two) before its index grows.
+     */
+    public OffHeapHashMap(Codec<K> keyCodec, Codec<V> valueCodec, int n) {
+        super(keyCodec, valueCodec);
+        this.capacity = 8;
+        while (this.capacity < n) {
+            this.capacity <<= 1;
+        }
+        this.index = newIndex(this.capacity);
+        this.data = new DirectRegion(4096);
+        this.dataEnd = DATA_START;
+    }
+
+    @Override
+    ChunkedRegion newIndex(int capacity) {
+        return new DirectRegion(HEADER_SIZE + (long) capacity * SLOT_SIZE);
+    }
+
+    @Override
+    void replaceIndex(ChunkedRegion newIndex) {
+        this.index = newIndex;
+    }
+
+    @Override
+    ChunkedRegion newData(long length) {
+        return new DirectRegion(length);
+    }
+
+    @Override
+    void replaceStorage(ChunkedRegion newIndex, ChunkedRegion newData) {
+        this.index = newIndex;
+        this.data = newData;
+    }
+}
@@ -3,10 +3,14 @@
  */
 package hashmaps;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
 import hashtables.ChainingHashTable;
+import hashtables.KeyedHashTable;
 
 
 
@@ -14,15 +18,49 @@ import hashtables.ChainingHashTable;
  * An implementation of a SimpleMap, built using the ChainingHashTable and 
  * SimpleMapEntry classes. This class should behave similarly to the built-in
  * java.util.HashMap, though it is much simpler!
+ * 
+ * By default the entries live in a ChainingHashTable, but any KeyedHashTable
+ * implementation (for example LinearProbingHashTable) can be supplied as
+ * the underlying engine.
+ * 
+ * Every operation hashes its key once and searches the table once: lookups
+ * and removals go through the table's key-based methods, so no probe entry
+ * is allocated, and put() replaces an existing entry in the same search
+ * that looks for it.
+ * 
+ * compute(), computeIfAbsent(), computeIfPresent() and merge() likewise
+ * find, update and store an entry in one search of the table, through its
+ * compute() method, so read-modify-write loops such as word counts do not
+ * look each key up twice.
+ * 
+ * keySet(), values() and entries() iterate over the table in place, and
+ * their iterators support remove() as long as the table's iterator does.
+ * With a ChainingHashTable they also fail fast when the map is modified
+ * behind them.
  */
-public class SimpleHashMap<K, V> implements SimpleMap<K, V> {
-    private ChainingHashTable table;
+public class SimpleHashMap<K, V> extends AbstractSimpleMap<K, V> {
+    private static final BiPredicate<SimpleMapEntry<?, ?>, Object> KEY_MATCHER =
+            (entry, k) -> k.equals(entry.k);
+
+    private KeyedHashTable<SimpleMapEntry<K, V>> table;
 
 
     public SimpleHashMap() {
         this.table = new ChainingHashTable<SimpleMapEntry<K,V>>();
     }
 
+    /**
+     * Instantiate a new map that stores its entries in the given hash table.
+     * The table must be empty and must not be shared with anything else.
+     * Removing through keySet(), values() or entries() needs a table whose
+     * iterator supports remove().
+     * 
+     * @param table the (empty) hash table to store entries in
+     */
+    public SimpleHashMap(KeyedHashTable<SimpleMapEntry<K,V>> table) {
+        this.table = table;
+    }
+
     @Override
     public int size() {
         return this.table.size();
@@ -33,21 +71,82 @@ public class SimpleHashMap<K, V> implements SimpleMap<K, V> {
         if(k==null){
             return;
         }
-        SimpleMapEntry e = new SimpleMapEntry(k,v);
-        SimpleMapEntry x = new SimpleMapEntry(k,null);
-        SimpleMapEntry m =(SimpleMapEntry) this.table.get(x);
-        
-        boolean y = this.table.add(e);
-        if(y == false){
-            this.table.remove(m);
-            this.table.add(e);
-            return;
-        }else{
+        this.table.put(new SimpleMapEntry<K,V>(k, v));
+    }
+
+    /**
+     * Copy every mapping of m into this map. The table grows at most once,
+     * to the capacity needed for both maps, and the copies reuse the hash
+     * codes of m's entries. If this map is empty, m's keys are known to be
+     * distinct, so they are added without looking for existing mappings.
+     */
+    @Override
+    public void putAll(SimpleMap<? extends K, ? extends V> m) {
+        if (this.table.size() == 0) {
+            this.table.addAllDistinct(new Copies<>(m));
             return;
         }
-        
-        
-            
+        this.table.ensureCapacity(this.table.size() + m.size());
+        for (SimpleMapEntry<? extends K, ? extends V> e : m.entries()) {
+            this.table.put(new SimpleMapEntry<K,V>(e.k, e.v, e.hash));
+        }
+    }
+
+    @Override
+    public V computeIfAbsent(K k, Function<? super K, ? extends V> f) {
+        if(k==null){
+            return null;
+        }
+        int hash = SimpleMapEntry.hash(k);
+        SimpleMapEntry<K,V> m = this.table.compute(k, hash, KEY_MATCHER, old -> {
+            if (old != null && old.v != null) {
+                return old;
+            }
+            V v = f.apply(k);
+            return v == null ? old : new SimpleMapEntry<K,V>(k, v, hash);
+        });
+        return m == null ? null : m.v;
+    }
+
+    @Override
+    public V computeIfPresent(K k, BiFunction<? super K, ? super V, ? extends V> f) {
+        if(k==null){
+            return null;
+        }
+        SimpleMapEntry<K,V> m = this.table.compute(k, SimpleMapEntry.hash(k), KEY_MATCHER, old -> {
+            if (old == null || old.v == null) {
+                return old;
+            }
+            V v = f.apply(k, old.v);
+            return v == null ? null : new SimpleMapEntry<K,V>(old.k, v, old.hash);
+        });
+        return m == null ? null : m.v;
+    }
+
+    @Override
+    public V compute(K k, BiFunction<? super K, ? super V, ? extends V> f) {
+        if(k==null){
+            return null;
+        }
+        int hash = SimpleMapEntry.hash(k);
+        SimpleMapEntry<K,V> m = this.table.compute(k, hash, KEY_MATCHER, old -> {
+            V v = f.apply(k, old == null ? null : old.v);
+            return v == null ? null : new SimpleMapEntry<K,V>(old == null ? k : old.k, v, hash);
+        });
+        return m == null ? null : m.v;
+    }
+
+    @Override
+    public V merge(K k, V value, BiFunction<? super V, ? super V, ? extends V> f) {
+        if(k==null){
+            return null;
+        }
+        int hash = SimpleMapEntry.hash(k);
+        SimpleMapEntry<K,V> m = this.table.compute(k, hash, KEY_MATCHER, old -> {
+            V v = old == null || old.v == null ? value : f.apply(old.v, value);
+            return v == null ? null : new SimpleMapEntry<K,V>(old == null ? k : old.k, v, hash);
+        });
+        return m == null ? null : m.v;
     }
 
     @Override
@@ -55,13 +154,10 @@ public class SimpleHashMap<K, V> implements SimpleMap<K, V> {
         if(k==null){
             return null;
         }
-        SimpleMapEntry x = new SimpleMapEntry<K,V>(k, null);
-        SimpleMapEntry m = (SimpleMapEntry) this.table.get(x);
+        SimpleMapEntry<K,V> m = this.table.findKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
         if(m==null){
             return null;
-        }else{return (V) m.v;}
-        
-            
+        }else{return m.v;}
     }
  
     @Override
@@ -69,15 +165,10 @@ public class SimpleHashMap<K, V> implements SimpleMap<K, V> {
         if(k==null){
             return null;
         }
-        SimpleMapEntry x = new SimpleMapEntry<K,V>(k,defaultValue);
-        SimpleMapEntry m =(SimpleMapEntry) this.table.get(x);
+        SimpleMapEntry<K,V> m = this.table.findKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
         if(m==null){
             return defaultValue;
-        }
-        if(m.v!=defaultValue){
-            return (V) m.v;
-        }else{return defaultValue;}
-        
+        }else{return m.v;}
     }
 
     @Override
@@ -85,32 +176,53 @@ public class SimpleHashMap<K, V> implements SimpleMap<K, V> {
         if(k==null){
             return null;
         }
-        SimpleMapEntry x = new SimpleMapEntry<K,V>(k, null);
-        SimpleMapEntry m =(SimpleMapEntry) this.table.get(x);
+        SimpleMapEntry<K,V> m = this.table.removeKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
         if(m!=null){
-            this.table.remove(m);
-            return (V) m.v;
+            return m.v;
         }else{return null;}
-        
     }
 
     @Override
-    public Set<K> keys() {
-        Set<K> s = new HashSet<K>();
-        for(ArrayList<SimpleMapEntry<K,V>> A:this.table.getTable()){
-            if(A==null){
-                continue;
-            }else{
-            for (SimpleMapEntry E: A){
-                K k = (K) E.k;
-                s.add(k);
-            }
-            }
-        }
-        return s;      
+    protected Iterator<SimpleMapEntry<K, V>> entryIterator() {
+        return this.table.iterator();
     }
-}
 
-  
+    @Override
+    protected SimpleMapEntry<K, V> getEntry(K k) {
+        return this.table.findKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
+    }
+
+    /**
+     * A set of fresh copies of another map's entries, made one at a time
+     * as it is iterated, so a bulk load never holds them all in a list.
+     */
+    private static final class Copies<K, V> extends AbstractSet<SimpleMapEntry<K, V>> {
+        private final SimpleMap<? extends K, ? extends V> source;
+
+        Copies(SimpleMap<? extends K, ? extends V> source) {
+            this.source = source;
+        }
+
+        @Override
+        public Iterator<SimpleMapEntry<K, V>> iterator() {
+            Iterator<? extends SimpleMapEntry<? extends K, ? extends V>> it = this.source.entries().iterator();
+            return new Iterator<SimpleMapEntry<K, V>>() {
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
 
+                @Override
+                public SimpleMapEntry<K, V> next() {
+                    SimpleMapEntry<? extends K, ? extends V> e = it.next();
+                    return new SimpleMapEntry<K, V>(e.k, e.v, e.hash);
+                }
+            };
+        }
 
+        @Override
+        public int size() {
+            return this.source.size();
+        }
+    }
+}
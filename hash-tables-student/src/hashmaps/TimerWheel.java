@@ -0,0 +1,240 @@
+package hashmaps;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timer wheel (Varghese and Lauck, "Hashed and Hierarchical
+ * Timing Wheels") that schedules values to expire at a point in time.
+ *
+ * Times are in nanoseconds on whatever clock the caller uses, e.g.
+ * System.nanoTime(). The wheel has five levels of buckets, each a doubly
+ * linked list of timers. A level's buckets each cover a power-of-two span of
+ * time: about a second on the first level, a minute on the second, an hour on
+ * the third and a day on the fourth, with a single overflow bucket for
+ * anything further out. A timer is placed on the finest level whose range
+ * still covers its deadline, so scheduling, rescheduling and cancelling are
+ * all O(1).
+ *
+ * advance() moves the wheel's clock forward and visits only the buckets whose
+ * span has passed. Timers in them that are due are handed to the caller;
+ * the others (a bucket on a coarse level covers a long span) cascade down to
+ * a finer level. A timer therefore fires no earlier than its deadline and at
+ * most about a second after the first advance() past it.
+ *
+ * This class is not thread-safe.
+ */
+public class TimerWheel<T> {
+    private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+    private static final long[] SPANS = {
+        1L << 30, // 1.07s
+        1L << 36, // 1.14m
+        1L << 42, // 1.22h
+        1L << 47, // 1.63d
+        1L << 49, // 6.5d
+    };
+    private static final int[] SHIFT = {30, 36, 42, 47, 49};
+
+    private final Timer<T>[][] wheel;
+    private long nanos;
+    private int size;
+
+    /**
+     * A value scheduled on a wheel. The handle can be rescheduled or
+     * cancelled, and is reused for as long as the caller keeps it.
+     */
+    public static final class Timer<T> {
+        private final T value;
+        private long time;
+        private Timer<T> prev;
+        private Timer<T> next;
+
+        private Timer(T value, long time) {
+            this.value = value;
+            this.time = time;
+        }
+
+        /**
+         * @return the value this timer was created for
+         */
+        public T value() {
+            return this.value;
+        }
+
+        /**
+         * @return the time at which this timer is due
+         */
+        public long time() {
+            return this.time;
+        }
+
+        /**
+         * @return true iff the timer is on a wheel, i.e. neither fired nor
+         *         cancelled
+         */
+        public boolean isScheduled() {
+            return this.next != null;
+        }
+    }
+
+    /**
+     * Instantiate a new wheel whose clock starts at the given time.
+     *
+     * @param nanos the current time
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public TimerWheel(long nanos) {
+        this.nanos = nanos;
+        this.wheel = (Timer<T>[][]) new Timer[BUCKETS.length][];
+        for (int i = 0; i < BUCKETS.length; i++) {
+            this.wheel[i] = (Timer<T>[]) new Timer[BUCKETS[i]];
+            for (int j = 0; j < BUCKETS[i]; j++) {
+                Timer<T> sentinel = new Timer<>(null, 0);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                this.wheel[i][j] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * @return the number of scheduled timers
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the time the wheel was last advanced to
+     */
+    public long now() {
+        return this.nanos;
+    }
+
+    /**
+     * Schedule value to expire at the given time.
+     *
+     * @param value the value
+     * @param time  the time at which it is due
+     * @return the timer, for rescheduling or cancelling
+     */
+    public Timer<T> schedule(T value, long time) {
+        Timer<T> timer = new Timer<>(value, time);
+        link(timer);
+        return timer;
+    }
+
+    /**
+     * Move a timer to a new deadline, scheduling it again if it had fired or
+     * been cancelled.
+     *
+     * @param timer the timer
+     * @param time  the new time at which it is due
+     */
+    public void reschedule(Timer<T> timer, long time) {
+        cancel(timer);
+        timer.time = time;
+        link(timer);
+    }
+
+    /**
+     * Remove a timer from the wheel, if it is still on it.
+     *
+     * @param timer the timer
+     */
+    public void cancel(Timer<T> timer) {
+        if (timer.next == null) {
+            return;
+        }
+        unlink(timer);
+    }
+
+    /**
+     * Move the clock forward to the given time, passing the value of every
+     * timer that is now due to expired, in no particular order. A timer is
+     * off the wheel by the time its value is passed on, so expired may freely
+     * schedule or cancel timers.
+     *
+     * @param now     the current time
+     * @param expired receives the values of due timers
+     */
+    public void advance(long now, Consumer<? super T> expired) {
+        long previous = this.nanos;
+        if (now - previous <= 0) {
+            return;
+        }
+        this.nanos = now;
+        for (int level = 0; level < SHIFT.length; level++) {
+            long previousTicks = previous >>> SHIFT[level];
+            long currentTicks = now >>> SHIFT[level];
+            if (currentTicks - previousTicks <= 0) {
+                break;
+            }
+            expire(level, previousTicks, currentTicks, expired);
+        }
+    }
+
+    /**
+     * Empties the buckets of a level that the clock passed over, firing due
+     * timers and putting the rest back (onto a finer level, now that they are
+     * closer).
+     */
+    private void expire(int level, long previousTicks, long currentTicks, Consumer<? super T> expired) {
+        Timer<T>[] buckets = this.wheel[level];
+        int mask = buckets.length - 1;
+        long delta = Math.min(currentTicks - previousTicks + 1, buckets.length);
+        for (long i = 0; i < delta; i++) {
+            Timer<T> sentinel = buckets[(int) ((previousTicks + i) & mask)];
+            Timer<T> timer = sentinel.next;
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            while (timer != sentinel) {
+                Timer<T> next = timer.next;
+                timer.prev = null;
+                timer.next = null;
+                this.size--;
+                if (timer.time - this.nanos <= 0) {
+                    expired.accept(timer.value);
+                } else {
+                    link(timer);
+                }
+                timer = next;
+            }
+        }
+    }
+
+    private void link(Timer<T> timer) {
+        Timer<T> sentinel = findBucket(timer.time);
+        timer.prev = sentinel.prev;
+        timer.next = sentinel;
+        sentinel.prev.next = timer;
+        sentinel.prev = timer;
+        this.size++;
+    }
+
+    private void unlink(Timer<T> timer) {
+        timer.prev.next = timer.next;
+        timer.next.prev = timer.prev;
+        timer.prev = null;
+        timer.next = null;
+        this.size--;
+    }
+
+    /**
+     * Returns the bucket for a deadline: the finest level whose range covers
+     * the time left until it, at the bucket for the deadline's tick. A
+     * deadline that has already passed goes in the current tick's bucket,
+     * which the next advance() visits.
+     */
+    private Timer<T> findBucket(long time) {
+        long duration = Math.max(0, time - this.nanos);
+        long due = this.nanos + duration;
+        int last = this.wheel.length - 1;
+        for (int level = 0; level < last; level++) {
+            if (duration < SPANS[level + 1]) {
+                long ticks = due >>> SHIFT[level];
+                return this.wheel[level][(int) (ticks & (BUCKETS[level] - 1))];
+            }
+        }
+        return this.wheel[last][0];
+    }
+}
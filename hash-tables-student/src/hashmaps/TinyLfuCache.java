@@ -0,0 +1,340 @@
+package hashmaps;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+
+import hashtables.ChainingHashTable;
+import hashtables.CountMinSketch;
+import hashtables.KeyedHashTable;
+
+/**
+ * A SimpleMap with a fixed maximum size that decides what to keep by how
+ * often, not just how recently, each key is used (the W-TinyLFU policy of
+ * Einziger, Friedman and Manes, "TinyLFU: A Highly Efficient Cache
+ * Admission Policy").
+ *
+ * The entries are split between three LRU lists:
+ *
+ * - The window holds the newest entries, about 1% of the maximum size. Every
+ *   new key enters here, so a burst of new keys can be cached briefly.
+ *
+ * - Entries pushed out of the window become candidates for the main cache,
+ *   which is a segmented LRU: entries start on probation and are promoted
+ *   to the protected segment (80% of the main cache) when they are hit
+ *   again; protected entries pushed out are demoted back to probation.
+ *
+ * - When the cache is full, the candidate just pushed out of the window
+ *   competes with the least recently used entry on probation, and whichever
+ *   has been accessed less often according to a CountMinSketch of recent
+ *   accesses (hits, misses and puts alike) is evicted.
+ *
+ * The result is that a scan of keys that are used once cannot push out
+ * keys that are used often, which is what happens to LruCache.
+ *
+ * As with LruCache, an optional listener is told about every eviction,
+ * stats() returns the hit, miss and eviction counts, and the entry views
+ * iterate without changing any order: the window first, then probation, then
+ * the protected segment, each from least to most recently used. The
+ * iterators support remove() and fail fast. This class is not thread-safe.
+ */
+public class TinyLfuCache<K, V> extends AbstractSimpleMap<K, V> {
+    private static final BiPredicate<SimpleMapEntry<?, ?>, Object> KEY_MATCHER =
+            (entry, k) -> k.equals(entry.k);
+
+    private final KeyedHashTable<Node<K, V>> table;
+    private final CountMinSketch sketch;
+    private final AccessQueue<K, V> window = new AccessQueue<>();
+    private final AccessQueue<K, V> probation = new AccessQueue<>();
+    private final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+    private final int maximumSize;
+    private final int maximumWindowSize;
+    private final int maximumProtectedSize;
+    private final BiConsumer<? super K, ? super V> evictionListener;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private int modCount;
+
+    private static final class Node<K, V> extends SimpleMapEntry<K, V> {
+        Node<K, V> before;
+        Node<K, V> after;
+        AccessQueue<K, V> queue;
+
+        Node(K k, V v) {
+            super(k, v);
+        }
+    }
+
+    /**
+     * An LRU list of nodes with a sentinel, from least to most recently used.
+     */
+    private static final class AccessQueue<K, V> {
+        final Node<K, V> sentinel = new Node<>(null, null);
+        int size;
+
+        AccessQueue() {
+            this.sentinel.before = this.sentinel;
+            this.sentinel.after = this.sentinel;
+        }
+
+        Node<K, V> first() {
+            return this.sentinel.after == this.sentinel ? null : this.sentinel.after;
+        }
+
+        void linkLast(Node<K, V> node) {
+            node.before = this.sentinel.before;
+            node.after = this.sentinel;
+            this.sentinel.before.after = node;
+            this.sentinel.before = node;
+            node.queue = this;
+            this.size++;
+        }
+
+        void unlink(Node<K, V> node) {
+            node.before.after = node.after;
+            node.after.before = node.before;
+            node.before = null;
+            node.after = null;
+            node.queue = null;
+            this.size--;
+        }
+
+        void moveToEnd(Node<K, V> node) {
+            unlink(node);
+            linkLast(node);
+        }
+    }
+
+    /**
+     * Instantiate a new cache that holds at most maximumSize entries.
+     *
+     * @param maximumSize the maximum number of entries
+     */
+    public TinyLfuCache(int maximumSize) {
+        this(maximumSize, null);
+    }
+
+    /**
+     * Instantiate a new cache that holds at most maximumSize entries and
+     * passes the key and value of each evicted entry to evictionListener.
+     *
+     * @param maximumSize      the maximum number of entries
+     * @param evictionListener called for each evicted entry, or null
+     */
+    public TinyLfuCache(int maximumSize, BiConsumer<? super K, ? super V> evictionListener) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.maximumWindowSize = Math.max(1, maximumSize / 100);
+        this.maximumProtectedSize = (int) (0.8 * (maximumSize - this.maximumWindowSize));
+        this.evictionListener = evictionListener;
+        this.sketch = new CountMinSketch(maximumSize);
+        this.table = new ChainingHashTable<>(Math.min(maximumSize, 1 << 16) * 4 / 3 + 1);
+    }
+
+    /**
+     * @return the maximum number of entries this cache holds
+     */
+    public int maximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * @return a snapshot of the hit, miss and eviction counts
+     */
+    public CacheStats stats() {
+        return new CacheStats(this.hitCount, this.missCount, this.evictionCount);
+    }
+
+    @Override
+    public int size() {
+        return this.table.size();
+    }
+
+    /**
+     * Insert or replace the mapping for k. A replaced entry keeps its place
+     * and counts as an access; a new entry enters the window, and may push
+     * an older entry out of the cache.
+     */
+    @Override
+    public void put(K k, V v) {
+        if (k == null) {
+            return;
+        }
+        this.sketch.increment(k);
+        Node<K, V> node = new Node<>(k, v);
+        Node<K, V> old = this.table.put(node);
+        this.modCount++;
+        if (old != null) {
+            AccessQueue<K, V> queue = old.queue;
+            queue.unlink(old);
+            queue.linkLast(node);
+            onHit(node);
+            return;
+        }
+        this.window.linkLast(node);
+        evict();
+    }
+
+    @Override
+    public V get(K k) {
+        return getOrDefault(k, null);
+    }
+
+    @Override
+    public V getOrDefault(K k, V defaultValue) {
+        if (k == null) {
+            return null;
+        }
+        this.sketch.increment(k);
+        Node<K, V> node = this.table.findKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
+        if (node == null) {
+            this.missCount++;
+            return defaultValue;
+        }
+        this.hitCount++;
+        this.modCount++;
+        onHit(node);
+        return node.v;
+    }
+
+    @Override
+    public V remove(K k) {
+        if (k == null) {
+            return null;
+        }
+        Node<K, V> node = this.table.removeKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
+        if (node == null) {
+            return null;
+        }
+        node.queue.unlink(node);
+        this.modCount++;
+        return node.v;
+    }
+
+    @Override
+    protected SimpleMapEntry<K, V> getEntry(K k) {
+        return this.table.findKey(k, SimpleMapEntry.hash(k), KEY_MATCHER);
+    }
+
+    @Override
+    protected Iterator<SimpleMapEntry<K, V>> entryIterator() {
+        return new Iterator<SimpleMapEntry<K, V>>() {
+            @SuppressWarnings({"rawtypes", "unchecked"})
+            private final AccessQueue<K, V>[] queues =
+                    new AccessQueue[] {window, probation, protectedQueue};
+            private int queue = 0;
+            private Node<K, V> next = advance(this.queues[0].sentinel.after);
+            private Node<K, V> last;
+            private int expectedModCount = modCount;
+
+            private Node<K, V> advance(Node<K, V> node) {
+                while (node == this.queues[this.queue].sentinel) {
+                    if (++this.queue == this.queues.length) {
+                        return null;
+                    }
+                    node = this.queues[this.queue].sentinel.after;
+                }
+                return node;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.next != null;
+            }
+
+            @Override
+            public SimpleMapEntry<K, V> next() {
+                if (modCount != this.expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (this.next == null) {
+                    throw new NoSuchElementException();
+                }
+                this.last = this.next;
+                this.next = advance(this.next.after);
+                return this.last;
+            }
+
+            @Override
+            public void remove() {
+                if (this.last == null) {
+                    throw new IllegalStateException();
+                }
+                if (modCount != this.expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                TinyLfuCache.this.remove(this.last.k);
+                this.last = null;
+                this.expectedModCount = modCount;
+            }
+        };
+    }
+
+    /**
+     * Reorders a node that was just accessed: window and protected entries
+     * move to the end of their list, and probation entries are promoted.
+     */
+    private void onHit(Node<K, V> node) {
+        if (node.queue != this.probation) {
+            node.queue.moveToEnd(node);
+            return;
+        }
+        this.probation.unlink(node);
+        this.protectedQueue.linkLast(node);
+        if (this.protectedQueue.size > this.maximumProtectedSize) {
+            Node<K, V> demoted = this.protectedQueue.first();
+            this.protectedQueue.unlink(demoted);
+            this.probation.linkLast(demoted);
+        }
+    }
+
+    /**
+     * Moves entries that no longer fit in the window onto probation, then
+     * evicts until the cache is within its maximum size, each time keeping
+     * whichever of the newest candidate and the oldest probation entry is
+     * used more often.
+     */
+    private void evict() {
+        Node<K, V> candidate = null;
+        while (this.window.size > this.maximumWindowSize) {
+            candidate = this.window.first();
+            this.window.unlink(candidate);
+            this.probation.linkLast(candidate);
+        }
+        while (this.table.size() > this.maximumSize) {
+            Node<K, V> victim = this.probation.first();
+            if (victim == null || victim == candidate) {
+                // nothing else on probation: compete with the next oldest entry
+                victim = this.protectedQueue.first();
+            }
+            if (victim == null) {
+                victim = this.window.first();
+            }
+            if (candidate == null) {
+                evict(victim);
+            } else if (victim == null) {
+                evict(candidate);
+                candidate = null;
+            } else if (this.sketch.frequency(candidate.k) > this.sketch.frequency(victim.k)) {
+                evict(victim);
+            } else {
+                evict(candidate);
+                candidate = null;
+            }
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        this.table.removeKey(node.k, node.hash, KEY_MATCHER);
+        node.queue.unlink(node);
+        this.evictionCount++;
+        if (this.evictionListener != null) {
+            this.evictionListener.accept(node.k, node.v);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package hashtables;
+
+import java.util.Arrays;
+
+/**
+ * A ProbabilisticSet backed by a classic Bloom filter.
+ *
+ * The filter is an array of m bits. Adding an element sets k of them, chosen
+ * by k hash functions; an element might be in the set iff all k of its bits
+ * are set. For n expected elements and a target false-positive probability
+ * p, the filter uses the optimal m = -n ln(p) / (ln 2)^2 bits and
+ * k = (m / n) ln 2 hash functions, i.e. about 9.6 bits and 7 probes per
+ * element for p = 1%.
+ *
+ * The k bit positions come from two mixed hashes of the element's hash
+ * code, combined as h1 + i * h2 (Kirsch and Mitzenmacher, "Less Hashing,
+ * Same Performance"). Each probe may touch a different cache line; see
+ * BlockedBloomFilter for a variant that touches only one.
+ */
+public class BloomFilter<E> implements ProbabilisticSet<E> {
+    private final long[] bits;
+    private final long bitSize;
+    private final int hashFunctions;
+    private long bitCount;
+
+    /**
+     * Instantiate a filter sized for the given number of elements and
+     * false-positive probability.
+     *
+     * @param expectedInsertions the number of elements expected to be added
+     * @param fpp                the target false-positive probability, in (0, 1)
+     */
+    public BloomFilter(long expectedInsertions, double fpp) {
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("fpp must be in (0, 1): " + fpp);
+        }
+        long n = Math.max(1, expectedInsertions);
+        long m = optimalBits(n, fpp);
+        this.bits = new long[(int) Math.min(Integer.MAX_VALUE - 8, (m + 63) >>> 6)];
+        this.bitSize = (long) this.bits.length << 6;
+        this.hashFunctions = optimalHashFunctions(n, this.bitSize);
+    }
+
+    /**
+     * @return the number of bits in the filter
+     */
+    public long bitSize() {
+        return this.bitSize;
+    }
+
+    /**
+     * @return the number of bits set per element
+     */
+    public int hashFunctions() {
+        return this.hashFunctions;
+    }
+
+    @Override
+    public boolean putHash(int hashCode) {
+        int h1 = Hashing.mix(hashCode);
+        int h2 = Hashing.mix(h1 ^ 0x9E3779B9);
+        boolean changed = false;
+        for (int i = 0; i < this.hashFunctions; i++) {
+            long bit = index(h1, h2, i);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((this.bits[word] & mask) == 0) {
+                this.bits[word] |= mask;
+                this.bitCount++;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean mightContainHash(int hashCode) {
+        int h1 = Hashing.mix(hashCode);
+        int h2 = Hashing.mix(h1 ^ 0x9E3779B9);
+        for (int i = 0; i < this.hashFunctions; i++) {
+            long bit = index(h1, h2, i);
+            if ((this.bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public double expectedFpp() {
+        return Math.pow((double) this.bitCount / this.bitSize, this.hashFunctions);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(this.bits, 0);
+        this.bitCount = 0;
+    }
+
+    private long index(int h1, int h2, int i) {
+        long combined = h1 + (long) i * h2;
+        return (combined & Long.MAX_VALUE) % this.bitSize;
+    }
+
+    /**
+     * @return the number of bits that gives probability fpp of a false
+     *         positive after n insertions
+     */
+    static long optimalBits(long n, double fpp) {
+        return Math.max(64, (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+    }
+
+    /**
+     * @return the number of hash functions that minimizes the false-positive
+     *         probability for n insertions into m bits
+     */
+    static int optimalHashFunctions(long n, long m) {
+        return Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+}
@@ -0,0 +1,220 @@
+package hashtables;
+
+import java.util.Iterator;
+import java.util.function.BiPredicate;
+import java.util.function.LongFunction;
+
+/**
+ * A KeyedHashTable that puts a ProbabilisticSet in front of another one, so
+ * that lookups of elements that are not in the table usually return without
+ * searching it.
+ *
+ * Every element added to the table is also added to the filter, by its hash
+ * code. contains(), get() and findKey() ask the filter first, and only
+ * search the table if the filter says the element might be there. This pays
+ * off when most lookups miss and a search of the table is expensive, for
+ * example a ChainingHashTable with long chains or keys whose equals() is
+ * slow; when most lookups hit, the filter only adds work.
+ *
+ * The filter is sized for the table's current capacity, at a load factor of
+ * 0.75 and the false-positive probability passed to the constructor. It is
+ * rebuilt from the table's elements whenever the table's capacity changes,
+ * and also when so many elements have been removed (which a Bloom filter
+ * cannot forget) that they outnumber the ones that are left.
+ *
+ * Writes and iteration go straight to the wrapped table, which must not be
+ * modified other than through this one.
+ */
+public class BloomFilteredHashTable<E> implements KeyedHashTable<E> {
+    private final KeyedHashTable<E> table;
+    private final LongFunction<? extends ProbabilisticSet<?>> filterFactory;
+    private ProbabilisticSet<?> filter;
+    private int filterCapacity;
+    // elements removed from the table whose bits are still set in the filter
+    private int removedSinceRebuild;
+    private long skippedLookups;
+
+    /**
+     * Wrap table with a BloomFilter that has the given false-positive
+     * probability.
+     *
+     * @param table the table to filter lookups for
+     * @param fpp   the target false-positive probability, in (0, 1)
+     */
+    public BloomFilteredHashTable(KeyedHashTable<E> table, double fpp) {
+        this(table, n -> new BloomFilter<>(n, fpp));
+    }
+
+    /**
+     * Wrap table with filters made by filterFactory, which is given the
+     * number of elements the filter should be sized for.
+     *
+     * @param table         the table to filter lookups for
+     * @param filterFactory creates an empty filter for a number of elements
+     */
+    public BloomFilteredHashTable(KeyedHashTable<E> table, LongFunction<? extends ProbabilisticSet<?>> filterFactory) {
+        this.table = table;
+        this.filterFactory = filterFactory;
+        rebuild();
+    }
+
+    /**
+     * @return the number of lookups answered by the filter alone
+     */
+    public long skippedLookups() {
+        return this.skippedLookups;
+    }
+
+    /**
+     * @return the filter's estimate of its current false-positive probability
+     */
+    public double expectedFpp() {
+        return this.filter.expectedFpp();
+    }
+
+    @Override
+    public int capacity() {
+        return this.table.capacity();
+    }
+
+    @Override
+    public int size() {
+        return this.table.size();
+    }
+
+    @Override
+    public double loadFactor() {
+        return this.table.loadFactor();
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            return false;
+        }
+        boolean added = this.table.add(e);
+        afterInsert(e);
+        return added;
+    }
+
+    @Override
+    public E put(E e) {
+        if (e == null) {
+            return null;
+        }
+        E old = this.table.put(e);
+        afterInsert(e);
+        return old;
+    }
+
+    @Override
+    public boolean remove(E e) {
+        if (e == null) {
+            return false;
+        }
+        if (!this.filter.mightContainHash(e.hashCode())) {
+            this.skippedLookups++;
+            return false;
+        }
+        boolean removed = this.table.remove(e);
+        if (removed) {
+            afterRemove();
+        }
+        return removed;
+    }
+
+    @Override
+    public <K> E removeKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        if (!this.filter.mightContainHash(hashCode)) {
+            this.skippedLookups++;
+            return null;
+        }
+        E removed = this.table.removeKey(k, hashCode, matcher);
+        if (removed != null) {
+            afterRemove();
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return get(e) != null;
+    }
+
+    @Override
+    public E get(E e) {
+        if (e == null) {
+            return null;
+        }
+        if (!this.filter.mightContainHash(e.hashCode())) {
+            this.skippedLookups++;
+            return null;
+        }
+        return this.table.get(e);
+    }
+
+    @Override
+    public <K> E findKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        if (!this.filter.mightContainHash(hashCode)) {
+            this.skippedLookups++;
+            return null;
+        }
+        return this.table.findKey(k, hashCode, matcher);
+    }
+
+    /**
+     * Return an iterator over the wrapped table. Its remove(), if the
+     * wrapped table's iterator has one, removes from the table as usual.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<E> it = this.table.iterator();
+        return new Iterator<E>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return it.next();
+            }
+
+            @Override
+            public void remove() {
+                it.remove();
+                afterRemove();
+            }
+        };
+    }
+
+    /**
+     * Discard the filter and build a new one, sized for the table's current
+     * capacity, from the elements in the table.
+     */
+    public void rebuild() {
+        this.filterCapacity = this.table.capacity();
+        long expected = Math.max(16, (long) (0.75 * this.filterCapacity));
+        this.filter = this.filterFactory.apply(Math.max(expected, this.table.size()));
+        for (E e : this.table) {
+            this.filter.putHash(e.hashCode());
+        }
+        this.removedSinceRebuild = 0;
+    }
+
+    private void afterInsert(E e) {
+        if (this.table.capacity() != this.filterCapacity) {
+            rebuild();
+        } else {
+            this.filter.putHash(e.hashCode());
+        }
+    }
+
+    private void afterRemove() {
+        this.removedSinceRebuild++;
+        if (this.table.capacity() != this.filterCapacity
+                || this.removedSinceRebuild > Math.max(16, this.table.size())) {
+            rebuild();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package hashtables;
+
+/**
+ * How a ChainingHashTable sizes its array and maps a hash code to an index.
+ *
+ * Both policies grow the table by incrementing an exponent n, so resizing
+ * always roughly doubles the capacity.
+ */
+public enum CapacityPolicy {
+
+    /**
+     * Capacity is 2^n - 1 and the index is the hash code modulo the capacity.
+     * An odd capacity lets the raw hashCode() spread reasonably well on its
+     * own, at the cost of an integer division per operation.
+     */
+    MERSENNE {
+        @Override
+        public int capacity(int n) {
+            return (1 << n) - 1;
+        }
+
+        @Override
+        public int index(int hashCode, int capacity) {
+            // take the remainder before abs() so Integer.MIN_VALUE stays in range
+            return Math.abs(hashCode % capacity);
+        }
+    },
+
+    /**
+     * Capacity is 2^n and the index is the low n bits of the mixed hash code.
+     * Masking replaces the division; Hashing.mix() makes every bit of the
+     * hash code count, since only the low bits are kept.
+     */
+    POWER_OF_TWO {
+        @Override
+        public int capacity(int n) {
+            return 1 << n;
+        }
+
+        @Override
+        public int index(int hashCode, int capacity) {
+            return Hashing.mix(hashCode) & (capacity - 1);
+        }
+    };
+
+    /**
+     * Return the capacity of a table with exponent n.
+     *
+     * @param n the exponent
+     * @return the capacity
+     */
+    public abstract int capacity(int n);
+
+    /**
+     * Return the index in [0, capacity) for the given hash code.
+     *
+     * @param hashCode the hash code of an element
+     * @param capacity a capacity returned by capacity(n)
+     * @return the index for the hash code
+     */
+    public abstract int index(int hashCode, int capacity);
+}
@@ -0,0 +1,114 @@
+package hashtables;
+
+import java.util.Arrays;
+import java.util.function.BiPredicate;
+
+/**
+ * A bucket of ChainingHashTable: a growable array of elements, with the
+ * hashCode() of each one cached in a parallel int[].
+ *
+ * A search compares the cached hash codes first and only calls equals()
+ * (or the matcher) on an element whose hash code is the one it is looking
+ * for, and moving an element to a new bucket on resize never calls its
+ * hashCode() again.
+ */
+final class Chain<E> {
+    private static final int INITIAL_CAPACITY = 2;
+
+    private Object[] elements;
+    private int[] hashes;
+    private int size;
+
+    Chain() {
+        this.elements = new Object[INITIAL_CAPACITY];
+        this.hashes = new int[INITIAL_CAPACITY];
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    @SuppressWarnings("unchecked")
+    E get(int i) {
+        return (E) this.elements[i];
+    }
+
+    /**
+     * @return the cached hashCode() of the i-th element
+     */
+    int hash(int i) {
+        return this.hashes[i];
+    }
+
+    /**
+     * Returns the position of the element equal to e, whose hash code is
+     * hashCode, or -1.
+     */
+    int indexOf(E e, int hashCode) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.hashes[i] == hashCode && e.equals(this.elements[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position of the element matching k, or -1.
+     */
+    @SuppressWarnings("unchecked")
+    <K> int indexOfKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.hashes[i] == hashCode && matcher.test((E) this.elements[i], k)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    void add(E e, int hashCode) {
+        if (this.size == this.elements.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, this.size * 2);
+            this.elements = Arrays.copyOf(this.elements, capacity);
+            this.hashes = Arrays.copyOf(this.hashes, capacity);
+        }
+        this.elements[this.size] = e;
+        this.hashes[this.size] = hashCode;
+        this.size++;
+    }
+
+    /**
+     * Replaces the i-th element with e, which must have the same hash code.
+     */
+    E set(int i, E e) {
+        E old = get(i);
+        this.elements[i] = e;
+        return old;
+    }
+
+    E remove(int i) {
+        E old = get(i);
+        int tail = this.size - i - 1;
+        System.arraycopy(this.elements, i + 1, this.elements, i, tail);
+        System.arraycopy(this.hashes, i + 1, this.hashes, i, tail);
+        this.elements[--this.size] = null;
+        return old;
+    }
+
+    /**
+     * Shrinks the backing arrays to exactly size() elements.
+     */
+    void trimToSize() {
+        if (this.size < this.elements.length) {
+            this.elements = Arrays.copyOf(this.elements, this.size);
+            this.hashes = Arrays.copyOf(this.hashes, this.size);
+        }
+    }
+
+    /**
+     * @return the length of the backing arrays
+     */
+    int arrayLength() {
+        return this.elements.length;
+    }
+}
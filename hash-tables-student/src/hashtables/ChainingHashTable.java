@@ -1,7 +1,16 @@
 package hashtables;
 
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 /**
  * An implementation of HashTable.
  * 
@@ -11,28 +20,79 @@ import java.util.ArrayList;
  * collision, the element is added to the end of the growable structure. It
  * must search the entire growable structure whenever checking membership
  * or removing elements.
+ *
+ * Each bucket is a Chain, which caches the hashCode() of every element next
+ * to it. A search only calls equals() on elements whose cached hash code
+ * matches, and a resize moves elements by their cached hash codes, so
+ * hashCode() is called once per element, when it is added.
  * 
  * This implementation maintains a capacity equal to 2^n - 1 for some positive
  * integer n. When the load factor exceeds 0.75, the next add() triggers a
  * resize by incrementing n (by one). For example, when n=3, then capacity=7.
  * When size=6, then load factor ~=0.86. The addition of the seventh item would
  * trigger a resize, increasing the capacity of the array to 15.
+ * 
+ * Alternatively, a table can be created with CapacityPolicy.POWER_OF_TWO,
+ * in which case the capacity is 2^n and the index is found by mixing the
+ * hash code and masking off its low bits instead of dividing. The load factor
+ * threshold and resize behaviour are the same under either policy.
+ *
+ * A bucket whose chain grows past TREEIFY_THRESHOLD elements is converted
+ * into a balanced tree (see TreeBucket), ordered by hash code and, where the
+ * keys are Comparable, by key. This bounds the cost of a search to O(log n)
+ * even when a client deliberately picks keys that collide. The bucket turns
+ * back into a chain when removals shrink it to UNTREEIFY_THRESHOLD elements.
+ * With a reasonable hash function, buckets this long almost never occur, so
+ * ordinary tables never build a tree.
+ *
+ * By default the table never shrinks. After setShrinkThreshold(t), a removal
+ * that leaves the load factor below t shrinks the table to the smallest
+ * capacity at which the load factor is at most half the growth threshold,
+ * but never below the capacity the table was created with. The gap between
+ * the two thresholds means that a table hovering around either one does
+ * not resize back and forth. compact() shrinks the table the same way on
+ * demand and also releases the spare room in its buckets.
  */
-public class ChainingHashTable<E> implements HashTable<E> {
-    private ArrayList<E>[] table;
+public class ChainingHashTable<E> implements KeyedHashTable<E> {
+    /**
+     * A bucket holding more elements than this is converted into a tree.
+     */
+    public static final int TREEIFY_THRESHOLD = 8;
+
+    /**
+     * A tree bucket shrinking to this many elements becomes a chain again.
+     */
+    public static final int UNTREEIFY_THRESHOLD = 6;
+
+    // the largest exponent whose capacity is a positive int under either policy
+    private static final int MAX_PRESIZE_N = 30;
+
+    private Chain<E>[] table;
+    // the tree buckets, at the same indexes as table; null until the first is built
+    private TreeBucket<E>[] trees;
     private int size;
     private int capacity;
     private final double loadFactorThreshold = 0.75;
     private int resizeCounter;
     private int n=0;
+    private final CapacityPolicy policy;
+    // the n the table was created with; shrinking never goes below it
+    private final int initialN;
+    // shrink when a removal takes the load factor below this; 0 means never
+    private double shrinkThreshold;
+    // counts structural changes, so iterators can detect concurrent modification
+    private int modCount;
     
     /**
      * Instantiate a new hash table. The initial capacity should be 7.
      */
+    @SuppressWarnings({"rawtypes", "unchecked"})
     public ChainingHashTable() {
+        this.policy = CapacityPolicy.MERSENNE;
         this.n = 3;
-        this.capacity = (int) Math.pow(2, this.n) - 1;
-        this.table = (ArrayList<E>[]) new ArrayList[this.capacity];
+        this.initialN = this.n;
+        this.capacity = this.policy.capacity(this.n);
+        this.table = (Chain<E>[]) new Chain[this.capacity];
     }
 
     /**
@@ -41,18 +101,66 @@ public class ChainingHashTable<E> implements HashTable<E> {
      * than a power of two.
      */
     public ChainingHashTable(int n) {
-        this.capacity = (int) Math.pow(2, this.n) - 1;
+        this(n, CapacityPolicy.MERSENNE);
+    }
+
+    /**
+     * Instantiate a new hash table using the given capacity policy. The
+     * initial capacity should be at least sufficient to hold n elements,
+     * and is the smallest capacity the policy allows for that.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public ChainingHashTable(int n, CapacityPolicy policy) {
+        this.policy = policy;
+        this.capacity = this.policy.capacity(this.n);
         while(this.capacity<n){
             this.n++;
-            this.capacity = (int) Math.pow(2, this.n) - 1;
+            this.capacity = this.policy.capacity(this.n);
         }
+        this.initialN = this.n;
         
-        this.table = (ArrayList<E>[]) new ArrayList[this.capacity];
+        this.table = (Chain<E>[]) new Chain[this.capacity];
         this.size = 0;
         this.resizeCounter = 0;
         
     }
 
+    /**
+     * Assemble a table from buckets built elsewhere (see ParallelBuilder).
+     */
+    ChainingHashTable(CapacityPolicy policy, int n, Chain<E>[] table, TreeBucket<E>[] trees, int size) {
+        this.policy = policy;
+        this.n = n;
+        this.initialN = n;
+        this.capacity = this.policy.capacity(this.n);
+        this.table = table;
+        this.trees = trees;
+        this.size = size;
+    }
+
+    /**
+     * Build a table holding the distinct, non-null elements of the given
+     * list, spreading the work over the threads of pool. The result is the
+     * same as adding the elements one by one to a table presized for all
+     * of them. The list must not change while the table is being built.
+     *
+     * @param elements the elements to add
+     * @param policy   the capacity policy of the new table
+     * @param pool     the pool to run on
+     * @return the new table
+     */
+    public static <E> ChainingHashTable<E> parallelBuild(List<? extends E> elements, CapacityPolicy policy, ForkJoinPool pool) {
+        return new ParallelBuilder<E>(elements, policy, pool).build();
+    }
+
+    /**
+     * Build a table as parallelBuild(elements, policy, pool) does, on the
+     * common fork-join pool.
+     */
+    public static <E> ChainingHashTable<E> parallelBuild(List<? extends E> elements, CapacityPolicy policy) {
+        return parallelBuild(elements, policy, ForkJoinPool.commonPool());
+    }
+
     @Override
     public int capacity() {
         return this.capacity;
@@ -76,75 +184,361 @@ public class ChainingHashTable<E> implements HashTable<E> {
         if(e==null){ 
             return false;
         }
-        if (contains(e)) {
-            return false;
+        int hashCode = e.hashCode();
+        int index = this.policy.index(hashCode, this.capacity);
+        TreeBucket<E> tree = tree(index);
+        if (tree != null) {
+            if (tree.put(e, hashCode, false) != null) {
+                return false;
+            }
+            this.size++;
+            this.modCount++;
+            return true;
         }
-        int index = hash(e);
-        if (this.table[index] == null) {
-            this.table[index] = new ArrayList<>();
+        Chain<E> chain = this.table[index];
+        if (chain == null) {
+            chain = new Chain<>();
+            this.table[index] = chain;
+        } else if (chain.indexOf(e, hashCode) >= 0) {
+            return false;
         }
-        this.table[index].add(e);
-        this.size++;
+        addToChain(index, chain, e, hashCode);
         return true;
-        
-        
+    }
+
+    /**
+     * Add every element of c, growing the table at most once, to the
+     * capacity that all of them need. If c is a HashSet or LinkedHashSet,
+     * whose elements are distinct under equals(), it is added as by
+     * addAllDistinct(). Other sets may not be: an identity set, or a
+     * TreeSet whose comparator disagrees with equals().
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        if (c.getClass() == HashSet.class || c.getClass() == LinkedHashSet.class) {
+            return addAllDistinct(c);
+        }
+        return KeyedHashTable.super.addAll(c);
+    }
+
+    /**
+     * Add every element of c, growing the table at most once. If the table
+     * is empty, the elements are added without first searching their
+     * buckets for a duplicate.
+     */
+    @Override
+    public boolean addAllDistinct(Collection<? extends E> c) {
+        ensureCapacity(this.size + c.size());
+        if (this.size > 0) {
+            return KeyedHashTable.super.addAll(c);
+        }
+        for (E e : c) {
+            if (e == null) {
+                continue;
+            }
+            int hashCode = e.hashCode();
+            int index = this.policy.index(hashCode, this.capacity);
+            TreeBucket<E> tree = tree(index);
+            if (tree != null) {
+                tree.put(e, hashCode, false);
+                this.size++;
+                this.modCount++;
+                continue;
+            }
+            Chain<E> chain = this.table[index];
+            if (chain == null) {
+                chain = new Chain<>();
+                this.table[index] = chain;
+            }
+            addToChain(index, chain, e, hashCode);
+        }
+        return this.size > 0;
+    }
+
+    /**
+     * Grow the table, with a single resize, to the smallest capacity the
+     * policy allows that holds n elements within the load factor threshold.
+     * Does nothing if the table is already that large. Presizing stops at
+     * an exponent of 30; any growth beyond that is left to the inserts.
+     */
+    @Override
+    public void ensureCapacity(int n) {
+        int target = this.n;
+        while (target < MAX_PRESIZE_N
+                && (long) (this.policy.capacity(target) * loadFactorThreshold) < (long) n) {
+            target++;
+        }
+        if (target > this.n) {
+            rehash(target);
+        }
+    }
+
+    @Override
+    public E put(E e) {
+        if(loadFactor()>loadFactorThreshold){
+            resize();
+        }
+        int hashCode = e.hashCode();
+        int index = this.policy.index(hashCode, this.capacity);
+        TreeBucket<E> tree = tree(index);
+        if (tree != null) {
+            E old = tree.put(e, hashCode, true);
+            if (old == null) {
+                this.size++;
+                this.modCount++;
+            }
+            return old;
+        }
+        Chain<E> chain = this.table[index];
+        if (chain == null) {
+            chain = new Chain<>();
+            this.table[index] = chain;
+        }
+        int i = chain.indexOf(e, hashCode);
+        if (i >= 0) {
+            return chain.set(i, e);
+        }
+        addToChain(index, chain, e, hashCode);
+        return null;
     }
     
 
+    /**
+     * Find, remap and store or remove the element matching k in a single
+     * search of its bucket (two, if the bucket is a tree).
+     */
+    @Override
+    public <K> E compute(K k, int hashCode, BiPredicate<? super E, ? super K> matcher,
+            Function<? super E, ? extends E> remapping) {
+        if(loadFactor()>loadFactorThreshold){
+            resize();
+        }
+        int index = this.policy.index(hashCode, this.capacity);
+        if (tree(index) != null) {
+            return KeyedHashTable.super.compute(k, hashCode, matcher, remapping);
+        }
+        Chain<E> chain = this.table[index];
+        int i = chain == null ? -1 : chain.indexOfKey(k, hashCode, matcher);
+        E old = i < 0 ? null : chain.get(i);
+        E e = remapping.apply(old);
+        if (e == old) {
+            return e;
+        }
+        if (e == null) {
+            chain.remove(i);
+            this.size--;
+            this.modCount++;
+            removedFromChain(index, chain);
+        } else if (old != null) {
+            chain.set(i, e);
+        } else {
+            if (chain == null) {
+                chain = new Chain<>();
+                this.table[index] = chain;
+            }
+            addToChain(index, chain, e, hashCode);
+        }
+        return e;
+    }
+
     @Override
     public boolean remove(E e) {
-        if(!this.contains(e)){
+        int hashCode = e.hashCode();
+        int index = this.policy.index(hashCode, this.capacity);
+        TreeBucket<E> tree = tree(index);
+        if (tree != null) {
+            if (tree.remove(e, hashCode) == null) {
+                return false;
+            }
+            removedFromTree(index, tree);
+            shrinkIfSparse();
+            return true;
+        }
+        Chain<E> chain = this.table[index];
+        if (chain == null) {
             return false;
         }
-        int index = hash(e);
-        ArrayList<E> list = this.table[index];
-        if (list == null) {
+        int i = chain.indexOf(e, hashCode);
+        if (i < 0) {
             return false;
         }
+        chain.remove(i);
+        this.size--;
+        this.modCount++;
+        removedFromChain(index, chain);
+        return true;
+    }
 
-        boolean removed = list.remove(e);
-        if (removed) {
-            this.size--;
+    @Override
+    public <K> E removeKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        int index = this.policy.index(hashCode, this.capacity);
+        TreeBucket<E> tree = tree(index);
+        if (tree != null) {
+            E removed = tree.removeKey(k, hashCode, matcher);
+            if (removed != null) {
+                removedFromTree(index, tree);
+                shrinkIfSparse();
+            }
+            return removed;
         }
-    
+        Chain<E> chain = this.table[index];
+        if (chain == null) {
+            return null;
+        }
+        int i = chain.indexOfKey(k, hashCode, matcher);
+        if (i < 0) {
+            return null;
+        }
+        E removed = chain.remove(i);
+        this.size--;
+        this.modCount++;
+        removedFromChain(index, chain);
         return removed;
     }
 
     @Override
     public boolean contains(E e) {
-        int index = hash(e);
-        ArrayList<E> list = this.table[index];
-        if (list == null) {
-            return false;
-        }
-        return list.contains(e);
-
+        return get(e) != null;
     }
 
     @Override
     public E get(E e) {
-        int index = hash(e);
-        ArrayList<E> list = this.table[index];
-        if (list == null) {
+        int hashCode = e.hashCode();
+        int index = this.policy.index(hashCode, this.capacity);
+        TreeBucket<E> tree = tree(index);
+        if (tree != null) {
+            return tree.get(e, hashCode);
+        }
+        Chain<E> chain = this.table[index];
+        if (chain == null) {
             return null;
         }
-        for (E element : list) {
-            if (element.equals(e)) {
-                return element;
-            }
+        int i = chain.indexOf(e, hashCode);
+        return i < 0 ? null : chain.get(i);
+    }
+
+    @Override
+    public <K> E findKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        int index = this.policy.index(hashCode, this.capacity);
+        TreeBucket<E> tree = tree(index);
+        if (tree != null) {
+            return tree.findKey(k, hashCode, matcher);
         }
-        return null;
+        Chain<E> chain = this.table[index];
+        if (chain == null) {
+            return null;
+        }
+        int i = chain.indexOfKey(k, hashCode, matcher);
+        return i < 0 ? null : chain.get(i);
     }
 
+    /**
+     * Return an iterator that walks the buckets in place, without copying
+     * the elements. The iterator supports remove(), and is fail-fast: if the
+     * table is structurally modified other than through the iterator's own
+     * remove(), the next call to the iterator throws a
+     * ConcurrentModificationException.
+     */
     @Override
     public Iterator<E> iterator() {  
-        ArrayList<E> list = new ArrayList<>();
-        for (ArrayList<E> chain : this.table) {
-            if (chain != null) {
-                list.addAll(chain);
+        return new ChainIterator();
+    }
+
+    /**
+     * Walks the buckets in index order and each bucket's chain front to back.
+     * A tree bucket is walked through a copy of its elements, made when the
+     * iterator reaches it.
+     */
+    private class ChainIterator implements Iterator<E> {
+        private int bucket = -1;
+        private Chain<E> current;
+        // the tree that current is a copy of, or null if current is a bucket
+        private TreeBucket<E> currentTree;
+        private int position;
+        // the chain and index of the element last returned by next(), for remove()
+        private Chain<E> lastChain;
+        private int lastIndex;
+        private TreeBucket<E> lastTree;
+        private int lastBucket;
+        private int expectedModCount = modCount;
+
+        ChainIterator() {
+            advance();
+        }
+
+        /**
+         * Moves on to the next non-empty bucket if the current one is used up.
+         */
+        private void advance() {
+            while (this.current == null || this.position >= this.current.size()) {
+                this.bucket++;
+                if (this.bucket >= table.length) {
+                    this.current = null;
+                    return;
+                }
+                this.currentTree = tree(this.bucket);
+                this.current = this.currentTree == null
+                        ? table[this.bucket]
+                        : this.currentTree.toChain();
+                this.position = 0;
             }
         }
-        return list.iterator();
+
+        @Override
+        public boolean hasNext() {
+            return this.current != null;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (this.current == null) {
+                throw new NoSuchElementException();
+            }
+            this.lastChain = this.current;
+            this.lastIndex = this.position;
+            this.lastTree = this.currentTree;
+            this.lastBucket = this.bucket;
+            E e = this.current.get(this.position++);
+            advance();
+            return e;
+        }
+
+        @Override
+        public void remove() {
+            if (this.lastChain == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != this.expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (this.lastTree != null) {
+                // the copy stays as it is; only the bucket loses the element
+                E e = this.lastChain.get(this.lastIndex);
+                int hashCode = this.lastChain.hash(this.lastIndex);
+                if (tree(this.lastBucket) == this.lastTree) {
+                    this.lastTree.remove(e, hashCode);
+                    removedFromTree(this.lastBucket, this.lastTree);
+                } else {
+                    // an earlier remove() turned the tree back into a chain
+                    Chain<E> chain = table[this.lastBucket];
+                    chain.remove(chain.indexOf(e, hashCode));
+                    size--;
+                    modCount++;
+                }
+            } else {
+                this.lastChain.remove(this.lastIndex);
+                if (this.lastChain == this.current) {
+                    this.position--;
+                }
+                size--;
+                modCount++;
+            }
+            this.lastChain = null;
+            this.expectedModCount = modCount;
+        }
     }
     
     
@@ -152,42 +546,238 @@ public class ChainingHashTable<E> implements HashTable<E> {
 
 
     /**
-     * Resize the hash table to double its current capacity, plus one.
+     * Resize the hash table to double its current capacity, plus one
+     * (or exactly double, under CapacityPolicy.POWER_OF_TWO). Elements are
+     * moved by their cached hash codes.
      */
     public void resize() {
-        this.n++;
-        this.capacity = (int) Math.pow(2, this.n) - 1;
-        ArrayList<E>[] newTable = (ArrayList<E>[]) new ArrayList[this.capacity];
-        for (E element : this) {
-            int index = hash(element);
-            if (newTable[index] == null) {
-                newTable[index] = new ArrayList<>();
+        rehash(this.n + 1);
+    }
+
+    /**
+     * Shrink the table whenever a removal takes its load factor below the
+     * given value. The default, 0, never shrinks. The value must be less than
+     * half the growth threshold of 0.75, so that a table that has just shrunk
+     * or grown is not immediately resized the other way.
+     *
+     * @param loadFactor the low-water mark, at least 0 and below 0.375
+     * @throws IllegalArgumentException if loadFactor is out of range
+     */
+    public void setShrinkThreshold(double loadFactor) {
+        if (!(loadFactor >= 0 && loadFactor < loadFactorThreshold / 2)) {
+            throw new IllegalArgumentException("shrink threshold must be in [0, "
+                    + loadFactorThreshold / 2 + "): " + loadFactor);
+        }
+        this.shrinkThreshold = loadFactor;
+        shrinkIfSparse();
+    }
+
+    /**
+     * @return the load factor below which removals shrink the table, or 0
+     */
+    public double shrinkThreshold() {
+        return this.shrinkThreshold;
+    }
+
+    /**
+     * Shrink the table to the smallest capacity, no smaller than the one it
+     * was created with, that holds its elements at no more than half the
+     * growth threshold, drop the buckets that are empty and trim the rest
+     * to their sizes. Unlike automatic shrinking, this happens whatever
+     * the shrink threshold is.
+     */
+    public void compact() {
+        int target = compactN(this.size);
+        if (target < this.n) {
+            rehash(target);
+        }
+        for (int i = 0; i < this.table.length; i++) {
+            Chain<E> chain = this.table[i];
+            if (chain == null) {
+                continue;
             }
-            newTable[index].add(element);
+            if (chain.size() == 0) {
+                this.table[i] = null;
+            } else {
+                chain.trimToSize();
+            }
+        }
+        this.modCount++;
+    }
+
+    /**
+     * Returns the smallest n, no smaller than initialN, whose capacity holds
+     * count elements at no more than half the growth threshold.
+     */
+    private int compactN(int count) {
+        int target = this.initialN;
+        while (this.policy.capacity(target) * (loadFactorThreshold / 2) < count) {
+            target++;
         }
+        return target;
+    }
+
+    private void shrinkIfSparse() {
+        if (this.size < this.shrinkThreshold * this.capacity) {
+            int target = compactN(this.size);
+            if (target < this.n) {
+                rehash(target);
+            }
+        }
+    }
+
+    /**
+     * Moves every element into a new array of capacity policy.capacity(n).
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void rehash(int n) {
+        this.n = n;
+        this.capacity = this.policy.capacity(this.n);
+        Chain<E>[] newTable = (Chain<E>[]) new Chain[this.capacity];
+        for (int i = 0; i < this.table.length; i++) {
+            TreeBucket<E> tree = tree(i);
+            Chain<E> chain = tree == null ? this.table[i] : tree.toChain();
+            if (chain == null) {
+                continue;
+            }
+            for (int j = 0; j < chain.size(); j++) {
+                int hashCode = chain.hash(j);
+                int index = this.policy.index(hashCode, this.capacity);
+                if (newTable[index] == null) {
+                    newTable[index] = new Chain<>();
+                }
+                newTable[index].add(chain.get(j), hashCode);
+            }
+        }
+        boolean hadTrees = this.trees != null;
         this.table = newTable;
+        this.trees = null;
+        if (hadTrees) {
+            // keys that collided in full still collide
+            for (int i = 0; i < newTable.length; i++) {
+                if (newTable[i] != null && newTable[i].size() > TREEIFY_THRESHOLD) {
+                    treeify(i);
+                }
+            }
+        }
+        this.modCount++;
         this.resizeCounter++;
     }
     
         
 
+    /**
+     * @return the number of times the table has been resized
+     */
+    int resizeCount() {
+        return this.resizeCounter;
+    }
+
+    /**
+     * @return the number of buckets currently held as trees
+     */
+    int treeBuckets() {
+        int count = 0;
+        if (this.trees != null) {
+            for (TreeBucket<E> tree : this.trees) {
+                if (tree != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the tree bucket at index, or null if that bucket is a chain
+     */
+    TreeBucket<E> tree(int index) {
+        return this.trees == null ? null : this.trees[index];
+    }
+
+    private void addToChain(int index, Chain<E> chain, E e, int hashCode) {
+        chain.add(e, hashCode);
+        this.size++;
+        this.modCount++;
+        if (chain.size() > TREEIFY_THRESHOLD) {
+            treeify(index);
+        }
+    }
+
+    /**
+     * Replaces the chain at index with a tree holding the same elements.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void treeify(int index) {
+        if (this.trees == null) {
+            this.trees = (TreeBucket<E>[]) new TreeBucket[this.capacity];
+        }
+        this.trees[index] = new TreeBucket<>(this.table[index]);
+        this.table[index] = null;
+    }
+
+    /**
+     * Drops the chain at index once its last element is gone, then shrinks
+     * the table if that is due.
+     */
+    private void removedFromChain(int index, Chain<E> chain) {
+        if (chain.size() == 0) {
+            this.table[index] = null;
+        }
+        shrinkIfSparse();
+    }
+
+    /**
+     * Does the bookkeeping after an element is removed from the tree at
+     * index, turning the tree back into a chain if it has become small.
+     */
+    private void removedFromTree(int index, TreeBucket<E> tree) {
+        this.size--;
+        this.modCount++;
+        if (tree.size() <= UNTREEIFY_THRESHOLD) {
+            this.table[index] = tree.toChain();
+            this.trees[index] = null;
+        }
+    }
+
     /**
      * Returns the index for the given element.
      * The hash code is calculated as the result of the element's
-     * hashCode() method, modulo the capacity of the hash table.
+     * hashCode() method, modulo the capacity of the hash table
+     * (or mixed and masked, under CapacityPolicy.POWER_OF_TWO).
      *
      * @param e the element to hash
      * @return the index for the element
      */
 
     public int hash(E e){
-        int hashCode = Math.abs(e.hashCode());
-        int index = hashCode % this.capacity;
-        return index;
+        return this.policy.index(e.hashCode(), this.capacity);
+    }
+
+    /**
+     * @return the capacity policy of this hash table
+     */
+    public CapacityPolicy policy() {
+        return this.policy;
     }
 
+    /**
+     * @return a copy of the buckets, each as a list, or null if empty
+     */
     public ArrayList[] getTable(){
-        return this.table;
+        ArrayList[] lists = new ArrayList[this.capacity];
+        for (int i = 0; i < this.capacity; i++) {
+            TreeBucket<E> tree = tree(i);
+            Chain<E> chain = tree == null ? this.table[i] : tree.toChain();
+            if (chain != null) {
+                ArrayList<E> list = new ArrayList<>(chain.size());
+                for (int j = 0; j < chain.size(); j++) {
+                    list.add(chain.get(j));
+                }
+                lists[i] = list;
+            }
+        }
+        return lists;
     }
 
 
@@ -0,0 +1,308 @@
+package hashtables;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiPredicate;
+
+/**
+ * A thread-safe implementation of HashTable.
+ *
+ * This implementation uses chaining, like ChainingHashTable, but is built for
+ * many threads at once:
+ *
+ * - Reads (get, contains, findKey) take no locks. Each chain is an immutable
+ *   linked list of nodes; a write never changes a node that a reader might be
+ *   looking at, it publishes a new head for the bucket instead (prepending
+ *   on insert, copying the prefix before the affected node on replace or
+ *   remove). A reader therefore always sees a consistent chain.
+ *
+ * - Writes lock one of a fixed number of stripes, each covering a contiguous
+ *   range of buckets, so writers to different parts of the table proceed in
+ *   parallel.
+ *
+ * - A resize takes every stripe lock, which pauses writers, and builds the
+ *   new bucket array off to the side. Readers keep using the old array, which
+ *   is not modified, until the new one is published with a single volatile
+ *   write.
+ *
+ * Wrapping one in a SimpleHashMap gives a map whose put, get, getOrDefault and
+ * remove are each atomic, since they map onto a single put, findKey or
+ * removeKey of this table.
+ *
+ * The capacity is a power of two; the table grows as soon as an insertion
+ * takes the load factor above 0.75. size() is exact when the table is
+ * quiescent and may lag concurrent writes otherwise. Iterators are weakly
+ * consistent: they never throw ConcurrentModificationException and reflect
+ * the table as it was at some point during the iteration.
+ */
+public class ConcurrentChainingHashTable<E> implements KeyedHashTable<E> {
+    /**
+     * The number of lock stripes used by a table created without an
+     * explicit concurrency level.
+     */
+    public static final int DEFAULT_CONCURRENCY_LEVEL = 64;
+
+    private volatile AtomicReferenceArray<Node<E>> table;
+    private final ReentrantLock[] locks;
+    private final LongAdder size = new LongAdder();
+    private final double loadFactorThreshold = 0.75;
+
+    private static final class Node<E> {
+        final int hash;
+        final E element;
+        final Node<E> next;
+
+        Node(int hash, E element, Node<E> next) {
+            this.hash = hash;
+            this.element = element;
+            this.next = next;
+        }
+    }
+
+    /**
+     * Instantiate a new hash table. The initial capacity should be 16.
+     */
+    public ConcurrentChainingHashTable() {
+        this(16, DEFAULT_CONCURRENCY_LEVEL);
+    }
+
+    /**
+     * Instantiate a new hash table. The initial capacity should be at least
+     * sufficient to hold n elements, and must be a power of two. Writes are
+     * spread over concurrencyLevel lock stripes.
+     */
+    public ConcurrentChainingHashTable(int n, int concurrencyLevel) {
+        if (concurrencyLevel < 1) {
+            throw new IllegalArgumentException("concurrencyLevel must be positive: " + concurrencyLevel);
+        }
+        int capacity = 1;
+        while (capacity < n) {
+            capacity <<= 1;
+        }
+        this.table = new AtomicReferenceArray<>(capacity);
+        this.locks = new ReentrantLock[concurrencyLevel];
+        for (int i = 0; i < concurrencyLevel; i++) {
+            this.locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public int capacity() {
+        return this.table.length();
+    }
+
+    @Override
+    public int size() {
+        return (int) this.size.sum();
+    }
+
+    @Override
+    public double loadFactor() {
+        return (double) size() / capacity();
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            return false;
+        }
+        return insert(e, false) == null;
+    }
+
+    @Override
+    public E put(E e) {
+        return insert(e, true);
+    }
+
+    @Override
+    public boolean remove(E e) {
+        if (e == null) {
+            return false;
+        }
+        return removeKey(e, e.hashCode(), Object::equals) != null;
+    }
+
+    @Override
+    public <K> E removeKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        int hash = Hashing.mix(hashCode);
+        while (true) {
+            AtomicReferenceArray<Node<E>> tab = this.table;
+            int index = hash & (tab.length() - 1);
+            ReentrantLock lock = lockFor(index, tab.length());
+            lock.lock();
+            try {
+                if (tab != this.table) {
+                    // a resize got in first; retry against the new array
+                    continue;
+                }
+                Node<E> head = tab.get(index);
+                for (Node<E> node = head; node != null; node = node.next) {
+                    if (node.hash == hash && matcher.test(node.element, k)) {
+                        tab.set(index, without(head, node));
+                        this.size.decrement();
+                        return node.element;
+                    }
+                }
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return get(e) != null;
+    }
+
+    @Override
+    public E get(E e) {
+        if (e == null) {
+            return null;
+        }
+        return findKey(e, e.hashCode(), Object::equals);
+    }
+
+    @Override
+    public <K> E findKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        int hash = Hashing.mix(hashCode);
+        AtomicReferenceArray<Node<E>> tab = this.table;
+        for (Node<E> node = tab.get(hash & (tab.length() - 1)); node != null; node = node.next) {
+            if (node.hash == hash && matcher.test(node.element, k)) {
+                return node.element;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        AtomicReferenceArray<Node<E>> tab = this.table;
+        return new Iterator<E>() {
+            private int bucket = -1;
+            private Node<E> next = advance(null);
+            private E last;
+
+            private Node<E> advance(Node<E> node) {
+                while (node == null && ++this.bucket < tab.length()) {
+                    node = tab.get(this.bucket);
+                }
+                return node;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.next != null;
+            }
+
+            @Override
+            public E next() {
+                if (this.next == null) {
+                    throw new NoSuchElementException();
+                }
+                this.last = this.next.element;
+                this.next = advance(this.next.next);
+                return this.last;
+            }
+
+            @Override
+            public void remove() {
+                if (this.last == null) {
+                    throw new IllegalStateException();
+                }
+                ConcurrentChainingHashTable.this.remove(this.last);
+                this.last = null;
+            }
+        };
+    }
+
+    /**
+     * Resize the hash table to double its current capacity. Writers wait for
+     * the resize to finish; readers do not.
+     */
+    public void resize() {
+        resize(this.table);
+    }
+
+    private E insert(E e, boolean replace) {
+        int hash = Hashing.mix(e.hashCode());
+        while (true) {
+            AtomicReferenceArray<Node<E>> tab = this.table;
+            int index = hash & (tab.length() - 1);
+            ReentrantLock lock = lockFor(index, tab.length());
+            lock.lock();
+            try {
+                if (tab != this.table) {
+                    continue;
+                }
+                Node<E> head = tab.get(index);
+                for (Node<E> node = head; node != null; node = node.next) {
+                    if (node.hash == hash && node.element.equals(e)) {
+                        if (replace) {
+                            tab.set(index, new Node<>(hash, e, without(head, node)));
+                        }
+                        return node.element;
+                    }
+                }
+                tab.set(index, new Node<>(hash, e, head));
+                this.size.increment();
+            } finally {
+                lock.unlock();
+            }
+            if (size() > loadFactorThreshold * tab.length()) {
+                resize(tab);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Doubles the table, unless another thread already replaced expected.
+     */
+    private void resize(AtomicReferenceArray<Node<E>> expected) {
+        for (ReentrantLock lock : this.locks) {
+            lock.lock();
+        }
+        try {
+            AtomicReferenceArray<Node<E>> tab = this.table;
+            if (tab != expected) {
+                return;
+            }
+            int capacity = tab.length() << 1;
+            AtomicReferenceArray<Node<E>> newTab = new AtomicReferenceArray<>(capacity);
+            for (int i = 0; i < tab.length(); i++) {
+                for (Node<E> node = tab.get(i); node != null; node = node.next) {
+                    int index = node.hash & (capacity - 1);
+                    newTab.set(index, new Node<>(node.hash, node.element, newTab.get(index)));
+                }
+            }
+            this.table = newTab;
+        } finally {
+            for (int i = this.locks.length - 1; i >= 0; i--) {
+                this.locks[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Returns the stripe lock guarding the given bucket: stripes cover
+     * contiguous, equally sized ranges of buckets.
+     */
+    private ReentrantLock lockFor(int index, int capacity) {
+        return this.locks[(int) ((long) index * this.locks.length / capacity)];
+    }
+
+    /**
+     * Returns a chain equal to the one starting at head but without target,
+     * copying the nodes in front of target and sharing the ones after it.
+     */
+    private static <E> Node<E> without(Node<E> head, Node<E> target) {
+        if (head == target) {
+            return target.next;
+        }
+        return new Node<>(head.hash, head.element, without(head.next, target));
+    }
+}
@@ -0,0 +1,133 @@
+package hashtables;
+
+import java.util.Arrays;
+
+/**
+ * An approximate frequency counter for arbitrary elements, using a fixed
+ * amount of memory.
+ *
+ * This is a count-min sketch with four rows of 4-bit counters, packed
+ * sixteen to a long. increment() adds one to the element's counter in every
+ * row, and frequency() returns the smallest of the four: hash collisions can
+ * only inflate a counter, so the minimum is the best estimate, and it never
+ * underestimates (until the counters saturate at 15).
+ *
+ * The sketch ages its counts so that it tracks recent popularity rather than
+ * all-time popularity. After a sample of 10 * width increments, every counter
+ * is halved. This is the frequency filter used by TinyLFU caches.
+ */
+public class CountMinSketch {
+    private static final int DEPTH = 4;
+    private static final long MAX_COUNT = 15;
+    private static final long HALVE_MASK = 0x7777777777777777L;
+
+    // row r occupies table[r * rowLength .. (r + 1) * rowLength)
+    private final long[] table;
+    private final int rowLength;
+    private final int widthMask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Instantiate a new sketch suited to tracking about n distinct elements:
+     * each row has at least n counters, rounded up to a power of two.
+     *
+     * @param n the expected number of distinct elements
+     */
+    public CountMinSketch(int n) {
+        int width = 16;
+        while (width < n && width < (1 << 30)) {
+            width <<= 1;
+        }
+        this.widthMask = width - 1;
+        this.rowLength = width / 16;
+        this.table = new long[DEPTH * this.rowLength];
+        this.sampleSize = (int) Math.min(Integer.MAX_VALUE, 10L * width);
+    }
+
+    /**
+     * @return the number of counters in each row
+     */
+    public int width() {
+        return this.widthMask + 1;
+    }
+
+    /**
+     * Return the estimated number of times e was incremented recently,
+     * between 0 and 15.
+     *
+     * @param e the (non-null) element
+     * @return the estimated frequency of e
+     */
+    public int frequency(Object e) {
+        int hash = Hashing.mix(e.hashCode());
+        int step = rehash(hash);
+        long min = MAX_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            int counter = (hash + row * step) & this.widthMask;
+            min = Math.min(min, get(row, counter));
+        }
+        return (int) min;
+    }
+
+    /**
+     * Count one occurrence of e, halving every counter if the sample is full.
+     *
+     * @param e the (non-null) element
+     */
+    public void increment(Object e) {
+        int hash = Hashing.mix(e.hashCode());
+        int step = rehash(hash);
+        boolean added = false;
+        for (int row = 0; row < DEPTH; row++) {
+            int counter = (hash + row * step) & this.widthMask;
+            added |= incrementAt(row, counter);
+        }
+        if (added && ++this.additions >= this.sampleSize) {
+            age();
+        }
+    }
+
+    /**
+     * Set every counter to zero.
+     */
+    public void clear() {
+        Arrays.fill(this.table, 0);
+        this.additions = 0;
+    }
+
+    /**
+     * Halve every counter, so that old occurrences count for less than
+     * recent ones.
+     */
+    private void age() {
+        for (int i = 0; i < this.table.length; i++) {
+            this.table[i] = (this.table[i] >>> 1) & HALVE_MASK;
+        }
+        this.additions >>>= 1;
+    }
+
+    private long get(int row, int counter) {
+        long word = this.table[row * this.rowLength + (counter >>> 4)];
+        return (word >>> ((counter & 15) << 2)) & MAX_COUNT;
+    }
+
+    private boolean incrementAt(int row, int counter) {
+        int i = row * this.rowLength + (counter >>> 4);
+        int shift = (counter & 15) << 2;
+        if (((this.table[i] >>> shift) & MAX_COUNT) == MAX_COUNT) {
+            return false;
+        }
+        this.table[i] += 1L << shift;
+        return true;
+    }
+
+    /**
+     * Derive the odd step between the counters of successive rows from the
+     * element's hash, so that two elements that share one counter are
+     * unlikely to share the others.
+     */
+    private static int rehash(int hash) {
+        return Hashing.mix(hash ^ 0x9E3779B9) | 1;
+    }
+}
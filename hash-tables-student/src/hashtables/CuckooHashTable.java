@@ -0,0 +1,435 @@
+package hashtables;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiPredicate;
+
+/**
+ * An implementation of HashTable using bucketized cuckoo hashing.
+ *
+ * The table is an array of buckets of four slots each, and every element has
+ * two candidate buckets, chosen by two independent mixes of its hash code. An
+ * element is always stored in one of its two buckets (or, rarely, in a small
+ * stash; see below), so a lookup examines at most eight slots plus the
+ * stash, which holds no more than STASH_LIMIT elements unless the keys
+ * themselves collide (see below). The hash codes of the elements, including
+ * those in the stash, are kept in int arrays of their own, so a lookup
+ * compares hash codes first and only reads an element, and calls equals() on
+ * it, when its hash code matches.
+ *
+ * An insertion that finds both of its buckets full evicts a random element
+ * from one of them and moves it to its other bucket, which may in turn evict
+ * another element, and so on. With four-slot buckets such a path is almost
+ * always short, and the table can be filled to a load factor of 0.9 before it
+ * doubles. If a path exceeds MAX_KICKS steps, the element left homeless goes
+ * into the stash, a short array that every lookup also checks. When the
+ * stash already holds STASH_LIMIT elements, an element that cannot be
+ * placed doubles the table if the table is at least a quarter full.
+ * Otherwise the eviction path is undone and the element joins the stash
+ * anyway, which then grows as an overflow list: the keys, not the load, are
+ * to blame, and doubling a sparse table would not help them.
+ *
+ * In particular, keys that share a full hash code cannot be separated by any
+ * number of doublings: eight of them fill their two buckets and the rest
+ * overflow into the stash, which every lookup then scans. The bound of eight
+ * slots plus STASH_LIMIT per lookup only holds for keys that are not chosen
+ * (or unlucky enough) to collide like this.
+ *
+ * The capacity (the number of slots) is a power of two. An iterator's
+ * remove() leaves the stash as it is, rather than moving stashed elements
+ * into the freed slot, behind the iterator.
+ */
+public class CuckooHashTable<E> implements KeyedHashTable<E> {
+    /**
+     * The number of slots in a bucket.
+     */
+    public static final int BUCKET_SIZE = 4;
+
+    /**
+     * The longest eviction path an insertion follows before it gives up and
+     * uses the stash.
+     */
+    public static final int MAX_KICKS = 256;
+
+    /**
+     * The number of elements the stash holds before an element that cannot
+     * be placed makes the table double, if it is at least a quarter full.
+     */
+    public static final int STASH_LIMIT = 8;
+
+    private static final int SECOND_SEED = 0x9E3779B9;
+
+    private Object[] table;
+    private int[] hashes;
+    private Object[] stash = new Object[STASH_LIMIT];
+    private int[] stashHashes = new int[STASH_LIMIT];
+    private int stashSize;
+    // the slots evicted from by the current insertion, to undo a failed one
+    private final int[] path = new int[MAX_KICKS];
+    private int size;
+    private int capacity;
+    private final double loadFactorThreshold = 0.9;
+    private int resizeCounter;
+    private int n = 0;
+    // xorshift state for choosing which element to evict
+    private int random = 0x2545F491;
+
+    /**
+     * Instantiate a new hash table. The initial capacity should be 16.
+     */
+    public CuckooHashTable() {
+        this(16);
+    }
+
+    /**
+     * Instantiate a new hash table. The initial capacity should be at least
+     * sufficient to hold n elements, and must be a power of two of at least
+     * two buckets.
+     */
+    public CuckooHashTable(int n) {
+        this.n = 3;
+        this.capacity = 1 << this.n;
+        while (this.capacity < n) {
+            this.n++;
+            this.capacity = 1 << this.n;
+        }
+        this.table = new Object[this.capacity];
+        this.hashes = new int[this.capacity];
+    }
+
+    @Override
+    public int capacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public double loadFactor() {
+        return (double) this.size / this.capacity;
+    }
+
+    /**
+     * @return the number of elements currently in the stash
+     */
+    public int stashSize() {
+        return this.stashSize;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            return false;
+        }
+        return put(e) == null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E put(E e) {
+        int hashCode = e.hashCode();
+        int i = indexOfKey(e, hashCode, Object::equals);
+        if (i >= 0) {
+            E old = (E) this.table[i];
+            this.table[i] = e;
+            return old;
+        }
+        if (i != -1) {
+            E old = (E) this.stash[-i - 2];
+            this.stash[-i - 2] = e;
+            return old;
+        }
+        if (this.size + 1 > this.loadFactorThreshold * this.capacity) {
+            resize();
+        }
+        while (!insert(e, hashCode)) {
+            if (this.stashSize < STASH_LIMIT || this.size < this.capacity / 4) {
+                stash(e, hashCode);
+                break;
+            }
+            resize();
+        }
+        this.size++;
+        return null;
+    }
+
+    @Override
+    public boolean remove(E e) {
+        if (e == null) {
+            return false;
+        }
+        return removeKey(e, e.hashCode(), Object::equals) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K> E removeKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        int i = indexOfKey(k, hashCode, matcher);
+        if (i == -1) {
+            return null;
+        }
+        this.size--;
+        if (i < -1) {
+            return (E) unstashAt(-i - 2);
+        }
+        E old = (E) this.table[i];
+        this.table[i] = null;
+        if (this.stashSize > 0) {
+            unstash();
+        }
+        return old;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return get(e) != null;
+    }
+
+    @Override
+    public E get(E e) {
+        if (e == null) {
+            return null;
+        }
+        return findKey(e, e.hashCode(), Object::equals);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K> E findKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        int i = indexOfKey(k, hashCode, matcher);
+        if (i >= 0) {
+            return (E) this.table[i];
+        }
+        return i == -1 ? null : (E) this.stash[-i - 2];
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            // slots, then stash indexes offset by table.length
+            private int next = advance(0);
+            private int last = -1;
+
+            private int advance(int i) {
+                while (i < table.length && table[i] == null) {
+                    i++;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.next < table.length + stashSize;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                this.last = this.next;
+                if (this.next >= table.length) {
+                    return (E) stash[this.next++ - table.length];
+                }
+                this.next = advance(this.next + 1);
+                return (E) table[this.last];
+            }
+
+            @Override
+            public void remove() {
+                if (this.last < 0) {
+                    throw new IllegalStateException();
+                }
+                if (this.last >= table.length) {
+                    // the last stashed element moves into the removed one's place
+                    unstashAt(this.last - table.length);
+                    this.next = this.last;
+                } else {
+                    table[this.last] = null;
+                }
+                size--;
+                this.last = -1;
+            }
+        };
+    }
+
+    /**
+     * Resize the hash table to double its current capacity, reinserting
+     * every element (including those in the stash).
+     */
+    @SuppressWarnings("unchecked")
+    public void resize() {
+        Object[] oldTable = this.table;
+        int[] oldHashes = this.hashes;
+        Object[] oldStash = this.stash;
+        int[] oldStashHashes = this.stashHashes;
+        int oldStashSize = this.stashSize;
+        this.stash = new Object[STASH_LIMIT];
+        this.stashHashes = new int[STASH_LIMIT];
+        this.stashSize = 0;
+        this.n++;
+        this.capacity = 1 << this.n;
+        this.table = new Object[this.capacity];
+        this.hashes = new int[this.capacity];
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldTable[i] != null && !insert((E) oldTable[i], oldHashes[i])) {
+                stash(oldTable[i], oldHashes[i]);
+            }
+        }
+        for (int j = 0; j < oldStashSize; j++) {
+            if (!insert((E) oldStash[j], oldStashHashes[j])) {
+                stash(oldStash[j], oldStashHashes[j]);
+            }
+        }
+        this.resizeCounter++;
+    }
+
+    /**
+     * Returns the first slot of the first bucket for the given hash code.
+     */
+    private int bucket1(int hashCode) {
+        return Hashing.mix(hashCode) & (this.capacity - BUCKET_SIZE);
+    }
+
+    /**
+     * Returns the first slot of the second bucket for the given hash code.
+     */
+    private int bucket2(int hashCode) {
+        return Hashing.mix(hashCode ^ SECOND_SEED) & (this.capacity - BUCKET_SIZE);
+    }
+
+    /**
+     * Returns the slot holding an element matching k; or, for an element in
+     * the stash at index j, -j - 2; or -1 if there is no such element.
+     */
+    @SuppressWarnings("unchecked")
+    private <K> int indexOfKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        int b1 = bucket1(hashCode);
+        for (int i = b1; i < b1 + BUCKET_SIZE; i++) {
+            if (this.hashes[i] == hashCode && this.table[i] != null && matcher.test((E) this.table[i], k)) {
+                return i;
+            }
+        }
+        int b2 = bucket2(hashCode);
+        for (int i = b2; i < b2 + BUCKET_SIZE; i++) {
+            if (this.hashes[i] == hashCode && this.table[i] != null && matcher.test((E) this.table[i], k)) {
+                return i;
+            }
+        }
+        for (int j = 0; j < this.stashSize; j++) {
+            if (this.stashHashes[j] == hashCode && matcher.test((E) this.stash[j], k)) {
+                return -j - 2;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Places an element that is not in the table into one of its buckets,
+     * evicting other elements to their alternate buckets if necessary.
+     * Returns false, leaving the table as it was, if that takes more than
+     * MAX_KICKS evictions.
+     */
+    private boolean insert(E e, int hashCode) {
+        if (place(e, hashCode, bucket1(hashCode)) || place(e, hashCode, bucket2(hashCode))) {
+            return true;
+        }
+        Object carried = e;
+        int bucket = nextRandom() % 2 == 0 ? bucket1(hashCode) : bucket2(hashCode);
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            int victim = bucket + (nextRandom() & (BUCKET_SIZE - 1));
+            this.path[kick] = victim;
+            Object evicted = this.table[victim];
+            int evictedHash = this.hashes[victim];
+            this.table[victim] = carried;
+            this.hashes[victim] = hashCode;
+            carried = evicted;
+            hashCode = evictedHash;
+            int b1 = bucket1(hashCode);
+            bucket = bucket == b1 ? bucket2(hashCode) : b1;
+            if (place(carried, hashCode, bucket)) {
+                return true;
+            }
+        }
+        // each eviction swapped the carried element with a slot; swap back
+        for (int kick = MAX_KICKS - 1; kick >= 0; kick--) {
+            int victim = this.path[kick];
+            Object evicted = this.table[victim];
+            int evictedHash = this.hashes[victim];
+            this.table[victim] = carried;
+            this.hashes[victim] = hashCode;
+            carried = evicted;
+            hashCode = evictedHash;
+        }
+        return false;
+    }
+
+    /**
+     * Appends e to the stash, growing it if it is full.
+     */
+    private void stash(Object e, int hashCode) {
+        if (this.stashSize == this.stash.length) {
+            this.stash = Arrays.copyOf(this.stash, 2 * this.stashSize);
+            this.stashHashes = Arrays.copyOf(this.stashHashes, 2 * this.stashSize);
+        }
+        this.stash[this.stashSize] = e;
+        this.stashHashes[this.stashSize] = hashCode;
+        this.stashSize++;
+    }
+
+    /**
+     * Stores e in a free slot of the bucket, if there is one.
+     */
+    private boolean place(Object e, int hashCode, int bucket) {
+        for (int i = bucket; i < bucket + BUCKET_SIZE; i++) {
+            if (this.table[i] == null) {
+                this.table[i] = e;
+                this.hashes[i] = hashCode;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves stashed elements into free slots of their buckets, without
+     * evicting anything.
+     */
+    @SuppressWarnings("unchecked")
+    private void unstash() {
+        for (int j = this.stashSize - 1; j >= 0; j--) {
+            E e = (E) this.stash[j];
+            int hashCode = this.stashHashes[j];
+            if (place(e, hashCode, bucket1(hashCode)) || place(e, hashCode, bucket2(hashCode))) {
+                unstashAt(j);
+            }
+        }
+    }
+
+    /**
+     * Removes the element at index j of the stash, moving the last stashed
+     * element into its place, and returns it.
+     */
+    private Object unstashAt(int j) {
+        Object e = this.stash[j];
+        this.stashSize--;
+        this.stash[j] = this.stash[this.stashSize];
+        this.stashHashes[j] = this.stashHashes[this.stashSize];
+        this.stash[this.stashSize] = null;
+        return e;
+    }
+
+    private int nextRandom() {
+        int x = this.random;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        this.random = x;
+        return x & Integer.MAX_VALUE;
+    }
+}
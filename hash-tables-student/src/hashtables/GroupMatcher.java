@@ -0,0 +1,33 @@
+package hashtables;
+
+/**
+ * Scans a group of SwissHashTable control bytes at once.
+ *
+ * Each method looks at the GROUP_SIZE control bytes starting at offset and
+ * returns a bit mask with bit i set iff byte offset + i matches. There are
+ * two implementations: SwarGroupMatcher, which works on longs and runs
+ * anywhere, and VectorGroupMatcher, which uses the incubating Vector API and
+ * is only used when the jdk.incubator.vector module is present.
+ */
+interface GroupMatcher {
+    /**
+     * The number of control bytes in a group.
+     */
+    int GROUP_SIZE = 16;
+
+    /**
+     * @return a mask of the bytes equal to h2, a 7-bit hash fragment
+     */
+    int match(byte[] ctrl, int offset, byte h2);
+
+    /**
+     * @return a mask of the bytes that mark an empty slot
+     */
+    int matchEmpty(byte[] ctrl, int offset);
+
+    /**
+     * @return a mask of the bytes that mark an empty or deleted slot, i.e.
+     *         those with their high bit set
+     */
+    int matchEmptyOrDeleted(byte[] ctrl, int offset);
+}
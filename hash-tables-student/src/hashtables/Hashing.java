@@ -0,0 +1,45 @@
+package hashtables;
+
+/**
+ * Hash-mixing helpers shared by the hash table implementations.
+ *
+ * Tables that compute an index with a bit mask only look at the low bits of
+ * a hash code, so hash codes that differ only in their high bits (or that
+ * are all multiples of a power of two) would collide. These functions are
+ * the finalizers from MurmurHash3: every input bit affects every output bit.
+ */
+public final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * Mix the bits of a 32-bit hash code.
+     *
+     * @param h the hash code
+     * @return the mixed hash code
+     */
+    public static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Mix the bits of a 64-bit key down to a 32-bit hash code.
+     *
+     * @param k the key
+     * @return the mixed hash code
+     */
+    public static int mix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return (int) k;
+    }
+}
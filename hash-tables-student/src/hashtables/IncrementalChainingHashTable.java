@@ -0,0 +1,377 @@
+package hashtables;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiPredicate;
+
+/**
+ * An implementation of HashTable that resizes incrementally.
+ *
+ * Like ChainingHashTable, this implementation resolves collisions by chaining
+ * and grows when the load factor exceeds 0.75. Instead of rehashing every
+ * element inside the add() that crosses the threshold, a resize only
+ * allocates the new bucket array. The old array is kept, and each later
+ * add(), put() or remove() moves a bounded number of old buckets (see
+ * MIGRATION_STEP) across, so the cost of a resize is spread over the
+ * operations that follow it rather than paid all at once.
+ *
+ * While a migration is in progress, an element lives in exactly one of the
+ * two arrays: in the old array if its old bucket has not been moved yet,
+ * otherwise in the new one. Lookups consult both. Writes first move the
+ * element's own old bucket, if it is still pending, so that inserts and
+ * removals only ever touch the new array. A moved old bucket is set to null.
+ *
+ * capacity() and loadFactor() report the new array as soon as the resize
+ * starts. If another resize becomes due before the current migration is
+ * done, the rest of the migration is finished first.
+ */
+public class IncrementalChainingHashTable<E> implements KeyedHashTable<E> {
+    /**
+     * The number of old buckets moved by each write while migrating.
+     */
+    public static final int MIGRATION_STEP = 4;
+
+    private ArrayList<E>[] table;
+    private ArrayList<E>[] oldTable;
+    private int oldCapacity;
+    // the lowest old bucket that may still hold elements
+    private int migrateIndex;
+    private int size;
+    private int capacity;
+    private final double loadFactorThreshold = 0.75;
+    private int resizeCounter;
+    private int n = 0;
+    private final CapacityPolicy policy;
+    private int modCount;
+
+    /**
+     * Instantiate a new hash table. The initial capacity should be 7.
+     */
+    public IncrementalChainingHashTable() {
+        this(7, CapacityPolicy.MERSENNE);
+    }
+
+    /**
+     * Instantiate a new hash table. The initial capacity should be at least
+     * sufficient to hold n elements, and is the smallest capacity the policy
+     * allows for that.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public IncrementalChainingHashTable(int n, CapacityPolicy policy) {
+        this.policy = policy;
+        this.capacity = this.policy.capacity(this.n);
+        while (this.capacity < n || this.capacity < 1) {
+            this.n++;
+            this.capacity = this.policy.capacity(this.n);
+        }
+        this.table = (ArrayList<E>[]) new ArrayList[this.capacity];
+    }
+
+    @Override
+    public int capacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public double loadFactor() {
+        return (double) this.size / this.capacity;
+    }
+
+    /**
+     * @return true iff elements are still being moved out of the old array
+     */
+    public boolean isMigrating() {
+        return this.oldTable != null;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            return false;
+        }
+        ArrayList<E> list = prepareWrite(e);
+        if (list.contains(e)) {
+            return false;
+        }
+        list.add(e);
+        this.size++;
+        this.modCount++;
+        return true;
+    }
+
+    @Override
+    public E put(E e) {
+        ArrayList<E> list = prepareWrite(e);
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).equals(e)) {
+                return list.set(i, e);
+            }
+        }
+        list.add(e);
+        this.size++;
+        this.modCount++;
+        return null;
+    }
+
+    @Override
+    public boolean remove(E e) {
+        if (e == null) {
+            return false;
+        }
+        step();
+        migrateBucketOf(e.hashCode());
+        ArrayList<E> list = this.table[hash(e)];
+        if (list == null || !list.remove(e)) {
+            return false;
+        }
+        this.size--;
+        this.modCount++;
+        return true;
+    }
+
+    @Override
+    public <K> E removeKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        step();
+        migrateBucketOf(hashCode);
+        ArrayList<E> list = this.table[this.policy.index(hashCode, this.capacity)];
+        if (list == null) {
+            return null;
+        }
+        for (int i = 0; i < list.size(); i++) {
+            if (matcher.test(list.get(i), k)) {
+                this.size--;
+                this.modCount++;
+                return list.remove(i);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return get(e) != null;
+    }
+
+    @Override
+    public E get(E e) {
+        if (e == null) {
+            return null;
+        }
+        return findKey(e, e.hashCode(), Object::equals);
+    }
+
+    @Override
+    public <K> E findKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        if (this.oldTable != null) {
+            ArrayList<E> old = this.oldTable[this.policy.index(hashCode, this.oldCapacity)];
+            if (old != null) {
+                // the bucket has not moved yet, so this is the only place to look
+                return find(old, k, matcher);
+            }
+        }
+        ArrayList<E> list = this.table[this.policy.index(hashCode, this.capacity)];
+        if (list == null) {
+            return null;
+        }
+        return find(list, k, matcher);
+    }
+
+    private <K> E find(ArrayList<E> list, K k, BiPredicate<? super E, ? super K> matcher) {
+        for (int i = 0; i < list.size(); i++) {
+            E element = list.get(i);
+            if (matcher.test(element, k)) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return an iterator over the elements in both arrays, visiting the
+     * buckets that have not moved yet first. The iterator supports remove()
+     * and is fail-fast; migration counts as a structural modification.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private final ArrayList<E>[] first = oldTable;
+            private int bucket = -1;
+            private ArrayList<E> current;
+            private int position;
+            private ArrayList<E> lastList;
+            private int lastIndex;
+            private int expectedModCount = modCount;
+
+            {
+                advance();
+            }
+
+            private void advance() {
+                int firstLength = this.first == null ? 0 : this.first.length;
+                while (this.current == null || this.position >= this.current.size()) {
+                    this.bucket++;
+                    if (this.bucket >= firstLength + table.length) {
+                        this.current = null;
+                        return;
+                    }
+                    this.current = this.bucket < firstLength
+                            ? this.first[this.bucket]
+                            : table[this.bucket - firstLength];
+                    this.position = 0;
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.current != null;
+            }
+
+            @Override
+            public E next() {
+                if (modCount != this.expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (this.current == null) {
+                    throw new NoSuchElementException();
+                }
+                this.lastList = this.current;
+                this.lastIndex = this.position;
+                E e = this.current.get(this.position++);
+                advance();
+                return e;
+            }
+
+            @Override
+            public void remove() {
+                if (this.lastList == null) {
+                    throw new IllegalStateException();
+                }
+                if (modCount != this.expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                this.lastList.remove(this.lastIndex);
+                if (this.lastList == this.current) {
+                    this.position--;
+                }
+                this.lastList = null;
+                size--;
+                modCount++;
+                this.expectedModCount = modCount;
+            }
+        };
+    }
+
+    /**
+     * Start a resize: allocate an array of double the capacity (plus one,
+     * under CapacityPolicy.MERSENNE) and begin migrating into it. Any
+     * migration still in progress is completed first.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void resize() {
+        finishMigration();
+        this.oldTable = this.table;
+        this.oldCapacity = this.capacity;
+        this.migrateIndex = 0;
+        this.n++;
+        this.capacity = this.policy.capacity(this.n);
+        this.table = (ArrayList<E>[]) new ArrayList[this.capacity];
+        this.resizeCounter++;
+        this.modCount++;
+    }
+
+    /**
+     * Move every remaining old bucket into the new array.
+     */
+    public void finishMigration() {
+        while (this.oldTable != null) {
+            migrate(this.oldCapacity);
+        }
+    }
+
+    /**
+     * Returns the index for the given element in the current array.
+     *
+     * @param e the element to hash
+     * @return the index for the element
+     */
+    public int hash(E e) {
+        return this.policy.index(e.hashCode(), this.capacity);
+    }
+
+    /**
+     * Does the bookkeeping every write needs: grows the table if it is due,
+     * moves the next few old buckets, and moves e's own old bucket, then
+     * returns e's bucket in the new array (creating it if needed).
+     */
+    private ArrayList<E> prepareWrite(E e) {
+        if (loadFactor() > loadFactorThreshold) {
+            resize();
+        } else {
+            step();
+        }
+        int hashCode = e.hashCode();
+        migrateBucketOf(hashCode);
+        int index = this.policy.index(hashCode, this.capacity);
+        ArrayList<E> list = this.table[index];
+        if (list == null) {
+            list = new ArrayList<>();
+            this.table[index] = list;
+        }
+        return list;
+    }
+
+    private void step() {
+        if (this.oldTable != null) {
+            migrate(MIGRATION_STEP);
+        }
+    }
+
+    /**
+     * Moves the old bucket that an element with this hash code maps to,
+     * if it has not been moved yet.
+     */
+    private void migrateBucketOf(int hashCode) {
+        if (this.oldTable != null) {
+            int i = this.policy.index(hashCode, this.oldCapacity);
+            if (this.oldTable[i] != null) {
+                moveBucket(i);
+                this.modCount++;
+            }
+        }
+    }
+
+    /**
+     * Moves up to count old buckets, starting at migrateIndex, and drops the
+     * old array once every bucket has moved.
+     */
+    private void migrate(int count) {
+        int end = Math.min(this.oldCapacity, this.migrateIndex + count);
+        for (; this.migrateIndex < end; this.migrateIndex++) {
+            if (this.oldTable[this.migrateIndex] != null) {
+                moveBucket(this.migrateIndex);
+            }
+        }
+        if (this.migrateIndex >= this.oldCapacity) {
+            this.oldTable = null;
+        }
+        this.modCount++;
+    }
+
+    private void moveBucket(int i) {
+        for (E element : this.oldTable[i]) {
+            int index = hash(element);
+            if (this.table[index] == null) {
+                this.table[index] = new ArrayList<>();
+            }
+            this.table[index].add(element);
+        }
+        this.oldTable[i] = null;
+    }
+}
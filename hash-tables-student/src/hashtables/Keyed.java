@@ -0,0 +1,17 @@
+package hashtables;
+
+/**
+ * An element that is stored in a hash table under a key of its own, such as
+ * a map entry, and that is equals() to another exactly when their keys are.
+ *
+ * ChainingHashTable orders the elements of an overfull bucket by key, so
+ * implementing this lets it use the key's compareTo() rather than searching
+ * such a bucket element by element.
+ */
+public interface Keyed<K> {
+
+    /**
+     * @return the key of this element
+     */
+    K getKey();
+}
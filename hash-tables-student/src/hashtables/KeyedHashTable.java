@@ -0,0 +1,123 @@
+package hashtables;
+
+import java.util.Collection;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * A HashTable whose elements can be found by a key derived from them,
+ * without building a probe element that is `equals()` to the one stored.
+ *
+ * This is what lets a map built on a hash table (such as SimpleHashMap)
+ * answer get(k) or remove(k) with a single hash computation and a single
+ * search of the table, rather than allocating an entry just to call get().
+ *
+ * The caller supplies the hash code of the key, which must be equal to the
+ * hashCode() of every element the key matches, and a matcher that decides
+ * whether a stored element has that key.
+ */
+public interface KeyedHashTable<E> extends HashTable<E> {
+
+    /**
+     * Return the element matching the key k, or null if there is none.
+     *
+     * @param k        the (non-null) key
+     * @param hashCode the hashCode() of the elements k matches
+     * @param matcher  returns true iff the given element has the given key
+     * @return the element matching k, or null if not present
+     */
+    <K> E findKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher);
+
+    /**
+     * Remove the element matching the key k, if present, and return it.
+     *
+     * @param k        the (non-null) key
+     * @param hashCode the hashCode() of the elements k matches
+     * @param matcher  returns true iff the given element has the given key
+     * @return the removed element, or null if no element matched k
+     */
+    <K> E removeKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher);
+
+    /**
+     * Add the element e to the hash table, replacing the current element that
+     * is `equals()` to e, if any, in the same search.
+     *
+     * e must be non-null.
+     *
+     * @param e the element
+     * @return the element that was replaced, or null if e is newly inserted
+     */
+    E put(E e);
+
+    /**
+     * Find the element matching the key k and replace it with the result of
+     * remapping, which is given that element, or null if there is none.
+     * If remapping returns null, the element is removed; if it returns the
+     * element it was given, nothing changes; otherwise what it returns is
+     * stored in place of the old element or, if there was none, inserted.
+     * A returned element must match k and have hashCode() equal to
+     * hashCode. remapping must not modify the table.
+     *
+     * Implementations should do all of this in a single search of the
+     * table; this default searches it up to twice.
+     *
+     * @param k         the (non-null) key
+     * @param hashCode  the hashCode() of the elements k matches
+     * @param matcher   returns true iff the given element has the given key
+     * @param remapping computes the new element from the current one
+     * @return the element now matching k, or null if there is none
+     */
+    default <K> E compute(K k, int hashCode, BiPredicate<? super E, ? super K> matcher,
+            Function<? super E, ? extends E> remapping) {
+        E old = findKey(k, hashCode, matcher);
+        E e = remapping.apply(old);
+        if (e == null) {
+            if (old != null) {
+                removeKey(k, hashCode, matcher);
+            }
+        } else if (e != old) {
+            put(e);
+        }
+        return e;
+    }
+
+    /**
+     * Make room for n elements, so that the table does not have to grow
+     * again until it holds more than n. Tables that cannot be presized
+     * ignore this.
+     *
+     * @param n the number of elements to make room for
+     */
+    default void ensureCapacity(int n) {
+    }
+
+    /**
+     * Add every element of c, as if by add(), skipping null elements. The
+     * table first makes room for all of them, so it grows at most once.
+     *
+     * @param c the elements to add
+     * @return true iff any element was newly inserted
+     */
+    default boolean addAll(Collection<? extends E> c) {
+        ensureCapacity(size() + c.size());
+        boolean changed = false;
+        for (E e : c) {
+            if (e != null && add(e)) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Add every element of c, like addAll(), where the caller guarantees
+     * that no two elements of c are equals(). An empty table may then skip
+     * looking for duplicates; this default does not.
+     *
+     * @param c the elements to add, distinct under equals()
+     * @return true iff any element was newly inserted
+     */
+    default boolean addAllDistinct(Collection<? extends E> c) {
+        return addAll(c);
+    }
+}
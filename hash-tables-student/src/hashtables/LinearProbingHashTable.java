@@ -0,0 +1,342 @@
+package hashtables;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiPredicate;
+
+/**
+ * An implementation of HashTable.
+ *
+ * This implementation uses open addressing with linear probing to resolve
+ * collisions. Elements are stored directly in a flat Object[] rather than in
+ * per-bucket lists. When an element's home slot is occupied, the element is
+ * stored in the next free slot (wrapping around at the end of the array), and
+ * lookups walk forward from the home slot until they find the element or an
+ * empty slot.
+ *
+ * Removal uses backward-shift deletion instead of tombstones: once a slot is
+ * emptied, later elements of the same run are moved back into the hole as long
+ * as that does not move them in front of their own home slot. The table never
+ * accumulates deleted markers, so an empty slot always ends a lookup.
+ *
+ * This implementation maintains a capacity equal to 2^n for some positive
+ * integer n, so the home slot is computed with a bit mask rather than a
+ * division. An add() that would take the load factor above 0.75 first
+ * triggers a resize by incrementing n (by one). For example, when n=3, then
+ * capacity=8. When size=6, then load factor =0.75. The addition of the
+ * seventh item would take it to ~0.88, so it triggers a resize, increasing
+ * the capacity of the array to 16. Since the threshold is below 1, the table
+ * always keeps at least one empty slot, even at its smallest capacities,
+ * and so every lookup ends.
+ */
+public class LinearProbingHashTable<E> implements KeyedHashTable<E> {
+    private Object[] table;
+    private int size;
+    private int capacity;
+    private final double loadFactorThreshold = 0.75;
+    private int resizeCounter;
+    private int n = 0;
+
+    /**
+     * Instantiate a new hash table. The initial capacity should be 8.
+     */
+    public LinearProbingHashTable() {
+        this.n = 3;
+        this.capacity = 1 << this.n;
+        this.table = new Object[this.capacity];
+    }
+
+    /**
+     * Instantiate a new hash table. The initial capacity should be
+     * at least sufficient to hold n elements, and must be a power of two.
+     */
+    public LinearProbingHashTable(int n) {
+        this.n = 1;
+        this.capacity = 1 << this.n;
+        while (this.capacity < n) {
+            this.n++;
+            this.capacity = 1 << this.n;
+        }
+        this.table = new Object[this.capacity];
+        this.size = 0;
+        this.resizeCounter = 0;
+    }
+
+    @Override
+    public int capacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public double loadFactor() {
+        return (double) this.size / this.capacity;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            return false;
+        }
+        return put(e) == null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E put(E e) {
+        if (this.size + 1 > loadFactorThreshold * this.capacity) {
+            resize();
+        }
+        int mask = this.capacity - 1;
+        int i = hash(e);
+        while (this.table[i] != null) {
+            if (this.table[i].equals(e)) {
+                E old = (E) this.table[i];
+                this.table[i] = e;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        this.table[i] = e;
+        this.size++;
+        return null;
+    }
+
+    @Override
+    public boolean remove(E e) {
+        int i = indexOf(e);
+        if (i < 0) {
+            return false;
+        }
+        deleteAt(i);
+        this.size--;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K> E removeKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        int i = indexOfKey(k, hashCode, matcher);
+        if (i < 0) {
+            return null;
+        }
+        E old = (E) this.table[i];
+        deleteAt(i);
+        this.size--;
+        return old;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return indexOf(e) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(E e) {
+        int i = indexOf(e);
+        if (i < 0) {
+            return null;
+        }
+        return (E) this.table[i];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K> E findKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        int i = indexOfKey(k, hashCode, matcher);
+        if (i < 0) {
+            return null;
+        }
+        return (E) this.table[i];
+    }
+
+    /**
+     * The iterator starts just after an empty slot and wraps around the end
+     * of the array, so no run of elements straddles its starting point. Its
+     * remove() then only shifts elements backward into slots it has not
+     * reached yet, or into the slot just removed, which it visits again.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private final int start = emptySlot();
+            // slots are visited in the order start, start + 1, ...; these
+            // count from start
+            private int next = advance(0);
+            private int last = -1;
+
+            private int advance(int i) {
+                while (i < table.length && table[slot(i)] == null) {
+                    i++;
+                }
+                return i;
+            }
+
+            private int slot(int i) {
+                return (this.start + i) & (table.length - 1);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.next < table.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                this.last = this.next;
+                this.next = advance(this.next + 1);
+                return (E) table[slot(this.last)];
+            }
+
+            @Override
+            public void remove() {
+                if (this.last < 0) {
+                    throw new IllegalStateException();
+                }
+                deleteAt(slot(this.last));
+                size--;
+                this.next = advance(this.last);
+                this.last = -1;
+            }
+        };
+    }
+
+    /**
+     * Return a histogram of the probe lengths of the elements currently in
+     * the table, along with its mean, max and percentiles.
+     *
+     * @return the probe length statistics of this table
+     */
+    @SuppressWarnings("unchecked")
+    public ProbeStatistics probeStatistics() {
+        int mask = this.capacity - 1;
+        long[] histogram = new long[this.capacity + 1];
+        int longest = 0;
+        for (int i = 0; i < this.capacity; i++) {
+            if (this.table[i] != null) {
+                int probe = ((i - hash((E) this.table[i])) & mask) + 1;
+                histogram[probe]++;
+                longest = Math.max(longest, probe);
+            }
+        }
+        return new ProbeStatistics(Arrays.copyOf(histogram, longest + 1));
+    }
+
+    /**
+     * Resize the hash table to double its current capacity.
+     */
+    @SuppressWarnings("unchecked")
+    public void resize() {
+        Object[] oldTable = this.table;
+        this.n++;
+        this.capacity = 1 << this.n;
+        this.table = new Object[this.capacity];
+        int mask = this.capacity - 1;
+        for (Object element : oldTable) {
+            if (element == null) {
+                continue;
+            }
+            int i = hash((E) element);
+            while (this.table[i] != null) {
+                i = (i + 1) & mask;
+            }
+            this.table[i] = element;
+        }
+        this.resizeCounter++;
+    }
+
+    /**
+     * Returns the home slot for the given element.
+     * The element's hashCode() is mixed so that its high bits influence
+     * the low bits, and then masked down to the capacity of the table.
+     *
+     * @param e the element to hash
+     * @return the home slot for the element
+     */
+    public int hash(E e) {
+        return Hashing.mix(e.hashCode()) & (this.capacity - 1);
+    }
+
+    /**
+     * Returns the slot holding an element equal to e, or -1 if there is none.
+     */
+    private int indexOf(E e) {
+        if (e == null) {
+            return -1;
+        }
+        int mask = this.capacity - 1;
+        int i = hash(e);
+        while (this.table[i] != null) {
+            if (this.table[i].equals(e)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the slot holding an element matching the key k, or -1 if there
+     * is none.
+     */
+    @SuppressWarnings("unchecked")
+    private <K> int indexOfKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        int mask = this.capacity - 1;
+        int i = Hashing.mix(hashCode) & mask;
+        while (this.table[i] != null) {
+            if (matcher.test((E) this.table[i], k)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of an empty slot. There always is one, since the
+     * load factor never exceeds 0.75.
+     */
+    private int emptySlot() {
+        int i = 0;
+        while (this.table[i] != null) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Empties slot i and shifts later members of its run backward to close
+     * the gap, so that no lookup is cut short by the new empty slot.
+     */
+    @SuppressWarnings("unchecked")
+    private void deleteAt(int i) {
+        int mask = this.capacity - 1;
+        int hole = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            Object element = this.table[j];
+            if (element == null) {
+                break;
+            }
+            // the element at j may fill the hole only if its home slot is
+            // not in the cyclic range (hole, j]
+            int home = hash((E) element);
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                this.table[hole] = element;
+                hole = j;
+            }
+        }
+        this.table[hole] = null;
+    }
+}
@@ -0,0 +1,224 @@
+package hashtables;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A set of long values, specialized so that no value is ever boxed.
+ *
+ * The values are stored directly in a long[] using open addressing with
+ * linear probing and backward-shift deletion, in the same way as
+ * LinearProbingHashTable. Because every long is a legal value, 0 cannot
+ * be used to mark an empty slot on its own; instead, membership of 0 is
+ * tracked by a separate flag and 0 is never stored in the array.
+ *
+ * add(), contains() and remove() do not allocate; only a resize does.
+ * The capacity is a power of two and the table resizes on an add() that
+ * would take the load factor above 0.75, so one slot is always left empty.
+ */
+public class LongHashSet {
+    private long[] table;
+    private boolean containsZero;
+    private int size;
+    private int capacity;
+    private final double loadFactorThreshold = 0.75;
+    private int n = 0;
+
+    /**
+     * Instantiate a new set. The initial capacity should be 8.
+     */
+    public LongHashSet() {
+        this(8);
+    }
+
+    /**
+     * Instantiate a new set. The initial capacity should be at least
+     * sufficient to hold n values, and must be a power of two.
+     */
+    public LongHashSet(int n) {
+        this.n = 1;
+        this.capacity = 1 << this.n;
+        while (this.capacity < n) {
+            this.n++;
+            this.capacity = 1 << this.n;
+        }
+        this.table = new long[this.capacity];
+    }
+
+    /**
+     * @return the length of the underlying array
+     */
+    public int capacity() {
+        return this.capacity;
+    }
+
+    /**
+     * @return the number of values in the set
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the ratio of the size to the capacity
+     */
+    public double loadFactor() {
+        return (double) this.size / this.capacity;
+    }
+
+    /**
+     * Add the value to the set.
+     *
+     * @param v the value
+     * @return true iff the value was not already in the set
+     */
+    public boolean add(long v) {
+        if (v == 0) {
+            if (this.containsZero) {
+                return false;
+            }
+            this.containsZero = true;
+            this.size++;
+            return true;
+        }
+        if (this.size + 1 > loadFactorThreshold * this.capacity) {
+            resize();
+        }
+        int mask = this.capacity - 1;
+        int i = Hashing.mix(v) & mask;
+        while (this.table[i] != 0) {
+            if (this.table[i] == v) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        this.table[i] = v;
+        this.size++;
+        return true;
+    }
+
+    /**
+     * @param v the value
+     * @return true iff the value is in the set
+     */
+    public boolean contains(long v) {
+        if (v == 0) {
+            return this.containsZero;
+        }
+        return indexOf(v) >= 0;
+    }
+
+    /**
+     * Remove the value from the set, if present.
+     *
+     * @param v the value
+     * @return true iff the value was present and removed
+     */
+    public boolean remove(long v) {
+        if (v == 0) {
+            if (!this.containsZero) {
+                return false;
+            }
+            this.containsZero = false;
+            this.size--;
+            return true;
+        }
+        int i = indexOf(v);
+        if (i < 0) {
+            return false;
+        }
+        int mask = this.capacity - 1;
+        int hole = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            long w = this.table[j];
+            if (w == 0) {
+                break;
+            }
+            int home = Hashing.mix(w) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                this.table[hole] = w;
+                hole = j;
+            }
+        }
+        this.table[hole] = 0;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Remove every value from the set, keeping the current capacity.
+     */
+    public void clear() {
+        Arrays.fill(this.table, 0);
+        this.containsZero = false;
+        this.size = 0;
+    }
+
+    /**
+     * Pass every value in the set to the action, in no particular order.
+     *
+     * @param action the action to perform on each value
+     */
+    public void forEach(LongConsumer action) {
+        if (this.containsZero) {
+            action.accept(0);
+        }
+        for (long v : this.table) {
+            if (v != 0) {
+                action.accept(v);
+            }
+        }
+    }
+
+    /**
+     * @return a new array holding the values in the set
+     */
+    public long[] toArray() {
+        long[] result = new long[this.size];
+        int j = 0;
+        if (this.containsZero) {
+            j++;
+        }
+        for (long v : this.table) {
+            if (v != 0) {
+                result[j++] = v;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Resize the set to double its current capacity.
+     */
+    public void resize() {
+        long[] oldTable = this.table;
+        this.n++;
+        this.capacity = 1 << this.n;
+        this.table = new long[this.capacity];
+        int mask = this.capacity - 1;
+        for (long v : oldTable) {
+            if (v == 0) {
+                continue;
+            }
+            int i = Hashing.mix(v) & mask;
+            while (this.table[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            this.table[i] = v;
+        }
+    }
+
+    private int indexOf(long v) {
+        int mask = this.capacity - 1;
+        int i = Hashing.mix(v) & mask;
+        while (this.table[i] != 0) {
+            if (this.table[i] == v) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,192 @@
+package hashtables;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Builds a ChainingHashTable from a large list on a fork-join pool.
+ *
+ * The final capacity is fixed up front, and the bucket array is split into
+ * partitions of contiguous buckets, several per thread. Under
+ * CapacityPolicy.POWER_OF_TWO a partition is the set of elements sharing a
+ * prefix of their bucket index. The build then runs in three parallel
+ * passes, each over an even share of the work:
+ *
+ * 1. Each chunk of the input hashes its elements, caching the hash codes,
+ *    and counts how many fall into each partition.
+ * 2. From prefix sums of those counts, each chunk writes the positions of
+ *    its elements into an array grouped by partition (a counting sort).
+ * 3. Each partition inserts its elements into its own range of buckets,
+ *    checking for duplicates and building trees for overfull buckets as
+ *    add() would.
+ *
+ * No two tasks ever write the same bucket, so no locks are needed; joining
+ * each pass publishes its writes to the next. Finally the partitions' trees
+ * and sizes are stitched into one table. Equal elements share a bucket, so
+ * duplicates are dropped exactly as by sequential adds, and each bucket
+ * keeps its elements in input order.
+ */
+final class ParallelBuilder<E> {
+    private final List<? extends E> elements;
+    private final CapacityPolicy policy;
+    private final ForkJoinPool pool;
+    private final int n;
+    private final int capacity;
+    private final int partitions;
+    private final int chunks;
+
+    ParallelBuilder(List<? extends E> elements, CapacityPolicy policy, ForkJoinPool pool) {
+        this.elements = elements instanceof RandomAccess ? elements : new ArrayList<>(elements);
+        this.policy = policy;
+        this.pool = pool;
+        int n = 0;
+        while (policy.capacity(n) < 1 || policy.capacity(n) * 0.75 < this.elements.size()) {
+            n++;
+        }
+        this.n = n;
+        this.capacity = policy.capacity(n);
+        int tasks = 4 * pool.getParallelism();
+        this.partitions = Math.min(tasks, this.capacity);
+        this.chunks = Math.max(1, Math.min(tasks, this.elements.size()));
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    ChainingHashTable<E> build() {
+        int size = this.elements.size();
+        int[] hashes = new int[size];
+        int[][] counts = new int[this.chunks][this.partitions];
+        forEach(this.chunks, c -> {
+            int[] count = counts[c];
+            for (int i = chunkStart(c); i < chunkStart(c + 1); i++) {
+                E e = this.elements.get(i);
+                if (e != null) {
+                    hashes[i] = e.hashCode();
+                    count[partitionOf(hashes[i])]++;
+                }
+            }
+        });
+
+        // offsets[c][p]: where chunk c writes its first element of partition p
+        int[][] offsets = new int[this.chunks][this.partitions];
+        int[] partitionStart = new int[this.partitions + 1];
+        int total = 0;
+        for (int p = 0; p < this.partitions; p++) {
+            partitionStart[p] = total;
+            for (int c = 0; c < this.chunks; c++) {
+                offsets[c][p] = total;
+                total += counts[c][p];
+            }
+        }
+        partitionStart[this.partitions] = total;
+
+        int[] order = new int[total];
+        forEach(this.chunks, c -> {
+            int[] next = offsets[c];
+            for (int i = chunkStart(c); i < chunkStart(c + 1); i++) {
+                if (this.elements.get(i) != null) {
+                    order[next[partitionOf(hashes[i])]++] = i;
+                }
+            }
+        });
+
+        Chain<E>[] table = (Chain<E>[]) new Chain[this.capacity];
+        int[] sizes = new int[this.partitions];
+        List<Map<Integer, TreeBucket<E>>> trees = new ArrayList<>();
+        for (int p = 0; p < this.partitions; p++) {
+            trees.add(new HashMap<>());
+        }
+        forEach(this.partitions, p -> {
+            Map<Integer, TreeBucket<E>> partitionTrees = trees.get(p);
+            int added = 0;
+            for (int j = partitionStart[p]; j < partitionStart[p + 1]; j++) {
+                int i = order[j];
+                E e = this.elements.get(i);
+                int index = this.policy.index(hashes[i], this.capacity);
+                TreeBucket<E> tree = partitionTrees.get(index);
+                if (tree != null) {
+                    if (tree.put(e, hashes[i], false) == null) {
+                        added++;
+                    }
+                    continue;
+                }
+                Chain<E> chain = table[index];
+                if (chain == null) {
+                    chain = new Chain<>();
+                    table[index] = chain;
+                } else if (chain.indexOf(e, hashes[i]) >= 0) {
+                    continue;
+                }
+                chain.add(e, hashes[i]);
+                added++;
+                if (chain.size() > ChainingHashTable.TREEIFY_THRESHOLD) {
+                    partitionTrees.put(index, new TreeBucket<>(chain));
+                    table[index] = null;
+                }
+            }
+            sizes[p] = added;
+        });
+
+        TreeBucket<E>[] treeArray = null;
+        for (Map<Integer, TreeBucket<E>> partitionTrees : trees) {
+            for (Map.Entry<Integer, TreeBucket<E>> entry : partitionTrees.entrySet()) {
+                if (treeArray == null) {
+                    treeArray = (TreeBucket<E>[]) new TreeBucket[this.capacity];
+                }
+                treeArray[entry.getKey()] = entry.getValue();
+            }
+        }
+        return new ChainingHashTable<>(this.policy, this.n, table, treeArray, Arrays.stream(sizes).sum());
+    }
+
+    private int chunkStart(int c) {
+        return (int) ((long) c * this.elements.size() / this.chunks);
+    }
+
+    /**
+     * Returns the partition of the bucket that the hash code maps to.
+     */
+    private int partitionOf(int hashCode) {
+        return (int) ((long) this.policy.index(hashCode, this.capacity) * this.partitions / this.capacity);
+    }
+
+    /**
+     * Runs action for 0 to count-1 on the pool and waits for all of them.
+     */
+    private void forEach(int count, IntConsumer action) {
+        this.pool.invoke(new Range(0, count, action));
+    }
+
+    /**
+     * Splits a range of task numbers in halves until each task runs alone.
+     */
+    private static final class Range extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final IntConsumer action;
+
+        Range(int from, int to, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1) {
+                this.action.accept(this.from);
+            } else if (this.to > this.from) {
+                int mid = (this.from + this.to) >>> 1;
+                invokeAll(new Range(this.from, mid, this.action), new Range(mid, this.to, this.action));
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package hashtables;
+
+/**
+ * A set that answers membership queries approximately, in much less memory
+ * than storing its elements would take.
+ *
+ * mightContain() never returns false for an element that was added, but may
+ * return true for one that was not (a false positive). Elements cannot be
+ * removed.
+ *
+ * Elements are recognized by their hashCode() alone: two elements with the
+ * same hash code are indistinguishable. The hash-based methods let a caller
+ * that already has a hash code, such as a hash table looking up a key, skip
+ * calling hashCode() again.
+ */
+public interface ProbabilisticSet<E> {
+
+    /**
+     * Add the element e to the set.
+     *
+     * @param e the (non-null) element
+     * @return true iff the set changed, i.e. e was definitely not in it before
+     */
+    default boolean put(E e) {
+        return putHash(e.hashCode());
+    }
+
+    /**
+     * @param e the (non-null) element
+     * @return false if e was definitely never added, true if it might have been
+     */
+    default boolean mightContain(E e) {
+        return mightContainHash(e.hashCode());
+    }
+
+    /**
+     * Add an element with the given hash code to the set.
+     *
+     * @param hashCode the element's hashCode()
+     * @return true iff the set changed
+     */
+    boolean putHash(int hashCode);
+
+    /**
+     * @param hashCode the element's hashCode()
+     * @return false if no element with this hash code was ever added, true
+     *         if one might have been
+     */
+    boolean mightContainHash(int hashCode);
+
+    /**
+     * @return the probability that mightContain() returns true for an
+     *         element that was not added, estimated from the bits set so far
+     */
+    double expectedFpp();
+
+    /**
+     * Remove every element from the set.
+     */
+    void clear();
+}
@@ -0,0 +1,111 @@
+package hashtables;
+
+/**
+ * A snapshot of the probe lengths of the elements stored in an
+ * open-addressing hash table.
+ *
+ * The probe length of an element is the number of slots a successful lookup
+ * of that element examines: 1 if the element sits in its home slot, 2 if it
+ * sits one slot further along, and so on. A table whose elements' hashCode()
+ * spreads well has a mean close to 1 and a small maximum; long tails point
+ * to a poor hash function for the key type.
+ */
+public class ProbeStatistics {
+    private final long[] histogram;
+    private final long count;
+
+    /**
+     * Create statistics from a histogram, where histogram[i] is the number of
+     * elements with probe length i. The array is not copied.
+     *
+     * @param histogram the probe length histogram
+     */
+    ProbeStatistics(long[] histogram) {
+        this.histogram = histogram;
+        long c = 0;
+        for (long h : histogram) {
+            c += h;
+        }
+        this.count = c;
+    }
+
+    /**
+     * @return the number of elements described by these statistics
+     */
+    public long count() {
+        return this.count;
+    }
+
+    /**
+     * Return the number of elements with the given probe length.
+     *
+     * @param probeLength the probe length
+     * @return the number of elements whose probe length is probeLength
+     */
+    public long countAt(int probeLength) {
+        if (probeLength < 0 || probeLength >= this.histogram.length) {
+            return 0;
+        }
+        return this.histogram[probeLength];
+    }
+
+    /**
+     * @return the mean probe length, or 0 if there are no elements
+     */
+    public double mean() {
+        if (this.count == 0) {
+            return 0;
+        }
+        double total = 0;
+        for (int i = 0; i < this.histogram.length; i++) {
+            total += (double) i * this.histogram[i];
+        }
+        return total / this.count;
+    }
+
+    /**
+     * @return the longest probe length, or 0 if there are no elements
+     */
+    public int max() {
+        for (int i = this.histogram.length - 1; i >= 0; i--) {
+            if (this.histogram[i] != 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Return the smallest probe length p such that at least the given fraction
+     * of elements have a probe length of at most p.
+     *
+     * @param fraction a value in [0, 1]
+     * @return the probe length at that percentile, or 0 if there are no elements
+     */
+    public int percentile(double fraction) {
+        if (fraction < 0 || fraction > 1) {
+            throw new IllegalArgumentException("fraction must be in [0, 1]: " + fraction);
+        }
+        long target = (long) Math.ceil(fraction * this.count);
+        long seen = 0;
+        for (int i = 0; i < this.histogram.length; i++) {
+            seen += this.histogram[i];
+            if (seen >= target && seen > 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return the 99th percentile probe length
+     */
+    public int p99() {
+        return percentile(0.99);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.3f max=%d p99=%d", count(), mean(), max(), p99());
+    }
+}
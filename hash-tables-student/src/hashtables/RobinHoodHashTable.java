@@ -0,0 +1,364 @@
+package hashtables;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiPredicate;
+
+/**
+ * An implementation of HashTable.
+ *
+ * This implementation uses Robin Hood hashing, a variant of linear probing.
+ * Each slot remembers how far its element is from its home slot (its
+ * displacement). While inserting, an element that has travelled further than
+ * the resident of a slot takes that slot, and the resident continues probing
+ * in its place ("take from the rich, give to the poor"). This keeps the
+ * displacements of all elements close together, so the variance of probe
+ * lengths stays small even when some keys cluster.
+ *
+ * Because of that ordering, a lookup can stop as soon as it reaches a slot
+ * whose resident is displaced less than the element being looked for would
+ * be at that point: had the element been present, it would have claimed that
+ * slot. Misses therefore end early instead of running to the next empty slot.
+ *
+ * Removal uses backward-shift deletion, so no tombstones are left behind.
+ *
+ * Like LinearProbingHashTable, this implementation maintains a capacity equal
+ * to 2^n and resizes (by incrementing n) on an add() that would take the
+ * load factor above 0.75, so at least one slot is always empty.
+ */
+public class RobinHoodHashTable<E> implements KeyedHashTable<E> {
+    private Object[] table;
+    // displacement of the element in each slot, plus one; 0 marks an empty slot
+    private int[] probes;
+    private int size;
+    private int capacity;
+    private final double loadFactorThreshold = 0.75;
+    private int resizeCounter;
+    private int n = 0;
+
+    /**
+     * Instantiate a new hash table. The initial capacity should be 8.
+     */
+    public RobinHoodHashTable() {
+        this.n = 3;
+        this.capacity = 1 << this.n;
+        this.table = new Object[this.capacity];
+        this.probes = new int[this.capacity];
+    }
+
+    /**
+     * Instantiate a new hash table. The initial capacity should be
+     * at least sufficient to hold n elements, and must be a power of two.
+     */
+    public RobinHoodHashTable(int n) {
+        this.n = 1;
+        this.capacity = 1 << this.n;
+        while (this.capacity < n) {
+            this.n++;
+            this.capacity = 1 << this.n;
+        }
+        this.table = new Object[this.capacity];
+        this.probes = new int[this.capacity];
+        this.size = 0;
+        this.resizeCounter = 0;
+    }
+
+    @Override
+    public int capacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public double loadFactor() {
+        return (double) this.size / this.capacity;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            return false;
+        }
+        return put(e) == null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E put(E e) {
+        if (this.size + 1 > loadFactorThreshold * this.capacity) {
+            resize();
+        }
+        int mask = this.capacity - 1;
+        int i = hash(e);
+        int probe = 1;
+        while (this.probes[i] >= probe) {
+            if (this.probes[i] == probe && this.table[i].equals(e)) {
+                E old = (E) this.table[i];
+                this.table[i] = e;
+                return old;
+            }
+            i = (i + 1) & mask;
+            probe++;
+        }
+        insertAt(i, e, probe);
+        this.size++;
+        return null;
+    }
+
+    @Override
+    public boolean remove(E e) {
+        int i = indexOf(e);
+        if (i < 0) {
+            return false;
+        }
+        deleteAt(i);
+        this.size--;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K> E removeKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        int i = indexOfKey(k, hashCode, matcher);
+        if (i < 0) {
+            return null;
+        }
+        E old = (E) this.table[i];
+        deleteAt(i);
+        this.size--;
+        return old;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return indexOf(e) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(E e) {
+        int i = indexOf(e);
+        if (i < 0) {
+            return null;
+        }
+        return (E) this.table[i];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K> E findKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        int i = indexOfKey(k, hashCode, matcher);
+        if (i < 0) {
+            return null;
+        }
+        return (E) this.table[i];
+    }
+
+    /**
+     * The iterator starts just after an empty slot and wraps around the end
+     * of the array, as LinearProbingHashTable's does, so that its remove()
+     * only shifts elements into slots it has yet to visit.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private final int start = emptySlot();
+            // slots are visited in the order start, start + 1, ...; these
+            // count from start
+            private int next = advance(0);
+            private int last = -1;
+
+            private int advance(int i) {
+                while (i < table.length && table[slot(i)] == null) {
+                    i++;
+                }
+                return i;
+            }
+
+            private int slot(int i) {
+                return (this.start + i) & (table.length - 1);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.next < table.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                this.last = this.next;
+                this.next = advance(this.next + 1);
+                return (E) table[slot(this.last)];
+            }
+
+            @Override
+            public void remove() {
+                if (this.last < 0) {
+                    throw new IllegalStateException();
+                }
+                deleteAt(slot(this.last));
+                size--;
+                this.next = advance(this.last);
+                this.last = -1;
+            }
+        };
+    }
+
+    /**
+     * Return a histogram of the probe lengths of the elements currently in
+     * the table, along with its mean, max and percentiles.
+     *
+     * @return the probe length statistics of this table
+     */
+    public ProbeStatistics probeStatistics() {
+        int longest = 0;
+        for (int p : this.probes) {
+            longest = Math.max(longest, p);
+        }
+        long[] histogram = new long[longest + 1];
+        for (int p : this.probes) {
+            if (p != 0) {
+                histogram[p]++;
+            }
+        }
+        return new ProbeStatistics(histogram);
+    }
+
+    /**
+     * Resize the hash table to double its current capacity.
+     */
+    @SuppressWarnings("unchecked")
+    public void resize() {
+        Object[] oldTable = this.table;
+        this.n++;
+        this.capacity = 1 << this.n;
+        this.table = new Object[this.capacity];
+        this.probes = new int[this.capacity];
+        int mask = this.capacity - 1;
+        for (Object element : oldTable) {
+            if (element == null) {
+                continue;
+            }
+            int i = hash((E) element);
+            int probe = 1;
+            while (this.probes[i] >= probe) {
+                i = (i + 1) & mask;
+                probe++;
+            }
+            insertAt(i, element, probe);
+        }
+        this.resizeCounter++;
+    }
+
+    /**
+     * Returns the home slot for the given element.
+     * The element's hashCode() is mixed so that its high bits influence
+     * the low bits, and then masked down to the capacity of the table.
+     *
+     * @param e the element to hash
+     * @return the home slot for the element
+     */
+    public int hash(E e) {
+        return Hashing.mix(e.hashCode()) & (this.capacity - 1);
+    }
+
+    /**
+     * Returns the slot holding an element equal to e, or -1 if there is none.
+     */
+    private int indexOf(E e) {
+        if (e == null) {
+            return -1;
+        }
+        int mask = this.capacity - 1;
+        int i = hash(e);
+        int probe = 1;
+        // a resident displaced less than we would be means e is absent
+        while (this.probes[i] >= probe) {
+            if (this.probes[i] == probe && this.table[i].equals(e)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+            probe++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the slot holding an element matching the key k, or -1 if there
+     * is none. Like indexOf(), this gives up at the first richer resident.
+     */
+    @SuppressWarnings("unchecked")
+    private <K> int indexOfKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        int mask = this.capacity - 1;
+        int i = Hashing.mix(hashCode) & mask;
+        int probe = 1;
+        while (this.probes[i] >= probe) {
+            if (this.probes[i] == probe && matcher.test((E) this.table[i], k)) {
+                return i;
+            }
+            i = (i + 1) & mask;
+            probe++;
+        }
+        return -1;
+    }
+
+    /**
+     * Places element in slot i with the given probe length, pushing any
+     * richer residents further along until an empty slot absorbs the last.
+     */
+    private void insertAt(int i, Object element, int probe) {
+        int mask = this.capacity - 1;
+        while (this.probes[i] != 0) {
+            Object displaced = this.table[i];
+            int displacedProbe = this.probes[i];
+            this.table[i] = element;
+            this.probes[i] = probe;
+            element = displaced;
+            probe = displacedProbe;
+            // carry on to the next slot whose resident is richer than the displaced element
+            do {
+                i = (i + 1) & mask;
+                probe++;
+            } while (this.probes[i] >= probe);
+        }
+        this.table[i] = element;
+        this.probes[i] = probe;
+    }
+
+    /**
+     * Returns the index of an empty slot. There always is one, since the
+     * load factor never exceeds 0.75.
+     */
+    private int emptySlot() {
+        int i = 0;
+        while (this.probes[i] != 0) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Empties slot i and shifts the rest of its run back by one slot, stopping
+     * at an empty slot or at an element already in its home slot.
+     */
+    private void deleteAt(int i) {
+        int mask = this.capacity - 1;
+        int next = (i + 1) & mask;
+        while (this.probes[next] > 1) {
+            this.table[i] = this.table[next];
+            this.probes[i] = this.probes[next] - 1;
+            i = next;
+            next = (next + 1) & mask;
+        }
+        this.table[i] = null;
+        this.probes[i] = 0;
+    }
+}
@@ -0,0 +1,58 @@
+package hashtables;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * A GroupMatcher that treats each group as two longs ("SIMD within a
+ * register"), comparing eight control bytes per arithmetic operation.
+ */
+final class SwarGroupMatcher implements GroupMatcher {
+    private static final VarHandle LONGS =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long LSB = 0x0101010101010101L;
+    private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+    private static final long MSB = 0x8080808080808080L;
+    private static final long EMPTY = 0x8080808080808080L;
+
+    @Override
+    public int match(byte[] ctrl, int offset, byte h2) {
+        long pattern = LSB * (h2 & 0xFF);
+        return zeroBytes(word(ctrl, offset) ^ pattern)
+                | zeroBytes(word(ctrl, offset + 8) ^ pattern) << 8;
+    }
+
+    @Override
+    public int matchEmpty(byte[] ctrl, int offset) {
+        return zeroBytes(word(ctrl, offset) ^ EMPTY)
+                | zeroBytes(word(ctrl, offset + 8) ^ EMPTY) << 8;
+    }
+
+    @Override
+    public int matchEmptyOrDeleted(byte[] ctrl, int offset) {
+        return compress(word(ctrl, offset) & MSB)
+                | compress(word(ctrl, offset + 8) & MSB) << 8;
+    }
+
+    private static long word(byte[] ctrl, int offset) {
+        return (long) LONGS.get(ctrl, offset);
+    }
+
+    /**
+     * Returns a mask of the zero bytes of x. Unlike the shorter
+     * (x - LSB) & ~x & MSB, this never reports a false match.
+     */
+    private static int zeroBytes(long x) {
+        long y = (x & LOW7) + LOW7;
+        return compress(~(y | x | LOW7));
+    }
+
+    /**
+     * Gathers the high bit of each byte (and no other bits may be set)
+     * into an 8-bit mask.
+     */
+    private static int compress(long highBits) {
+        return (int) (((highBits >>> 7) * 0x0102040810204080L) >>> 56);
+    }
+}
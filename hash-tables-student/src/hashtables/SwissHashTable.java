@@ -0,0 +1,328 @@
+package hashtables;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiPredicate;
+
+/**
+ * An implementation of HashTable in the style of Abseil's SwissTable.
+ *
+ * Elements are stored in a flat Object[] by open addressing, like
+ * LinearProbingHashTable, but each slot also has a control byte in a
+ * separate byte[]: EMPTY, DELETED, or, for a full slot, the low 7 bits of
+ * the element's mixed hash (its "h2"). The slots are split into groups of
+ * 16. A lookup mixes the hash code once, uses the remaining bits to pick a
+ * starting group, and then compares all 16 control bytes of a group with
+ * h2 at once. Only the slots whose control byte matches (1 in 128 of the
+ * others, by chance) have their element compared with equals(), so a lookup
+ * rarely touches an element it is not looking for. If the group has an
+ * EMPTY slot, the search ends there; otherwise it moves on to the next group
+ * in a triangular sequence, which visits every group.
+ *
+ * The group comparisons are done by a GroupMatcher: with the
+ * jdk.incubator.vector module present (--add-modules jdk.incubator.vector),
+ * by a single 128-bit vector compare; otherwise by SWAR arithmetic on two
+ * longs. The choice is made once, when the class is loaded, and
+ * vectorized() reports it. Setting the system property
+ * hashtables.swiss.vector to false forces the scalar version.
+ *
+ * Removing an element leaves its slot EMPTY if its group still has an EMPTY
+ * slot (so no search ever continued past the group), and DELETED otherwise.
+ * The table keeps at most 7/8 of its slots in use, counting DELETED ones;
+ * when it runs out, it doubles, or if more than half of the used slots are
+ * DELETED, rebuilds at the same capacity to clear them.
+ *
+ * The capacity is a power of two of at least 16.
+ */
+public class SwissHashTable<E> implements KeyedHashTable<E> {
+    static final byte EMPTY = (byte) 0x80;
+    static final byte DELETED = (byte) 0xFE;
+    private static final int GROUP_SIZE = GroupMatcher.GROUP_SIZE;
+    static final GroupMatcher MATCHER = loadMatcher();
+
+    private byte[] ctrl;
+    private Object[] table;
+    private int size;
+    private int capacity;
+    // slots that may still become full before the table must be rebuilt
+    private int growthLeft;
+    private int resizeCounter;
+
+    /**
+     * Instantiate a new hash table. The initial capacity should be 16.
+     */
+    public SwissHashTable() {
+        this(maxLoad(GROUP_SIZE));
+    }
+
+    /**
+     * Instantiate a new hash table. The initial capacity should be at least
+     * sufficient to hold n elements without a resize, and must be a power of
+     * two of at least 16.
+     */
+    public SwissHashTable(int n) {
+        int capacity = GROUP_SIZE;
+        while (maxLoad(capacity) < n) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * @return true iff group scans use the Vector API
+     */
+    public static boolean vectorized() {
+        return !(MATCHER instanceof SwarGroupMatcher);
+    }
+
+    @Override
+    public int capacity() {
+        return this.capacity;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public double loadFactor() {
+        return (double) this.size / this.capacity;
+    }
+
+    @Override
+    public boolean add(E e) {
+        if (e == null) {
+            return false;
+        }
+        return put(e) == null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E put(E e) {
+        int hash = Hashing.mix(e.hashCode());
+        int i = indexOfKey(e, hash, Object::equals);
+        if (i >= 0) {
+            E old = (E) this.table[i];
+            this.table[i] = e;
+            return old;
+        }
+        int slot = findInsertSlot(hash);
+        if (this.growthLeft == 0 && this.ctrl[slot] == EMPTY) {
+            rehash();
+            slot = findInsertSlot(hash);
+        }
+        if (this.ctrl[slot] == EMPTY) {
+            this.growthLeft--;
+        }
+        this.ctrl[slot] = h2(hash);
+        this.table[slot] = e;
+        this.size++;
+        return null;
+    }
+
+    @Override
+    public boolean remove(E e) {
+        if (e == null) {
+            return false;
+        }
+        return removeKey(e, e.hashCode(), Object::equals) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K> E removeKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        int i = indexOfKey(k, Hashing.mix(hashCode), matcher);
+        if (i < 0) {
+            return null;
+        }
+        E old = (E) this.table[i];
+        eraseAt(i);
+        return old;
+    }
+
+    @Override
+    public boolean contains(E e) {
+        return get(e) != null;
+    }
+
+    @Override
+    public E get(E e) {
+        if (e == null) {
+            return null;
+        }
+        return findKey(e, e.hashCode(), Object::equals);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K> E findKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        int i = indexOfKey(k, Hashing.mix(hashCode), matcher);
+        return i < 0 ? null : (E) this.table[i];
+    }
+
+    /**
+     * Return an iterator over the elements in slot order. The iterator
+     * supports remove(): since removal never moves other elements, it does
+     * not disturb the iteration.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int next = advance(0);
+            private int last = -1;
+
+            private int advance(int i) {
+                while (i < capacity && ctrl[i] < 0) {
+                    i++;
+                }
+                return i;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.next < capacity;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                this.last = this.next;
+                this.next = advance(this.next + 1);
+                return (E) table[this.last];
+            }
+
+            @Override
+            public void remove() {
+                if (this.last < 0) {
+                    throw new IllegalStateException();
+                }
+                eraseAt(this.last);
+                this.last = -1;
+            }
+        };
+    }
+
+    /**
+     * Resize the hash table to double its current capacity.
+     */
+    public void resize() {
+        rebuild(this.capacity << 1);
+    }
+
+    /**
+     * Returns the slot holding an element matching k, or -1.
+     */
+    @SuppressWarnings("unchecked")
+    private <K> int indexOfKey(K k, int hash, BiPredicate<? super E, ? super K> matcher) {
+        byte h2 = h2(hash);
+        int groupMask = (this.capacity / GROUP_SIZE) - 1;
+        int group = (hash >>> 7) & groupMask;
+        for (int step = 1; ; step++) {
+            int offset = group * GROUP_SIZE;
+            for (int m = MATCHER.match(this.ctrl, offset, h2); m != 0; m &= m - 1) {
+                int i = offset + Integer.numberOfTrailingZeros(m);
+                if (matcher.test((E) this.table[i], k)) {
+                    return i;
+                }
+            }
+            if (MATCHER.matchEmpty(this.ctrl, offset) != 0 || step > groupMask) {
+                return -1;
+            }
+            group = (group + step) & groupMask;
+        }
+    }
+
+    /**
+     * Returns the first EMPTY or DELETED slot in the probe sequence for hash.
+     */
+    private int findInsertSlot(int hash) {
+        int groupMask = (this.capacity / GROUP_SIZE) - 1;
+        int group = (hash >>> 7) & groupMask;
+        for (int step = 1; ; step++) {
+            int offset = group * GROUP_SIZE;
+            int m = MATCHER.matchEmptyOrDeleted(this.ctrl, offset);
+            if (m != 0) {
+                return offset + Integer.numberOfTrailingZeros(m);
+            }
+            group = (group + step) & groupMask;
+        }
+    }
+
+    private void eraseAt(int i) {
+        int offset = i & -GROUP_SIZE;
+        if (MATCHER.matchEmpty(this.ctrl, offset) != 0) {
+            this.ctrl[i] = EMPTY;
+            this.growthLeft++;
+        } else {
+            this.ctrl[i] = DELETED;
+        }
+        this.table[i] = null;
+        this.size--;
+    }
+
+    /**
+     * Makes room for one more element: doubles the table, or, if DELETED
+     * slots take up more than half of the used ones, rebuilds it at the
+     * same capacity.
+     */
+    private void rehash() {
+        int used = maxLoad(this.capacity) - this.growthLeft;
+        if (this.size <= used / 2) {
+            rebuild(this.capacity);
+        } else {
+            resize();
+        }
+    }
+
+    private void rebuild(int newCapacity) {
+        Object[] oldTable = this.table;
+        byte[] oldCtrl = this.ctrl;
+        allocate(newCapacity);
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldCtrl[i] >= 0) {
+                int hash = Hashing.mix(oldTable[i].hashCode());
+                int slot = findInsertSlot(hash);
+                this.ctrl[slot] = h2(hash);
+                this.table[slot] = oldTable[i];
+                this.size++;
+                this.growthLeft--;
+            }
+        }
+        this.resizeCounter++;
+    }
+
+    private void allocate(int capacity) {
+        this.capacity = capacity;
+        this.ctrl = new byte[capacity];
+        Arrays.fill(this.ctrl, EMPTY);
+        this.table = new Object[capacity];
+        this.size = 0;
+        this.growthLeft = maxLoad(capacity);
+    }
+
+    private static int maxLoad(int capacity) {
+        return capacity - capacity / 8;
+    }
+
+    private static byte h2(int hash) {
+        return (byte) (hash & 0x7F);
+    }
+
+    private static GroupMatcher loadMatcher() {
+        if (Boolean.parseBoolean(System.getProperty("hashtables.swiss.vector", "true"))) {
+            try {
+                return (GroupMatcher) Class.forName("hashtables.VectorGroupMatcher")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // no Vector API: fall through to the scalar version
+            }
+        }
+        return new SwarGroupMatcher();
+    }
+}
@@ -0,0 +1,283 @@
+package hashtables;
+
+import java.util.function.BiPredicate;
+
+/**
+ * A bucket of ChainingHashTable that keeps its elements in a balanced (AVL)
+ * binary search tree rather than a list, so that searching a bucket that
+ * many elements collide into takes O(log n) comparisons rather than O(n).
+ *
+ * Elements are ordered by hashCode(), then, if their keys (see keyOf) are
+ * of the same Comparable class, by compareTo(), and finally by class name
+ * and insertion order, which only serve to make the order total. A search
+ * follows compareTo() where it can. When it reaches an element whose hash
+ * code equals its own but whose key cannot be compared with the one it is
+ * looking for, it has to search both subtrees, so many distinct keys with
+ * equal hash codes that are not Comparable still cost O(n), as they do in
+ * java.util.HashMap.
+ */
+final class TreeBucket<E> {
+    private static final BiPredicate<Object, Object> EQUALS = Object::equals;
+
+    private static final class Node<E> {
+        E element;
+        final int hash;
+        final Object key;
+        final long sequence;
+        Node<E> left;
+        Node<E> right;
+        int height = 1;
+
+        Node(E element, int hash, Object key, long sequence) {
+            this.element = element;
+            this.hash = hash;
+            this.key = key;
+            this.sequence = sequence;
+        }
+    }
+
+    private Node<E> root;
+    private int size;
+    private long nextSequence;
+
+    /**
+     * Builds a tree holding the elements of the given chain.
+     */
+    TreeBucket(Chain<E> chain) {
+        for (int i = 0; i < chain.size(); i++) {
+            this.root = insert(this.root, newNode(chain.get(i), chain.hash(i)));
+            this.size++;
+        }
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the number of levels in the tree
+     */
+    int height() {
+        return height(this.root);
+    }
+
+    E get(E e, int hashCode) {
+        Node<E> node = find(this.root, keyOf(e), hashCode, e, EQUALS);
+        return node == null ? null : node.element;
+    }
+
+    <K> E findKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        Node<E> node = find(this.root, k, hashCode, k, matcher);
+        return node == null ? null : node.element;
+    }
+
+    /**
+     * Adds e, whose hash code is hashCode, unless an element equal to it is
+     * present, in which case that element is returned and, if replace is
+     * true, replaced by e.
+     */
+    E put(E e, int hashCode, boolean replace) {
+        Node<E> node = find(this.root, keyOf(e), hashCode, e, EQUALS);
+        if (node != null) {
+            E old = node.element;
+            if (replace) {
+                node.element = e;
+            }
+            return old;
+        }
+        this.root = insert(this.root, newNode(e, hashCode));
+        this.size++;
+        return null;
+    }
+
+    E remove(E e, int hashCode) {
+        return unlink(find(this.root, keyOf(e), hashCode, e, EQUALS));
+    }
+
+    <K> E removeKey(K k, int hashCode, BiPredicate<? super E, ? super K> matcher) {
+        return unlink(find(this.root, k, hashCode, k, matcher));
+    }
+
+    /**
+     * @return a chain of the elements, in tree order
+     */
+    Chain<E> toChain() {
+        Chain<E> chain = new Chain<>();
+        addTo(this.root, chain);
+        return chain;
+    }
+
+    /**
+     * Returns the key an element is ordered by: its getKey() if it is
+     * Keyed, otherwise the element itself.
+     */
+    static Object keyOf(Object e) {
+        return e instanceof Keyed ? ((Keyed<?>) e).getKey() : e;
+    }
+
+    /**
+     * Searches below p for the element that matcher accepts for k, steering
+     * by hashCode and by key where the keys can be compared.
+     */
+    private <K> Node<E> find(Node<E> p, Object key, int hashCode, K k,
+            BiPredicate<? super E, ? super K> matcher) {
+        while (p != null) {
+            int c = Integer.compare(hashCode, p.hash);
+            if (c == 0) {
+                if (matcher.test(p.element, k)) {
+                    return p;
+                }
+                c = compareKeys(key, p.key);
+                if (c == 0) {
+                    // no way to tell which side it is on
+                    Node<E> q = find(p.right, key, hashCode, k, matcher);
+                    if (q != null) {
+                        return q;
+                    }
+                    c = -1;
+                }
+            }
+            p = c < 0 ? p.left : p.right;
+        }
+        return null;
+    }
+
+    private E unlink(Node<E> node) {
+        if (node == null) {
+            return null;
+        }
+        this.root = delete(this.root, node);
+        this.size--;
+        return node.element;
+    }
+
+    private Node<E> newNode(E e, int hashCode) {
+        return new Node<>(e, hashCode, keyOf(e), this.nextSequence++);
+    }
+
+    /**
+     * Compares two keys if they are of the same Comparable class, and
+     * returns 0 (no order) otherwise.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareKeys(Object a, Object b) {
+        if (a instanceof Comparable && a.getClass() == b.getClass()) {
+            return ((Comparable) a).compareTo(b);
+        }
+        return 0;
+    }
+
+    /**
+     * The total order of the tree: compareKeys, falling back on class name
+     * and insertion order.
+     */
+    private static int order(Node<?> a, Node<?> b) {
+        int c = Integer.compare(a.hash, b.hash);
+        if (c == 0) {
+            c = compareKeys(a.key, b.key);
+        }
+        if (c == 0) {
+            c = a.key.getClass().getName().compareTo(b.key.getClass().getName());
+        }
+        if (c == 0) {
+            c = Long.compare(a.sequence, b.sequence);
+        }
+        return c;
+    }
+
+    private Node<E> insert(Node<E> p, Node<E> node) {
+        if (p == null) {
+            return node;
+        }
+        if (order(node, p) < 0) {
+            p.left = insert(p.left, node);
+        } else {
+            p.right = insert(p.right, node);
+        }
+        return balance(p);
+    }
+
+    private Node<E> delete(Node<E> p, Node<E> target) {
+        if (p == target) {
+            if (p.left == null) {
+                return p.right;
+            }
+            if (p.right == null) {
+                return p.left;
+            }
+            Node<E> successor = p.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(p.right);
+            successor.left = p.left;
+            return balance(successor);
+        }
+        if (order(target, p) < 0) {
+            p.left = delete(p.left, target);
+        } else {
+            p.right = delete(p.right, target);
+        }
+        return balance(p);
+    }
+
+    private Node<E> deleteMin(Node<E> p) {
+        if (p.left == null) {
+            return p.right;
+        }
+        p.left = deleteMin(p.left);
+        return balance(p);
+    }
+
+    private Node<E> balance(Node<E> p) {
+        int balance = height(p.left) - height(p.right);
+        if (balance > 1) {
+            if (height(p.left.left) < height(p.left.right)) {
+                p.left = rotateLeft(p.left);
+            }
+            return rotateRight(p);
+        }
+        if (balance < -1) {
+            if (height(p.right.right) < height(p.right.left)) {
+                p.right = rotateRight(p.right);
+            }
+            return rotateLeft(p);
+        }
+        updateHeight(p);
+        return p;
+    }
+
+    private Node<E> rotateLeft(Node<E> p) {
+        Node<E> r = p.right;
+        p.right = r.left;
+        r.left = p;
+        updateHeight(p);
+        updateHeight(r);
+        return r;
+    }
+
+    private Node<E> rotateRight(Node<E> p) {
+        Node<E> l = p.left;
+        p.left = l.right;
+        l.right = p;
+        updateHeight(p);
+        updateHeight(l);
+        return l;
+    }
+
+    private static void updateHeight(Node<?> p) {
+        p.height = 1 + Math.max(height(p.left), height(p.right));
+    }
+
+    private static int height(Node<?> p) {
+        return p == null ? 0 : p.height;
+    }
+
+    private static <E> void addTo(Node<E> p, Chain<E> chain) {
+        while (p != null) {
+            addTo(p.left, chain);
+            chain.add(p.element, p.hash);
+            p = p.right;
+        }
+    }
+}
@@ -4,7 +4,10 @@
 
 package hashmaps;
 
+import java.util.Collection;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * An interface specifying a sample key-value mapping.
@@ -68,4 +71,139 @@ public interface SimpleMap<K, V> {
      */
     public Set<K> keys();
 
+    /**
+     * Return a view of the keys stored in the map. Unlike keys(), the view is
+     * backed by the map and copies nothing: changes to the map are visible
+     * through it, and removing a key from the view (directly or through its
+     * iterator) removes the mapping from the map. The view does not support
+     * adding keys.
+     * 
+     * @return a live view of the keys stored in the map
+     */
+    public Set<K> keySet();
+
+    /**
+     * Return a view of the values stored in the map, backed by the map in the
+     * same way as keySet().
+     * 
+     * @return a live view of the values stored in the map
+     */
+    public Collection<V> values();
+
+    /**
+     * Return a view of the key-value entries stored in the map, backed by the
+     * map in the same way as keySet().
+     * 
+     * @return a live view of the entries stored in the map
+     */
+    public Set<SimpleMapEntry<K, V>> entries();
+
+    /**
+     * Copy every mapping of m into this map, overwriting the mappings of
+     * keys that are already present.
+     * 
+     * @param m the map to copy from
+     */
+    public default void putAll(SimpleMap<? extends K, ? extends V> m) {
+        for (SimpleMapEntry<? extends K, ? extends V> e : m.entries()) {
+            put(e.getKey(), e.getValue());
+        }
+    }
+
+    /**
+     * If k is not associated with a (non-null) value, compute one with f and
+     * associate it with k, unless it is null.
+     * 
+     * As in java.util.Map, a key mapped to null is treated as absent by
+     * this and the other compute methods. f must not modify the map.
+     * 
+     * @param k the (non-null) key
+     * @param f computes a value for k
+     * @return the value now associated with k, or null if there is none
+     */
+    public default V computeIfAbsent(K k, Function<? super K, ? extends V> f) {
+        if (k == null) {
+            return null;
+        }
+        V v = get(k);
+        if (v == null) {
+            v = f.apply(k);
+            if (v != null) {
+                put(k, v);
+            }
+        }
+        return v;
+    }
+
+    /**
+     * If k is associated with a (non-null) value, replace it with the result
+     * of f, or remove k if f returns null.
+     * 
+     * @param k the (non-null) key
+     * @param f computes a new value from k and its current value
+     * @return the new value associated with k, or null if there is none
+     */
+    public default V computeIfPresent(K k, BiFunction<? super K, ? super V, ? extends V> f) {
+        if (k == null) {
+            return null;
+        }
+        V old = get(k);
+        if (old == null) {
+            return null;
+        }
+        V v = f.apply(k, old);
+        if (v == null) {
+            remove(k);
+        } else {
+            put(k, v);
+        }
+        return v;
+    }
+
+    /**
+     * Associate k with the result of f, which is given k and its current
+     * value (null if there is none); if f returns null, remove k.
+     * 
+     * @param k the (non-null) key
+     * @param f computes a new value from k and its current value
+     * @return the new value associated with k, or null if there is none
+     */
+    public default V compute(K k, BiFunction<? super K, ? super V, ? extends V> f) {
+        if (k == null) {
+            return null;
+        }
+        V v = f.apply(k, get(k));
+        if (v == null) {
+            remove(k);
+        } else {
+            put(k, v);
+        }
+        return v;
+    }
+
+    /**
+     * Associate k with value if it has no (non-null) value yet, and
+     * otherwise with the result of f applied to its current value and
+     * value; if f returns null, remove k. For example, merge(word, 1,
+     * Integer::sum) counts occurrences of word.
+     * 
+     * @param k     the (non-null) key
+     * @param value the (non-null) value to associate or merge
+     * @param f     combines the current value with value
+     * @return the new value associated with k, or null if there is none
+     */
+    public default V merge(K k, V value, BiFunction<? super V, ? super V, ? extends V> f) {
+        if (k == null) {
+            return null;
+        }
+        V old = get(k);
+        V v = old == null ? value : f.apply(old, value);
+        if (v == null) {
+            remove(k);
+        } else {
+            put(k, v);
+        }
+        return v;
+    }
+
 }
@@ -3,6 +3,8 @@
  */
 package hashmaps;
 
+import hashtables.Keyed;
+
 /**
  * An entry representing a key-value pair to be used in an implementation of
  * SimpleMap.
@@ -10,10 +12,15 @@ package hashmaps;
  * The SimpleMapEntry associates a given key and value as a pair.
  * SimpleMapEntries are considered equal on the basis of their keys -- their
  * value is ignored.
+ *
+ * The hash code is computed once, when the entry is created, so that tables
+ * probing or resizing over many entries do not rehash long keys, and equals()
+ * compares it before comparing the keys themselves.
  */
-public class SimpleMapEntry<K, V> {
+public class SimpleMapEntry<K, V> implements Keyed<K> {
     final K k;
     final V v;
+    final int hash;
 
     @Override
     public String toString() {
@@ -23,10 +30,47 @@ public class SimpleMapEntry<K, V> {
     public SimpleMapEntry(K k, V v) {
         this.k = k;
         this.v = v;
+        this.hash = hash(k);
+    }
+
+    /**
+     * Create an entry whose key hash is already known, such as a copy of
+     * another entry.
+     */
+    SimpleMapEntry(K k, V v, int hash) {
+        this.k = k;
+        this.v = v;
+        this.hash = hash;
+    }
+
+    /**
+     * @return the key of this entry
+     */
+    @Override
+    public K getKey() {
+        return k;
+    }
+
+    /**
+     * @return the value of this entry
+     */
+    public V getValue() {
+        return v;
     }
 
     @Override
     public int hashCode() {
+        return hash;
+    }
+
+    /**
+     * Return the hashCode() of any entry whose key is k, without creating
+     * such an entry.
+     * 
+     * @param k the key
+     * @return the hash code of an entry with key k
+     */
+    public static int hash(Object k) {
         final int prime = 31;
         int result = 1;
         result = prime * result + ((k == null) ? 0 : k.hashCode());
@@ -42,6 +86,8 @@ public class SimpleMapEntry<K, V> {
         if (getClass() != obj.getClass())
             return false;
         SimpleMapEntry other = (SimpleMapEntry) obj;
+        if (hash != other.hash)
+            return false;
         if (k == null) {
             if (other.k != null)
                 return false;
@@ -0,0 +1,141 @@
+package hashmaps;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+
+public class ExpiringHashMapTest {
+    private long now = 0;
+
+    private void sleep(long seconds) {
+        this.now += TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    @Test
+    public void testExpireAfterWrite() throws Exception {
+        ExpiringHashMap<String, Integer> m = new ExpiringHashMap<>(10, 0, 0, TimeUnit.SECONDS,
+                null, null, () -> this.now);
+        m.put("a", 1);
+        sleep(5);
+        m.put("b", 2);
+        assertEquals(1, (int) m.get("a"));
+        sleep(6);
+        assertNull(m.get("a"));
+        assertEquals(2, (int) m.getOrDefault("b", -1));
+        assertEquals(1, m.size());
+        sleep(6);
+        assertEquals(-1, (int) m.getOrDefault("b", -1));
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public void testExpireAfterAccess() throws Exception {
+        ExpiringHashMap<String, Integer> m = new ExpiringHashMap<>(0, 10, 0, TimeUnit.SECONDS,
+                null, null, () -> this.now);
+        m.put("a", 1);
+        m.put("b", 2);
+        for (int i = 0; i < 5; i++) {
+            sleep(8);
+            assertEquals(1, (int) m.get("a"));
+        }
+        assertEquals(new HashSet<>(List.of("a")), m.keys());
+    }
+
+    @Test
+    public void testSweeperRemovesUnreadEntries() throws Exception {
+        ExpiringHashMap<Integer, Integer> m = new ExpiringHashMap<>(30, 0, 0, TimeUnit.SECONDS,
+                null, null, () -> this.now);
+        for (int i = 0; i < 1000; i++) {
+            m.put(i, i);
+        }
+        sleep(20);
+        m.cleanUp();
+        assertEquals(1000, m.size());
+        sleep(15);
+        m.cleanUp();
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public void testRefreshAhead() throws Exception {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        AtomicInteger loads = new AtomicInteger();
+        ExpiringHashMap<String, Integer> m = new ExpiringHashMap<>(60, 0, 30, TimeUnit.SECONDS,
+                k -> 100 + loads.incrementAndGet(), tasks::add, () -> this.now);
+        m.put("a", 1);
+        sleep(20);
+        assertEquals(1, (int) m.get("a"));
+        assertTrue(tasks.isEmpty());
+
+        sleep(20);
+        // stale reads return the current value and start a single reload
+        assertEquals(1, (int) m.get("a"));
+        assertEquals(1, (int) m.get("a"));
+        assertEquals(1, tasks.size());
+        tasks.poll().run();
+        assertEquals(101, (int) m.get("a"));
+
+        // the reload restarted the write time
+        sleep(50);
+        assertEquals(101, (int) m.get("a"));
+        tasks.poll().run();
+        sleep(50);
+        assertEquals(102, (int) m.get("a"));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testRefreshDiscardedAfterRemoveAndLoaderFailure() throws Exception {
+        Queue<Runnable> tasks = new ArrayDeque<>();
+        AtomicInteger calls = new AtomicInteger();
+        ExpiringHashMap<String, Integer> m = new ExpiringHashMap<>(0, 0, 1, TimeUnit.SECONDS,
+                k -> {
+                    if (calls.incrementAndGet() == 2) {
+                        throw new IllegalStateException();
+                    }
+                    return 7;
+                }, tasks::add, () -> this.now);
+        m.put("a", 1);
+        sleep(2);
+        m.get("a");
+        m.remove("a");
+        tasks.poll().run();
+        assertNull(m.get("a"));
+
+        m.put("b", 2);
+        sleep(2);
+        m.get("b");
+        tasks.poll().run();
+        assertEquals(2, (int) m.get("b"));
+        tasks.poll().run();
+        assertEquals(7, (int) m.get("b"));
+    }
+
+    @Test
+    public void testIterationSkipsExpiredAndSupportsRemove() throws Exception {
+        ExpiringHashMap<Integer, Integer> m = new ExpiringHashMap<>(10, 0, 0, TimeUnit.SECONDS,
+                null, null, () -> this.now);
+        for (int i = 0; i < 10; i++) {
+            m.put(i, i);
+            sleep(1);
+        }
+        sleep(4);
+        assertEquals(new HashSet<>(List.of(5, 6, 7, 8, 9)), new HashSet<>(m.keySet()));
+        m.values().removeIf(v -> v % 2 == 1);
+        assertEquals(new HashSet<>(List.of(6, 8)), m.keys());
+        assertEquals(2, m.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRefreshNeedsLoader() throws Exception {
+        new ExpiringHashMap<String, Integer>(0, 0, 1, TimeUnit.SECONDS, null, null, System::nanoTime);
+    }
+}
@@ -0,0 +1,96 @@
+package hashmaps;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+public class IntObjectHashMapTest {
+
+    @Test
+    public void testEmpty() throws Exception {
+        IntObjectHashMap<String> m = new IntObjectHashMap<>();
+        assertEquals(0, m.size());
+        assertEquals(null, m.get(0));
+        assertEquals("x", m.getOrDefault(1, "x"));
+        assertFalse(m.containsKey(1));
+    }
+
+    @Test
+    public void testPutGetRemove() throws Exception {
+        IntObjectHashMap<String> m = new IntObjectHashMap<>();
+        assertEquals(null, m.put(0, "zero"));
+        assertEquals(null, m.put(7, "seven"));
+        assertEquals("seven", m.put(7, "SEVEN"));
+        assertEquals(2, m.size());
+        assertEquals("zero", m.get(0));
+        assertEquals("SEVEN", m.get(7));
+
+        assertEquals("zero", m.remove(0));
+        assertEquals(null, m.remove(0));
+        assertEquals("SEVEN", m.remove(7));
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public void testNullValue() throws Exception {
+        IntObjectHashMap<String> m = new IntObjectHashMap<>();
+        m.put(3, null);
+        assertTrue(m.containsKey(3));
+        assertEquals(null, m.getOrDefault(3, "x"));
+        assertEquals(1, m.size());
+    }
+
+    @Test
+    public void testForEach() throws Exception {
+        IntObjectHashMap<String> m = new IntObjectHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            m.put(i, Integer.toString(i));
+        }
+        Map<Integer, String> seen = new HashMap<>();
+        m.forEach((v, k) -> seen.put(k, v));
+        assertEquals(20, seen.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Integer.toString(i), seen.get(i));
+        }
+    }
+
+    @Test
+    public void testManyActions1000() throws Exception {
+        Random random = new Random(0);
+        for (int round = 0; round < 1000; round++) {
+            HashMap<Integer, Integer> hm = new HashMap<>();
+            IntObjectHashMap<Integer> m = new IntObjectHashMap<>();
+            for (int i = 0; i < 1000; i++) {
+                double d = random.nextDouble();
+                int k = random.nextInt(100);
+                if (d < 0.35) {
+                    int v = random.nextInt(100);
+                    assertEquals(hm.put(k, v), m.put(k, v));
+                } else if (d < 0.65) {
+                    assertEquals(hm.remove(k), m.remove(k));
+                } else {
+                    assertEquals(hm.get(k), m.get(k));
+                }
+                assertEquals(hm.size(), m.size());
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testMissOnSmallMap() throws Exception {
+        for (int n = 1; n <= 8; n++) {
+            IntObjectHashMap<String> m = new IntObjectHashMap<>(n);
+            for (int i = 1; i <= n; i++) {
+                m.put(i, "v");
+            }
+            assertTrue(m.size() < m.capacity());
+            assertFalse(m.containsKey(99));
+            assertNull(m.remove(99));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package hashmaps;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+public class LinkedSimpleHashMapTest {
+
+    @Test
+    public void testInsertionOrder() throws Exception {
+        LinkedSimpleHashMap<String, Integer> m = new LinkedSimpleHashMap<>();
+        m.put("c", 3);
+        m.put("a", 1);
+        m.put("b", 2);
+        assertEquals(1, (int) m.get("a"));
+        assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<>(m.keySet()));
+        assertEquals(Arrays.asList(3, 1, 2), new ArrayList<>(m.values()));
+        assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<>(m.keys()));
+        assertFalse(m.accessOrder());
+    }
+
+    @Test
+    public void testReplaceKeepsInsertionPlace() throws Exception {
+        LinkedSimpleHashMap<String, Integer> m = new LinkedSimpleHashMap<>();
+        m.put("a", 1);
+        m.put("b", 2);
+        m.put("c", 3);
+        m.put("a", 10);
+        assertEquals(3, m.size());
+        assertEquals(10, (int) m.get("a"));
+        assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(m.keySet()));
+        m.remove("a");
+        m.put("a", 1);
+        assertEquals(Arrays.asList("b", "c", "a"), new ArrayList<>(m.keySet()));
+    }
+
+    @Test
+    public void testAccessOrder() throws Exception {
+        LinkedSimpleHashMap<String, Integer> m = new LinkedSimpleHashMap<>(true);
+        m.put("a", 1);
+        m.put("b", 2);
+        m.put("c", 3);
+        m.get("a");
+        assertEquals(Arrays.asList("b", "c", "a"), new ArrayList<>(m.keySet()));
+        m.put("b", 20);
+        assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<>(m.keySet()));
+        assertEquals(0, (int) m.getOrDefault("z", 0));
+        assertEquals(Arrays.asList("c", "a", "b"), new ArrayList<>(m.keySet()));
+        assertTrue(m.accessOrder());
+    }
+
+    @Test
+    public void testIteratorRemove() throws Exception {
+        LinkedSimpleHashMap<Integer, Integer> m = new LinkedSimpleHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            m.put(i, i);
+        }
+        Iterator<Integer> it = m.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(50, m.size());
+        int expected = 1;
+        for (int k : m.keySet()) {
+            assertEquals(expected, k);
+            expected += 2;
+        }
+        assertNull(m.get(10));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testIteratorFailsFast() throws Exception {
+        LinkedSimpleHashMap<String, Integer> m = new LinkedSimpleHashMap<>();
+        m.put("a", 1);
+        m.put("b", 2);
+        Iterator<String> it = m.keySet().iterator();
+        it.next();
+        m.put("c", 3);
+        it.next();
+    }
+
+    @Test
+    public void testComputeAndPutAll() throws Exception {
+        LinkedSimpleHashMap<String, Integer> m = new LinkedSimpleHashMap<>();
+        for (String w : "the cat sat on the mat the end".split(" ")) {
+            m.merge(w, 1, Integer::sum);
+        }
+        assertEquals(Arrays.asList("the", "cat", "sat", "on", "mat", "end"), new ArrayList<>(m.keySet()));
+        assertEquals(3, (int) m.get("the"));
+
+        LinkedSimpleHashMap<String, Integer> copy = new LinkedSimpleHashMap<>();
+        copy.put("zebra", 0);
+        copy.putAll(m);
+        assertEquals(Arrays.asList("zebra", "the", "cat", "sat", "on", "mat", "end"), new ArrayList<>(copy.keySet()));
+        assertEquals(3, (int) copy.get("the"));
+    }
+
+    @Test
+    public void testRandomAgainstLinkedHashMap() throws Exception {
+        for (boolean accessOrder : new boolean[] {false, true}) {
+            LinkedSimpleHashMap<Integer, Integer> m = new LinkedSimpleHashMap<>(accessOrder);
+            Map<Integer, Integer> expected = new LinkedHashMap<>(16, 0.75f, accessOrder);
+            Random random = new Random(25);
+            for (int i = 0; i < 20000; i++) {
+                int k = random.nextInt(500);
+                switch (random.nextInt(3)) {
+                    case 0:
+                        m.put(k, i);
+                        expected.put(k, i);
+                        break;
+                    case 1:
+                        assertEquals(expected.get(k), m.get(k));
+                        break;
+                    default:
+                        assertEquals(expected.remove(k), m.remove(k));
+                }
+            }
+            assertEquals(expected.size(), m.size());
+            List<Integer> keys = new ArrayList<>(m.keySet());
+            assertEquals(new ArrayList<>(expected.keySet()), keys);
+            assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(m.values()));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package hashmaps;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+
+public class LockFreeHashMapTest {
+
+    @Test
+    public void testEmpty() throws Exception {
+        LockFreeHashMap<Integer, Integer> m = new LockFreeHashMap<>();
+        assertEquals(0, m.size());
+        assertEquals(null, m.get(1));
+        assertEquals(new HashSet<>(), m.keys());
+    }
+
+    @Test
+    public void testAtomicOperations() throws Exception {
+        LockFreeHashMap<String, Integer> m = new LockFreeHashMap<>();
+        assertEquals(null, m.putIfAbsent("a", 1));
+        assertEquals(Integer.valueOf(1), m.putIfAbsent("a", 2));
+        assertEquals(Integer.valueOf(1), m.get("a"));
+
+        assertEquals(null, m.replace("b", 5));
+        assertEquals(null, m.get("b"));
+        assertEquals(Integer.valueOf(1), m.replace("a", 3));
+        assertFalse(m.replace("a", 1, 4));
+        assertTrue(m.replace("a", 3, 4));
+        assertEquals(Integer.valueOf(4), m.get("a"));
+
+        assertEquals(Integer.valueOf(4), m.computeIfAbsent("a", k -> 9));
+        assertEquals(Integer.valueOf(2), m.computeIfAbsent("bb", String::length));
+        assertEquals(null, m.computeIfAbsent("c", k -> null));
+        assertEquals(2, m.size());
+
+        assertFalse(m.remove("a", 3));
+        assertTrue(m.remove("a", 4));
+        assertEquals(1, m.size());
+    }
+
+    @Test
+    public void testManyActions1000() throws Exception {
+        Random random = new Random(0);
+        for (int round = 0; round < 1000; round++) {
+            HashMap<Integer, Integer> hm = new HashMap<>();
+            LockFreeHashMap<Integer, Integer> m = new LockFreeHashMap<>(1);
+            for (int i = 0; i < 1000; i++) {
+                double d = random.nextDouble();
+                int k = random.nextInt(100);
+                if (d < 0.35) {
+                    int v = random.nextInt(100);
+                    m.put(k, v);
+                    hm.put(k, v);
+                } else if (d < 0.5) {
+                    int v = random.nextInt(100);
+                    assertEquals(hm.putIfAbsent(k, v), m.putIfAbsent(k, v));
+                } else if (d < 0.65) {
+                    assertEquals(hm.remove(k), m.remove(k));
+                } else {
+                    assertEquals(hm.get(k), m.get(k));
+                }
+                assertEquals(hm.size(), m.size());
+            }
+            assertEquals(hm.keySet(), m.keys());
+        }
+    }
+
+    @Test
+    public void testConcurrentInsertsWithResizing() throws Exception {
+        final int THREADS = 8;
+        final int PER_THREAD = 20000;
+        LockFreeHashMap<Integer, Integer> m = new LockFreeHashMap<>(1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int w = 0; w < THREADS; w++) {
+            final int base = w * PER_THREAD;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        m.put(base + i, i);
+                        assertEquals(Integer.valueOf(i), m.get(base + i));
+                    }
+                    for (int i = 0; i < PER_THREAD; i += 2) {
+                        assertEquals(Integer.valueOf(i), m.remove(base + i));
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(new ArrayList<Throwable>(), failures);
+
+        assertEquals(THREADS * PER_THREAD / 2, m.size());
+        for (int i = 0; i < THREADS * PER_THREAD; i++) {
+            assertEquals(i % 2 == 0 ? null : Integer.valueOf(i % PER_THREAD), m.get(i));
+        }
+        Set<Integer> keys = new HashSet<>(m.keySet());
+        assertEquals(THREADS * PER_THREAD / 2, keys.size());
+    }
+
+    @Test
+    public void testConcurrentPutIfAbsentHasOneWinner() throws Exception {
+        final int THREADS = 8;
+        final int KEYS = 5000;
+        LockFreeHashMap<Integer, Integer> m = new LockFreeHashMap<>(1);
+        AtomicInteger wins = new AtomicInteger();
+        AtomicInteger computed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < THREADS; w++) {
+            final int id = w;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int k = 0; k < KEYS; k++) {
+                    if (m.putIfAbsent(k, id) == null) {
+                        wins.incrementAndGet();
+                    }
+                    m.computeIfAbsent(-k - 1, key -> {
+                        computed.incrementAndGet();
+                        return id;
+                    });
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(KEYS, wins.get());
+        assertTrue(computed.get() >= KEYS);
+        assertEquals(2 * KEYS, m.size());
+    }
+
+    @Test
+    public void testConcurrentMergeCountsEveryIncrement() throws Exception {
+        final int THREADS = 8;
+        final int KEYS = 100;
+        final int ROUNDS = 2000;
+        LockFreeHashMap<Integer, Integer> m = new LockFreeHashMap<>(1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < THREADS; w++) {
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int r = 0; r < ROUNDS; r++) {
+                    m.merge(r % KEYS, 1, Integer::sum);
+                    m.compute(-1, (k, v) -> v == null ? 1 : v + 1);
+                    m.computeIfPresent(-2, (k, v) -> v + 1);
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        start.countDown();
+        for (Thread t : threads) {
+            t.join();
+        }
+        for (int k = 0; k < KEYS; k++) {
+            assertEquals(THREADS * ROUNDS / KEYS, (int) m.get(k));
+        }
+        assertEquals(THREADS * ROUNDS, (int) m.get(-1));
+        assertNull(m.get(-2));
+        assertEquals(KEYS + 1, m.size());
+    }
+
+    @Test
+    public void testComputeIfAbsentReplacesNullValue() throws Exception {
+        LockFreeHashMap<String, Integer> m = new LockFreeHashMap<>();
+        m.put("a", null);
+        assertEquals(Integer.valueOf(42), m.computeIfAbsent("a", k -> 42));
+        assertEquals(Integer.valueOf(42), m.get("a"));
+        assertEquals(1, m.size());
+        m.put("b", null);
+        assertNull(m.computeIfAbsent("b", k -> null));
+        assertTrue(m.keySet().contains("b"));
+        assertEquals(2, m.size());
+    }
+}
@@ -0,0 +1,76 @@
+package hashmaps;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+public class LongLongHashMapTest {
+
+    @Test
+    public void testPutGetRemove() throws Exception {
+        LongLongHashMap m = new LongLongHashMap();
+        assertEquals(-1, m.getOrDefault(5, -1));
+        m.put(5, 50);
+        m.put(0, 1);
+        m.put(5, 55);
+        assertEquals(2, m.size());
+        assertEquals(55, m.getOrDefault(5, -1));
+        assertEquals(1, m.getOrDefault(0, -1));
+
+        assertTrue(m.remove(5));
+        assertFalse(m.remove(5));
+        assertFalse(m.containsKey(5));
+        assertEquals(1, m.size());
+    }
+
+    @Test
+    public void testAddTo() throws Exception {
+        LongLongHashMap m = new LongLongHashMap();
+        assertEquals(3, m.addTo(9, 3));
+        assertEquals(7, m.addTo(9, 4));
+        assertEquals(-2, m.addTo(0, -2));
+        assertEquals(2, m.size());
+        assertEquals(7, m.getOrDefault(9, 0));
+    }
+
+    @Test
+    public void testManyActions1000() throws Exception {
+        Random random = new Random(0);
+        for (int round = 0; round < 1000; round++) {
+            HashMap<Long, Long> hm = new HashMap<>();
+            LongLongHashMap m = new LongLongHashMap();
+            for (int i = 0; i < 1000; i++) {
+                double d = random.nextDouble();
+                long k = random.nextInt(100);
+                if (d < 0.35) {
+                    long v = random.nextInt(100);
+                    hm.merge(k, v, Long::sum);
+                    assertEquals((long) hm.get(k), m.addTo(k, v));
+                } else if (d < 0.65) {
+                    assertEquals(hm.remove(k) != null, m.remove(k));
+                } else {
+                    assertEquals((long) hm.getOrDefault(k, -1L), m.getOrDefault(k, -1));
+                }
+                assertEquals(hm.size(), m.size());
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testMissOnSmallMap() throws Exception {
+        for (int n = 1; n <= 8; n++) {
+            LongLongHashMap m = new LongLongHashMap(n);
+            for (long i = 1; i <= n; i++) {
+                m.put(i, i);
+            }
+            assertTrue(m.size() < m.capacity());
+            assertFalse(m.containsKey(99));
+            assertEquals(-1, m.getOrDefault(99, -1));
+            assertFalse(m.remove(99));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package hashmaps;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+public class LongObjectHashMapTest {
+
+    @Test
+    public void testEmpty() throws Exception {
+        LongObjectHashMap<String> m = new LongObjectHashMap<>();
+        assertEquals(0, m.size());
+        assertEquals(null, m.get(0));
+        assertEquals("x", m.getOrDefault(1, "x"));
+        assertFalse(m.containsKey(1));
+    }
+
+    @Test
+    public void testPutGetRemove() throws Exception {
+        LongObjectHashMap<String> m = new LongObjectHashMap<>();
+        assertEquals(null, m.put(0, "zero"));
+        assertEquals(null, m.put(7, "seven"));
+        assertEquals("seven", m.put(7, "SEVEN"));
+        assertEquals(2, m.size());
+        assertEquals("zero", m.get(0));
+        assertEquals("SEVEN", m.get(7));
+
+        assertEquals("zero", m.remove(0));
+        assertEquals(null, m.remove(0));
+        assertEquals("SEVEN", m.remove(7));
+        assertEquals(0, m.size());
+    }
+
+    @Test
+    public void testNullValue() throws Exception {
+        LongObjectHashMap<String> m = new LongObjectHashMap<>();
+        m.put(3, null);
+        assertTrue(m.containsKey(3));
+        assertEquals(null, m.getOrDefault(3, "x"));
+        assertEquals(1, m.size());
+    }
+
+    @Test
+    public void testForEach() throws Exception {
+        LongObjectHashMap<String> m = new LongObjectHashMap<>();
+        for (long i = 0; i < 20; i++) {
+            m.put(i, Long.toString(i));
+        }
+        Map<Long, String> seen = new HashMap<>();
+        m.forEach((v, k) -> seen.put(k, v));
+        assertEquals(20, seen.size());
+        for (long i = 0; i < 20; i++) {
+            assertEquals(Long.toString(i), seen.get(i));
+        }
+    }
+
+    @Test
+    public void testManyActions1000() throws Exception {
+        Random random = new Random(0);
+        for (int round = 0; round < 1000; round++) {
+            HashMap<Long, Integer> hm = new HashMap<>();
+            LongObjectHashMap<Integer> m = new LongObjectHashMap<>();
+            for (int i = 0; i < 1000; i++) {
+                double d = random.nextDouble();
+                long k = random.nextInt(100);
+                if (d < 0.35) {
+                    int v = random.nextInt(100);
+                    assertEquals(hm.put(k, v), m.put(k, v));
+                } else if (d < 0.65) {
+                    assertEquals(hm.remove(k), m.remove(k));
+                } else {
+                    assertEquals(hm.get(k), m.get(k));
+                }
+                assertEquals(hm.size(), m.size());
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testMissOnSmallMap() throws Exception {
+        for (int n = 1; n <= 8; n++) {
+            LongObjectHashMap<String> m = new LongObjectHashMap<>(n);
+            for (long i = 1; i <= n; i++) {
+                m.put(i, "v");
+            }
+            assertTrue(m.size() < m.capacity());
+            assertFalse(m.containsKey(99));
+            assertNull(m.remove(99));
+        }
+    }
+}
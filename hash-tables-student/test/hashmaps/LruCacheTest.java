@@ -0,0 +1,133 @@
+package hashmaps;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+public class LruCacheTest {
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() throws Exception {
+        LruCache<String, Integer> c = new LruCache<>(3);
+        c.put("a", 1);
+        c.put("b", 2);
+        c.put("c", 3);
+        assertEquals(1, (int) c.get("a"));
+        c.put("d", 4);
+        assertEquals(3, c.size());
+        assertNull(c.get("b"));
+        assertEquals(Arrays.asList("c", "a", "d"), new ArrayList<>(c.keySet()));
+    }
+
+    @Test
+    public void testPutReplacesAndRefreshes() throws Exception {
+        LruCache<String, Integer> c = new LruCache<>(2);
+        c.put("a", 1);
+        c.put("b", 2);
+        c.put("a", 10);
+        c.put("c", 3);
+        assertEquals(2, c.size());
+        assertEquals(10, (int) c.get("a"));
+        assertNull(c.get("b"));
+        assertEquals(1, c.stats().evictionCount());
+    }
+
+    @Test
+    public void testEvictionListener() throws Exception {
+        List<String> evicted = new ArrayList<>();
+        LruCache<String, Integer> c = new LruCache<>(2, (k, v) -> evicted.add(k + "=" + v));
+        c.put("a", 1);
+        c.put("b", 2);
+        c.remove("a");
+        c.put("c", 3);
+        c.put("d", 4);
+        c.put("d", 5);
+        assertEquals(Arrays.asList("b=2"), evicted);
+    }
+
+    @Test
+    public void testStats() throws Exception {
+        LruCache<String, Integer> c = new LruCache<>(1);
+        assertEquals(1.0, c.stats().hitRate(), 0.0);
+        c.put("a", 1);
+        c.get("a");
+        c.get("b");
+        assertEquals(-1, (int) c.getOrDefault("c", -1));
+        c.put("b", 2);
+        CacheStats s = c.stats();
+        assertEquals(1, s.hitCount());
+        assertEquals(2, s.missCount());
+        assertEquals(3, s.requestCount());
+        assertEquals(1, s.evictionCount());
+        assertEquals(1.0 / 3, s.hitRate(), 1e-9);
+    }
+
+    @Test
+    public void testIteratorRemoveAndFailFast() throws Exception {
+        LruCache<Integer, Integer> c = new LruCache<>(10);
+        for (int i = 0; i < 5; i++) {
+            c.put(i, i);
+        }
+        Iterator<Integer> it = c.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(Arrays.asList(1, 3), new ArrayList<>(c.keySet()));
+
+        it = c.keySet().iterator();
+        it.next();
+        c.get(1);
+        try {
+            it.next();
+            fail();
+        } catch (ConcurrentModificationException e) {
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNonPositiveSize() throws Exception {
+        new LruCache<String, Integer>(0);
+    }
+
+    @Test
+    public void testMatchesLinkedHashMap() throws Exception {
+        Random random = new Random(0);
+        for (int round = 0; round < 200; round++) {
+            int max = 1 + random.nextInt(20);
+            Map<Integer, Integer> expected = new LinkedHashMap<Integer, Integer>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                    return size() > max;
+                }
+            };
+            LruCache<Integer, Integer> c = new LruCache<>(max);
+            for (int i = 0; i < 1000; i++) {
+                double d = random.nextDouble();
+                int k = random.nextInt(40);
+                if (d < 0.4) {
+                    int v = random.nextInt();
+                    expected.put(k, v);
+                    c.put(k, v);
+                } else if (d < 0.5) {
+                    assertEquals(expected.remove(k), c.remove(k));
+                } else {
+                    assertEquals(expected.get(k), c.get(k));
+                }
+                assertEquals(expected.size(), c.size());
+            }
+            assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(c.keySet()));
+        }
+    }
+}
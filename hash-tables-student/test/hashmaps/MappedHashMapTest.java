@@ -0,0 +1,204 @@
+package hashmaps;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+public class MappedHashMapTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path path() {
+        return this.folder.getRoot().toPath().resolve("map.idx");
+    }
+
+    @Test
+    public void testPutGetRemove() throws Exception {
+        try (MappedHashMap<String, String> m = new MappedHashMap<>(path(), Codec.STRING, Codec.STRING)) {
+            m.put("a", "apple");
+            m.put("b", "banana");
+            m.put("a", "avocado");
+            assertEquals(2, m.size());
+            assertEquals("avocado", m.get("a"));
+            assertEquals("none", m.getOrDefault("c", "none"));
+            assertEquals("banana", m.remove("b"));
+            assertNull(m.remove("b"));
+            assertEquals(1, m.size());
+            assertEquals(new HashSet<>(List.of("a")), m.keys());
+            assertTrue(m.garbageBytes() > 0);
+        }
+    }
+
+    @Test
+    public void testReopenKeepsEntries() throws Exception {
+        try (MappedHashMap<Integer, String> m = new MappedHashMap<>(path(), Codec.INTEGER, Codec.STRING)) {
+            for (int i = 0; i < 10000; i++) {
+                m.put(i, "v" + i);
+            }
+            for (int i = 0; i < 10000; i += 3) {
+                m.remove(i);
+            }
+        }
+        assertTrue(Files.exists(MappedHashMap.dataPath(path())));
+        try (MappedHashMap<Integer, String> m = new MappedHashMap<>(path(), Codec.INTEGER, Codec.STRING)) {
+            assertEquals(10000 - 3334, m.size());
+            assertTrue(m.capacity() >= 10000 - 3334);
+            for (int i = 0; i < 10000; i++) {
+                assertEquals(i % 3 == 0 ? null : "v" + i, m.get(i));
+            }
+            m.put(0, "zero");
+        }
+        try (MappedHashMap<Integer, String> m = new MappedHashMap<>(path(), Codec.INTEGER, Codec.STRING)) {
+            assertEquals("zero", m.get(0));
+            int count = 0;
+            for (SimpleMapEntry<Integer, String> e : m.entries()) {
+                assertEquals(e.getKey() == 0 ? "zero" : "v" + e.getKey(), e.getValue());
+                count++;
+            }
+            assertEquals(m.size(), count);
+        }
+    }
+
+    @Test
+    public void testManyActionsMatchHashMap() throws Exception {
+        Random random = new Random(0);
+        HashMap<Long, byte[]> expected = new HashMap<>();
+        try (MappedHashMap<Long, byte[]> m = new MappedHashMap<>(path(), Codec.LONG, Codec.BYTES)) {
+            for (int i = 0; i < 20000; i++) {
+                long k = random.nextInt(2000);
+                double d = random.nextDouble();
+                if (d < 0.5) {
+                    byte[] v = new byte[random.nextInt(40)];
+                    random.nextBytes(v);
+                    expected.put(k, v);
+                    m.put(k, v);
+                } else if (d < 0.75) {
+                    byte[] v = expected.remove(k);
+                    byte[] actual = m.remove(k);
+                    assertEquals(v == null, actual == null);
+                    if (v != null) {
+                        assertArrayEquals(v, actual);
+                    }
+                } else {
+                    byte[] v = expected.get(k);
+                    if (v == null) {
+                        assertNull(m.get(k));
+                    } else {
+                        assertArrayEquals(v, m.get(k));
+                    }
+                }
+                assertEquals(expected.size(), m.size());
+            }
+        }
+    }
+
+    @Test
+    public void testViewsRemove() throws Exception {
+        try (MappedHashMap<Integer, Integer> m = new MappedHashMap<>(path(), Codec.INTEGER, Codec.INTEGER)) {
+            for (int i = 0; i < 10; i++) {
+                m.put(i, i);
+            }
+            assertTrue(m.keySet().remove(4));
+            assertFalse(m.keySet().remove(40));
+            assertEquals(9, m.size());
+            assertFalse(m.keySet().contains(4));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsForeignFile() throws Exception {
+        Files.write(path(), new byte[128]);
+        new MappedHashMap<>(path(), Codec.STRING, Codec.STRING);
+    }
+
+    @Test
+    public void testOverwritesKeepDataFileSmall() throws Exception {
+        try (MappedHashMap<String, String> m = new MappedHashMap<>(path(), Codec.STRING, Codec.STRING)) {
+            for (int i = 0; i < 100000; i++) {
+                m.put("key", "value " + i);
+            }
+            assertEquals(1, m.size());
+            assertTrue(m.garbageBytes() < MappedHashMap.COMPACT_MIN_GARBAGE + 64);
+        }
+        assertTrue(Files.size(MappedHashMap.dataPath(path())) < 1 << 20);
+        try (MappedHashMap<String, String> m = new MappedHashMap<>(path(), Codec.STRING, Codec.STRING)) {
+            assertEquals("value 99999", m.get("key"));
+        }
+    }
+
+    @Test
+    public void testCompactSurvivesReopen() throws Exception {
+        try (MappedHashMap<Integer, String> m = new MappedHashMap<>(path(), Codec.INTEGER, Codec.STRING)) {
+            for (int i = 0; i < 1000; i++) {
+                m.put(i, "v" + i);
+            }
+            for (int i = 0; i < 1000; i += 2) {
+                m.remove(i);
+            }
+            m.put(1, null);
+            m.compact();
+            assertEquals(0, m.garbageBytes());
+            assertEquals("v3", m.get(3));
+        }
+        try (MappedHashMap<Integer, String> m = new MappedHashMap<>(path(), Codec.INTEGER, Codec.STRING)) {
+            assertEquals(500, m.size());
+            assertEquals(0, m.garbageBytes());
+            assertNull(m.get(1));
+            assertTrue(m.keySet().contains(1));
+            for (int i = 3; i < 1000; i += 2) {
+                assertEquals("v" + i, m.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testRecoversInterruptedCompaction() throws Exception {
+        Path old = this.folder.getRoot().toPath().resolve("old.idx");
+        try (MappedHashMap<Integer, String> m = new MappedHashMap<>(path(), Codec.INTEGER, Codec.STRING)) {
+            for (int i = 0; i < 100; i++) {
+                m.put(i, "v" + i);
+            }
+            m.remove(0);
+            m.force();
+            Files.copy(path(), old);
+            m.compact();
+        }
+        // as if the crash came after the data file moved but before the index did
+        Path pending = path().resolveSibling(path().getFileName() + ".resize");
+        Files.move(path(), pending);
+        Files.copy(old, path());
+        try (MappedHashMap<Integer, String> m = new MappedHashMap<>(path(), Codec.INTEGER, Codec.STRING)) {
+            assertEquals(99, m.size());
+            assertEquals(0, m.garbageBytes());
+            for (int i = 1; i < 100; i++) {
+                assertEquals("v" + i, m.get(i));
+            }
+        }
+        assertFalse(Files.exists(pending));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsIndexBehindData() throws Exception {
+        Path old = this.folder.getRoot().toPath().resolve("old.idx");
+        try (MappedHashMap<Integer, String> m = new MappedHashMap<>(path(), Codec.INTEGER, Codec.STRING)) {
+            m.put(1, "one");
+            m.force();
+            Files.copy(path(), old);
+            m.compact();
+        }
+        Files.copy(old, path(), StandardCopyOption.REPLACE_EXISTING);
+        new MappedHashMap<>(path(), Codec.INTEGER, Codec.STRING);
+    }
+}
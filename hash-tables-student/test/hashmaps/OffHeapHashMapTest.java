@@ -0,0 +1,131 @@
+package hashmaps;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+public class OffHeapHashMapTest {
+
+    @Test
+    public void testPutGetRemove() throws Exception {
+        OffHeapHashMap<String, String> m = new OffHeapHashMap<>(Codec.STRING, Codec.STRING);
+        m.put("a", "apple");
+        m.put("b", "banana");
+        m.put("a", "avocado");
+        assertEquals(2, m.size());
+        assertEquals("avocado", m.get("a"));
+        assertEquals("none", m.getOrDefault("c", "none"));
+        assertEquals("banana", m.remove("b"));
+        assertNull(m.remove("b"));
+        assertNull(m.get(null));
+        assertEquals(1, m.size());
+        assertEquals(new HashSet<>(List.of("a")), m.keys());
+        assertTrue(m.garbageBytes() > 0);
+    }
+
+    @Test
+    public void testGrows() throws Exception {
+        OffHeapHashMap<Integer, String> m = new OffHeapHashMap<>(Codec.INTEGER, Codec.STRING);
+        for (int i = 0; i < 100000; i++) {
+            m.put(i, "value " + i);
+        }
+        assertEquals(100000, m.size());
+        assertTrue(m.capacity() >= 100000 / 0.75);
+        for (int i = 0; i < 100000; i++) {
+            assertEquals("value " + i, m.get(i));
+        }
+        int count = 0;
+        for (SimpleMapEntry<Integer, String> e : m.entries()) {
+            assertEquals("value " + e.getKey(), e.getValue());
+            count++;
+        }
+        assertEquals(100000, count);
+    }
+
+    @Test
+    public void testManyActionsMatchHashMap() throws Exception {
+        Random random = new Random(0);
+        for (int round = 0; round < 20; round++) {
+            HashMap<Long, String> expected = new HashMap<>();
+            OffHeapHashMap<Long, String> m = new OffHeapHashMap<>(Codec.LONG, Codec.STRING);
+            for (int i = 0; i < 2000; i++) {
+                long k = random.nextInt(200);
+                double d = random.nextDouble();
+                if (d < 0.5) {
+                    String v = Integer.toString(random.nextInt(), 36);
+                    expected.put(k, v);
+                    m.put(k, v);
+                } else if (d < 0.75) {
+                    assertEquals(expected.remove(k), m.remove(k));
+                } else {
+                    assertEquals(expected.get(k), m.get(k));
+                }
+                assertEquals(expected.size(), m.size());
+            }
+            assertEquals(expected.keySet(), m.keys());
+        }
+    }
+
+    @Test
+    public void testNullValue() throws Exception {
+        OffHeapHashMap<String, String> m = new OffHeapHashMap<>(Codec.STRING, Codec.STRING);
+        m.put("a", null);
+        assertEquals(1, m.size());
+        assertNull(m.get("a"));
+        assertTrue(m.keySet().contains("a"));
+        assertNull(m.getOrDefault("a", "x"));
+        m.put("a", "apple");
+        assertEquals("apple", m.get("a"));
+        m.put("a", null);
+        assertNull(m.remove("a"));
+        assertEquals(0, m.size());
+        assertEquals(42, (int) new OffHeapHashMap<String, Integer>(Codec.STRING, Codec.INTEGER)
+                .computeIfAbsent("k", k -> 42));
+    }
+
+    @Test
+    public void testOverwritesDoNotLeak() throws Exception {
+        OffHeapHashMap<String, String> m = new OffHeapHashMap<>(Codec.STRING, Codec.STRING);
+        for (int i = 0; i < 100000; i++) {
+            m.put("key", "value " + i);
+            assertTrue(m.garbageBytes() < OffHeapHashMap.COMPACT_MIN_GARBAGE + 64);
+        }
+        assertEquals(1, m.size());
+        assertEquals("value 99999", m.get("key"));
+        for (int i = 0; i < 100000; i++) {
+            m.put("key" + (i % 10), "v");
+            m.remove("key" + (i % 10));
+        }
+        assertTrue(m.garbageBytes() < OffHeapHashMap.COMPACT_MIN_GARBAGE + 64);
+        assertEquals("value 99999", m.get("key"));
+    }
+
+    @Test
+    public void testCompact() throws Exception {
+        OffHeapHashMap<Integer, String> m = new OffHeapHashMap<>(Codec.INTEGER, Codec.STRING);
+        for (int i = 0; i < 1000; i++) {
+            m.put(i, "value " + i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            m.remove(i);
+        }
+        m.put(1, null);
+        assertTrue(m.garbageBytes() > 0);
+        m.compact();
+        assertEquals(0, m.garbageBytes());
+        assertEquals(500, m.size());
+        assertNull(m.get(1));
+        assertTrue(m.keySet().contains(1));
+        for (int i = 3; i < 1000; i += 2) {
+            assertEquals("value " + i, m.get(i));
+        }
+        m.put(1000, "more");
+        assertEquals("more", m.get(1000));
+    }
+}
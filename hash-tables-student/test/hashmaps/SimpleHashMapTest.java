@@ -6,13 +6,23 @@ package hashmaps;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
 import java.util.Random;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import hashtables.CuckooHashTable;
+import hashtables.LinearProbingHashTable;
+import hashtables.RobinHoodHashTable;
+
 
 public class SimpleHashMapTest {
     //  @Rule
@@ -168,4 +178,316 @@ public class SimpleHashMapTest {
         }
     }
 
+    @Test
+    public void testManyActionsLinearProbing() throws Exception {
+        final int ACTIONS = 10000;
+        final int BOUND = 100;
+        Random random = new Random(0);
+
+        HashMap<Integer, Integer> hm = new HashMap<>();
+        SimpleHashMap<Integer, Integer> m =
+                new SimpleHashMap<>(new LinearProbingHashTable<SimpleMapEntry<Integer, Integer>>());
+
+        for (int i = 0; i < ACTIONS; i++) {
+            double d = random.nextDouble();
+            int k = random.nextInt(BOUND);
+            if (d < 0.35) {
+                int v = random.nextInt(BOUND);
+                m.put(k, v);
+                hm.put(k, v);
+                assertEquals(Integer.valueOf(v), m.get(k));
+            } else if (d < 0.65) {
+                assertEquals(hm.remove(k), m.remove(k));
+            } else {
+                assertEquals(hm.get(k), m.get(k));
+            }
+            assertEquals(hm.size(), m.size());
+        }
+        assertEquals(hm.keySet(), m.keys());
+    }
+
+    /**
+     * A key that counts how often its hash code is computed.
+     */
+    static class CountingKey {
+        static int hashCodes = 0;
+        final int id;
+
+        CountingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            hashCodes++;
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CountingKey && ((CountingKey) obj).id == id;
+        }
+    }
+
+    @Test
+    public void testSingleHashPerOperation() throws Exception {
+        SimpleMap<CountingKey, Integer> m = new SimpleHashMap<>();
+        m.put(new CountingKey(1), 10);
+        m.put(new CountingKey(2), 20);
+
+        CountingKey.hashCodes = 0;
+        m.put(new CountingKey(1), 11);
+        assertEquals(1, CountingKey.hashCodes);
+
+        CountingKey.hashCodes = 0;
+        assertEquals(Integer.valueOf(11), m.get(new CountingKey(1)));
+        assertEquals(Integer.valueOf(20), m.getOrDefault(new CountingKey(2), 0));
+        assertEquals(2, CountingKey.hashCodes);
+
+        CountingKey.hashCodes = 0;
+        assertEquals(Integer.valueOf(20), m.remove(new CountingKey(2)));
+        assertEquals(null, m.remove(new CountingKey(2)));
+        assertEquals(2, CountingKey.hashCodes);
+        assertEquals(1, m.size());
+    }
+
+    @Test
+    public void testManyActionsRobinHood() throws Exception {
+        final int ACTIONS = 10000;
+        final int BOUND = 100;
+        Random random = new Random(0);
+
+        HashMap<Integer, Integer> hm = new HashMap<>();
+        SimpleHashMap<Integer, Integer> m =
+                new SimpleHashMap<>(new RobinHoodHashTable<SimpleMapEntry<Integer, Integer>>());
+
+        for (int i = 0; i < ACTIONS; i++) {
+            double d = random.nextDouble();
+            int k = random.nextInt(BOUND);
+            if (d < 0.35) {
+                int v = random.nextInt(BOUND);
+                m.put(k, v);
+                hm.put(k, v);
+            } else if (d < 0.65) {
+                assertEquals(hm.remove(k), m.remove(k));
+            } else {
+                assertEquals(hm.get(k), m.get(k));
+            }
+            assertEquals(hm.size(), m.size());
+        }
+        assertEquals(hm.keySet(), m.keys());
+    }
+
+    @Test
+    public void testViewsAreLive() throws Exception {
+        SimpleMap<Integer, Integer> m = new SimpleHashMap<>();
+        Set<Integer> keys = m.keySet();
+        Collection<Integer> values = m.values();
+        Set<SimpleMapEntry<Integer, Integer>> entries = m.entries();
+        assertTrue(keys.isEmpty());
+
+        for (int i = 0; i < 10; i++) {
+            m.put(i, i * 10);
+        }
+        assertEquals(10, keys.size());
+        assertEquals(10, values.size());
+        assertEquals(10, entries.size());
+        assertTrue(keys.contains(3));
+        assertFalse(keys.contains(30));
+        assertTrue(values.contains(30));
+        assertTrue(entries.contains(new SimpleMapEntry<>(3, null)));
+
+        int total = 0;
+        for (SimpleMapEntry<Integer, Integer> e : entries) {
+            assertEquals(e.getKey() * 10, (int) e.getValue());
+            total += e.getValue();
+        }
+        assertEquals(450, total);
+    }
+
+    @Test
+    public void testViewsRemove() throws Exception {
+        SimpleMap<Integer, Integer> m = new SimpleHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            m.put(i, i * 10);
+        }
+        assertTrue(m.keySet().remove(4));
+        assertFalse(m.keySet().remove(4));
+        assertEquals(null, m.get(4));
+
+        Iterator<Integer> it = m.values().iterator();
+        while (it.hasNext()) {
+            if (it.next() >= 50) {
+                it.remove();
+            }
+        }
+        assertEquals(new HashSet<>(Arrays.asList(0, 1, 2, 3)), m.keys());
+        assertEquals(4, m.size());
+
+        m.entries().removeIf(e -> e.getKey() == 0);
+        assertEquals(3, new ArrayList<>(m.keySet()).size());
+        assertEquals(null, m.get(0));
+    }
+
+    @Test
+    public void testViewsRemoveWithOpenAddressing() throws Exception {
+        List<SimpleMap<Integer, Integer>> maps = Arrays.asList(
+                new SimpleHashMap<>(new LinearProbingHashTable<SimpleMapEntry<Integer, Integer>>()),
+                new SimpleHashMap<>(new RobinHoodHashTable<SimpleMapEntry<Integer, Integer>>()),
+                new SimpleHashMap<>(new CuckooHashTable<SimpleMapEntry<Integer, Integer>>()));
+        for (SimpleMap<Integer, Integer> m : maps) {
+            for (int i = 0; i < 1000; i++) {
+                m.put(i, i);
+            }
+            assertTrue(m.keySet().removeIf(k -> k % 2 == 0));
+            assertEquals(500, m.size());
+            assertTrue(m.values().removeAll(Arrays.asList(1, 3, 5)));
+            assertTrue(m.keySet().retainAll(Arrays.asList(7, 9, 11, 2000)));
+            assertEquals(new HashSet<>(Arrays.asList(7, 9, 11)), m.keys());
+            assertEquals(9, (int) m.get(9));
+            assertNull(m.get(1));
+        }
+    }
+
+    @Test
+    public void testCollidingKeys() throws Exception {
+        // 2^10 distinct strings with one hashCode(), built from "Aa" and "BB"
+        List<String> keys = new ArrayList<>(Arrays.asList(""));
+        for (int i = 0; i < 10; i++) {
+            List<String> longer = new ArrayList<>();
+            for (String s : keys) {
+                longer.add(s + "Aa");
+                longer.add(s + "BB");
+            }
+            keys = longer;
+        }
+        SimpleMap<String, Integer> m = new SimpleHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            m.put(keys.get(i), i);
+        }
+        assertEquals(1024, m.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i, (int) m.get(keys.get(i)));
+        }
+        for (int i = 0; i < keys.size(); i += 2) {
+            assertEquals(i, (int) m.remove(keys.get(i)));
+        }
+        assertEquals(512, m.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(i % 2 == 0 ? null : (Integer) i, m.get(keys.get(i)));
+        }
+    }
+
+    @Test
+    public void testKeysAreHashedOnce() throws Exception {
+        int[] calls = new int[1];
+        class Key {
+            final int id;
+
+            Key(int id) {
+                this.id = id;
+            }
+
+            @Override
+            public int hashCode() {
+                calls[0]++;
+                return this.id;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                return obj instanceof Key && ((Key) obj).id == this.id;
+            }
+        }
+        SimpleMap<Key, Integer> m = new SimpleHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            m.put(new Key(i), i);
+        }
+        // once per put, when the entry is created; never again on resize
+        assertEquals(1000, calls[0]);
+        for (SimpleMapEntry<Key, Integer> e : m.entries()) {
+            assertEquals(e.getKey().id, (int) e.getValue());
+        }
+        assertEquals(1000, calls[0]);
+    }
+
+    @Test
+    public void testPutAllIntoEmptyMap() throws Exception {
+        SimpleMap<Integer, String> source = new SimpleHashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            source.put(i, "v" + i);
+        }
+        SimpleMap<Integer, String> m = new SimpleHashMap<>();
+        m.putAll(source);
+        assertEquals(1000, m.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("v" + i, m.get(i));
+        }
+        m.remove(5);
+        assertEquals("v5", source.get(5));
+    }
+
+    @Test
+    public void testPutAllOverwrites() throws Exception {
+        SimpleMap<Integer, String> source = new SimpleHashMap<>(new LinearProbingHashTable<>());
+        for (int i = 0; i < 100; i++) {
+            source.put(i, "new" + i);
+        }
+        SimpleMap<Integer, String> m = new SimpleHashMap<>();
+        for (int i = 50; i < 150; i++) {
+            m.put(i, "old" + i);
+        }
+        m.putAll(source);
+        assertEquals(150, m.size());
+        for (int i = 0; i < 150; i++) {
+            assertEquals(i < 100 ? "new" + i : "old" + i, m.get(i));
+        }
+    }
+
+    @Test
+    public void testComputeFamily() throws Exception {
+        List<SimpleMap<String, Integer>> maps = Arrays.asList(
+                new SimpleHashMap<String, Integer>(),
+                new SimpleHashMap<String, Integer>(new LinearProbingHashTable<>()));
+        for (SimpleMap<String, Integer> m : maps) {
+            assertEquals(1, (int) m.computeIfAbsent("a", k -> 1));
+            assertEquals(1, (int) m.computeIfAbsent("a", k -> 2));
+            assertNull(m.computeIfAbsent("b", k -> null));
+            assertEquals(1, m.size());
+
+            assertEquals(11, (int) m.computeIfPresent("a", (k, v) -> v + 10));
+            assertNull(m.computeIfPresent("b", (k, v) -> 5));
+            assertNull(m.computeIfPresent("a", (k, v) -> null));
+            assertEquals(0, m.size());
+
+            assertEquals(3, (int) m.compute("c", (k, v) -> v == null ? 3 : v * 2));
+            assertEquals(6, (int) m.compute("c", (k, v) -> v == null ? 3 : v * 2));
+            assertNull(m.compute("c", (k, v) -> null));
+            assertNull(m.compute("d", (k, v) -> null));
+            assertEquals(0, m.size());
+
+            m.put("n", null);
+            assertEquals(7, (int) m.computeIfAbsent("n", k -> 7));
+            assertNull(m.computeIfAbsent(null, k -> 7));
+            assertEquals(1, m.size());
+        }
+    }
+
+    @Test
+    public void testMergeCountsWords() throws Exception {
+        String[] words = "the quick brown fox jumps over the lazy dog the end".split(" ");
+        SimpleMap<String, Integer> m = new SimpleHashMap<>();
+        HashMap<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            String w = words[i % words.length] + (i % 7);
+            assertEquals(expected.merge(w, 1, Integer::sum), m.merge(w, 1, Integer::sum));
+        }
+        assertEquals(expected.size(), m.size());
+        for (String w : expected.keySet()) {
+            assertEquals(expected.get(w), m.get(w));
+        }
+        assertNull(m.merge("the0", 5, (a, b) -> null));
+        assertNull(m.get("the0"));
+    }
+
 }
@@ -0,0 +1,77 @@
+package hashmaps;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+
+public class TimerWheelTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testFiresAfterDeadline() throws Exception {
+        TimerWheel<String> w = new TimerWheel<>(0);
+        w.schedule("a", 5 * SECOND);
+        w.schedule("b", 90 * SECOND);
+        w.schedule("c", TimeUnit.HOURS.toNanos(3));
+        assertEquals(3, w.size());
+
+        List<String> fired = new ArrayList<>();
+        w.advance(4 * SECOND, fired::add);
+        assertTrue(fired.isEmpty());
+        w.advance(7 * SECOND, fired::add);
+        assertEquals(List.of("a"), fired);
+        w.advance(100 * SECOND, fired::add);
+        assertEquals(List.of("a", "b"), fired);
+        w.advance(TimeUnit.HOURS.toNanos(4), fired::add);
+        assertEquals(List.of("a", "b", "c"), fired);
+        assertEquals(0, w.size());
+    }
+
+    @Test
+    public void testCancelAndReschedule() throws Exception {
+        TimerWheel<String> w = new TimerWheel<>(0);
+        TimerWheel.Timer<String> a = w.schedule("a", 5 * SECOND);
+        TimerWheel.Timer<String> b = w.schedule("b", 5 * SECOND);
+        w.cancel(a);
+        w.cancel(a);
+        assertFalse(a.isScheduled());
+        w.reschedule(b, 50 * SECOND);
+        assertTrue(b.isScheduled());
+
+        List<String> fired = new ArrayList<>();
+        w.advance(10 * SECOND, fired::add);
+        assertTrue(fired.isEmpty());
+        w.advance(60 * SECOND, fired::add);
+        assertEquals(List.of("b"), fired);
+        assertFalse(b.isScheduled());
+    }
+
+    @Test
+    public void testRandomDeadlinesFireOnTime() throws Exception {
+        Random random = new Random(0);
+        long start = -TimeUnit.DAYS.toNanos(1);
+        TimerWheel<Long> w = new TimerWheel<>(start);
+        for (int i = 0; i < 10000; i++) {
+            long delay = (long) (Math.pow(random.nextDouble(), 4) * TimeUnit.DAYS.toNanos(10));
+            w.schedule(start + delay, start + delay);
+        }
+        long now = start;
+        int fired[] = {0};
+        while (w.size() > 0) {
+            now += (long) (random.nextDouble() * TimeUnit.MINUTES.toNanos(30));
+            long current = now;
+            w.advance(now, deadline -> {
+                assertTrue(deadline <= current);
+                fired[0]++;
+            });
+            assertEquals(now, w.now());
+        }
+        assertEquals(10000, fired[0]);
+    }
+}
@@ -0,0 +1,135 @@
+package hashmaps;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+public class TinyLfuCacheTest {
+
+    @Test
+    public void testPutGetRemove() throws Exception {
+        TinyLfuCache<String, Integer> c = new TinyLfuCache<>(10);
+        c.put("a", 1);
+        c.put("b", 2);
+        c.put("a", 3);
+        assertEquals(2, c.size());
+        assertEquals(3, (int) c.get("a"));
+        assertEquals(-1, (int) c.getOrDefault("z", -1));
+        assertEquals(2, (int) c.remove("b"));
+        assertNull(c.remove("b"));
+        assertEquals(1, c.size());
+        assertEquals(new HashSet<>(List.of("a")), c.keys());
+    }
+
+    @Test
+    public void testNeverExceedsMaximumSize() throws Exception {
+        List<Integer> evicted = new ArrayList<>();
+        TinyLfuCache<Integer, Integer> c = new TinyLfuCache<>(50, (k, v) -> evicted.add(k));
+        HashMap<Integer, Integer> all = new HashMap<>();
+        Random random = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            int k = random.nextInt(200);
+            if (random.nextBoolean()) {
+                c.put(k, i);
+                all.put(k, i);
+            } else {
+                Integer v = c.get(k);
+                if (v != null) {
+                    assertEquals(all.get(k), v);
+                }
+            }
+            assertTrue(c.size() <= 50);
+        }
+        assertEquals(evicted.size(), c.stats().evictionCount());
+        int count = 0;
+        for (SimpleMapEntry<Integer, Integer> e : c.entries()) {
+            assertEquals(all.get(e.getKey()), e.getValue());
+            count++;
+        }
+        assertEquals(c.size(), count);
+    }
+
+    @Test
+    public void testTinyCaches() throws Exception {
+        for (int max = 1; max <= 3; max++) {
+            TinyLfuCache<Integer, Integer> c = new TinyLfuCache<>(max);
+            for (int i = 0; i < 100; i++) {
+                c.put(i % 7, i);
+                c.get(i % 5);
+                assertTrue(c.size() <= max);
+            }
+        }
+    }
+
+    @Test
+    public void testFrequentKeysSurviveScan() throws Exception {
+        TinyLfuCache<Integer, Integer> c = new TinyLfuCache<>(100);
+        for (int round = 0; round < 5; round++) {
+            for (int k = 0; k < 50; k++) {
+                if (c.get(k) == null) {
+                    c.put(k, k);
+                }
+            }
+        }
+        for (int k = 1000; k < 2000; k++) {
+            c.put(k, k);
+        }
+        int survivors = 0;
+        for (int k = 0; k < 50; k++) {
+            if (c.get(k) != null) {
+                survivors++;
+            }
+        }
+        assertTrue("only " + survivors + " hot keys survived", survivors >= 45);
+    }
+
+    @Test
+    public void testBeatsLruOnSkewedTraffic() throws Exception {
+        TinyLfuCache<Integer, Integer> tiny = new TinyLfuCache<>(500);
+        LruCache<Integer, Integer> lru = new LruCache<>(500);
+        Random random = new Random(1);
+        for (int i = 0; i < 200000; i++) {
+            int k;
+            if (i % 3 == 0) {
+                // a one-off scan key
+                k = 1000000 + i;
+            } else {
+                // skewed: small keys are much more popular
+                k = (int) Math.floor(Math.pow(random.nextDouble(), 3) * 20000);
+            }
+            if (tiny.get(k) == null) {
+                tiny.put(k, k);
+            }
+            if (lru.get(k) == null) {
+                lru.put(k, k);
+            }
+        }
+        double tinyRate = tiny.stats().hitRate();
+        double lruRate = lru.stats().hitRate();
+        assertTrue(tinyRate + " vs " + lruRate, tinyRate > lruRate + 0.05);
+    }
+
+    @Test
+    public void testIteratorRemove() throws Exception {
+        TinyLfuCache<Integer, Integer> c = new TinyLfuCache<>(100);
+        for (int i = 0; i < 10; i++) {
+            c.put(i, i);
+        }
+        c.get(3);
+        Iterator<Integer> it = c.keySet().iterator();
+        while (it.hasNext()) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(new HashSet<>(List.of(1, 3, 5, 7, 9)), c.keys());
+    }
+}
@@ -0,0 +1,55 @@
+package hashtables;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+
+public class BlockedBloomFilterTest {
+
+    @Test
+    public void testNoFalseNegatives() throws Exception {
+        BlockedBloomFilter<String> f = new BlockedBloomFilter<>(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(f.put("key" + i) || f.mightContain("key" + i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(f.mightContain("key" + i));
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRateNearTarget() throws Exception {
+        for (double fpp : new double[] {0.1, 0.01, 0.001}) {
+            BlockedBloomFilter<Integer> f = new BlockedBloomFilter<>(20000, fpp);
+            assertEquals(0, f.bitSize() % 512);
+            for (int i = 0; i < 20000; i++) {
+                f.put(i);
+            }
+            int falsePositives = 0;
+            for (int i = 20000; i < 220000; i++) {
+                if (f.mightContain(i)) {
+                    falsePositives++;
+                }
+            }
+            double rate = falsePositives / 200000.0;
+            assertTrue(fpp + ": " + rate, rate < 1.5 * fpp);
+        }
+    }
+
+    @Test
+    public void testHashFunctionsUseDisjointBits() throws Exception {
+        // 64 bits of hash hold seven 9-bit positions, however low the target
+        assertEquals(7, new BlockedBloomFilter<Integer>(1000, 1e-9).hashFunctions());
+        assertEquals(4, new BlockedBloomFilter<Integer>(1000, 0.1).hashFunctions());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        BlockedBloomFilter<String> f = new BlockedBloomFilter<>(10, 0.01);
+        f.put("a");
+        assertTrue(f.mightContain("a"));
+        f.clear();
+        assertFalse(f.mightContain("a"));
+    }
+}
@@ -0,0 +1,64 @@
+package hashtables;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+
+public class BloomFilterTest {
+
+    @Test
+    public void testNoFalseNegatives() throws Exception {
+        BloomFilter<String> f = new BloomFilter<>(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            f.put("key" + i);
+        }
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(f.mightContain("key" + i));
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRateNearTarget() throws Exception {
+        for (double fpp : new double[] {0.1, 0.01, 0.001}) {
+            BloomFilter<Integer> f = new BloomFilter<>(20000, fpp);
+            for (int i = 0; i < 20000; i++) {
+                f.put(i);
+            }
+            int falsePositives = 0;
+            for (int i = 20000; i < 220000; i++) {
+                if (f.mightContain(i)) {
+                    falsePositives++;
+                }
+            }
+            double rate = falsePositives / 200000.0;
+            assertTrue(fpp + ": " + rate, rate < 1.5 * fpp);
+            assertEquals(fpp, f.expectedFpp(), fpp);
+        }
+    }
+
+    @Test
+    public void testSizing() throws Exception {
+        BloomFilter<Integer> f = new BloomFilter<>(1000, 0.01);
+        // about 9.6 bits and 7 hash functions per element
+        assertTrue(f.bitSize() >= 9585 && f.bitSize() < 9585 + 64);
+        assertEquals(7, f.hashFunctions());
+    }
+
+    @Test
+    public void testPutReportsChangeAndClear() throws Exception {
+        BloomFilter<String> f = new BloomFilter<>(100, 0.01);
+        assertFalse(f.mightContain("a"));
+        assertTrue(f.put("a"));
+        assertFalse(f.put("a"));
+        assertTrue(f.mightContainHash("a".hashCode()));
+        f.clear();
+        assertFalse(f.mightContain("a"));
+        assertEquals(0.0, f.expectedFpp(), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsBadFpp() throws Exception {
+        new BloomFilter<String>(100, 1.0);
+    }
+}
@@ -0,0 +1,111 @@
+package hashtables;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+
+import org.junit.Test;
+
+
+public class BloomFilteredHashTableTest {
+
+    @Test
+    public void testMissesSkipTheTable() throws Exception {
+        BloomFilteredHashTable<Integer> t = new BloomFilteredHashTable<>(new ChainingHashTable<>(), 0.01);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(t.add(i));
+        }
+        assertFalse(t.add(5));
+        assertEquals(1000, t.size());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(t.contains(i));
+        }
+        int misses = 0;
+        for (int i = 1000; i < 11000; i++) {
+            if (!t.contains(i)) {
+                misses++;
+            }
+        }
+        assertEquals(10000, misses);
+        // at most a few percent of misses reach the table
+        assertTrue(t.skippedLookups() > 9500);
+    }
+
+    @Test
+    public void testNullIsIgnored() throws Exception {
+        BloomFilteredHashTable<Integer> t = new BloomFilteredHashTable<>(new ChainingHashTable<>(), 0.01);
+        assertFalse(t.add(null));
+        assertNull(t.put(null));
+        assertFalse(t.contains(null));
+        assertFalse(t.remove(null));
+        assertEquals(0, t.size());
+    }
+
+    @Test
+    public void testRebuildsOnResizeAndAfterRemovals() throws Exception {
+        ChainingHashTable<Integer> inner = new ChainingHashTable<>();
+        BloomFilteredHashTable<Integer> t = new BloomFilteredHashTable<>(inner,
+                n -> new BlockedBloomFilter<>(n, 0.01));
+        for (int i = 0; i < 5000; i++) {
+            t.add(i);
+        }
+        assertTrue(t.expectedFpp() < 0.05);
+        for (int i = 0; i < 4900; i++) {
+            assertTrue(t.remove(i));
+        }
+        assertFalse(t.remove(1));
+        // the removed elements' bits were dropped by a rebuild
+        long before = t.skippedLookups();
+        for (int i = 0; i < 4900; i++) {
+            assertNull(t.get(i));
+        }
+        assertTrue(t.skippedLookups() - before > 4000);
+    }
+
+    @Test
+    public void testKeyedLookupsAndIteratorRemove() throws Exception {
+        BloomFilteredHashTable<String> t = new BloomFilteredHashTable<>(new LinearProbingHashTable<>(), 0.01);
+        t.put("apple");
+        t.put("banana");
+        assertEquals("apple", t.findKey('a', "apple".hashCode(), (e, c) -> e.charAt(0) == c));
+        assertNull(t.findKey('z', "zebra".hashCode(), (e, c) -> e.charAt(0) == c));
+        assertEquals("banana", t.removeKey('b', "banana".hashCode(), (e, c) -> e.charAt(0) == c));
+        assertEquals(1, t.size());
+
+        BloomFilteredHashTable<Integer> c = new BloomFilteredHashTable<>(new ChainingHashTable<>(), 0.01);
+        for (int i = 0; i < 100; i++) {
+            c.add(i);
+        }
+        for (Iterator<Integer> it = c.iterator(); it.hasNext();) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(50, c.size());
+        assertFalse(c.contains(2));
+        assertTrue(c.contains(3));
+    }
+
+    @Test
+    public void testManyActionsMatchHashSet() throws Exception {
+        Random random = new Random(0);
+        for (int round = 0; round < 100; round++) {
+            HashSet<Integer> expected = new HashSet<>();
+            BloomFilteredHashTable<Integer> t = new BloomFilteredHashTable<>(new ChainingHashTable<>(), 0.05);
+            for (int i = 0; i < 1000; i++) {
+                int e = random.nextInt(300);
+                double d = random.nextDouble();
+                if (d < 0.5) {
+                    assertEquals(expected.add(e), t.add(e));
+                } else if (d < 0.75) {
+                    assertEquals(expected.remove(e), t.remove(e));
+                } else {
+                    assertEquals(expected.contains(e), t.contains(e));
+                }
+                assertEquals(expected.size(), t.size());
+            }
+        }
+    }
+}
@@ -8,10 +8,17 @@ import static org.junit.Assert.*;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -486,6 +493,607 @@ public class ChainingHashTableTest {
         }
     }
 
+    @Test
+    public void testMinValueHashCode() throws Exception {
+        ChainingHashTable<Integer> t = new ChainingHashTable<>();
+        // hashCode() of an Integer is its value, so this hash code has no abs()
+        assertTrue(t.add(Integer.MIN_VALUE));
+        assertTrue(t.contains(Integer.MIN_VALUE));
+        assertTrue(t.remove(Integer.MIN_VALUE));
+    }
+
+    @Test
+    public void testPowerOfTwoCapacity() throws Exception {
+        ChainingHashTable<Integer> t = new ChainingHashTable<>(7, CapacityPolicy.POWER_OF_TWO);
+        assertEquals(8, t.capacity());
+        assertEquals(CapacityPolicy.POWER_OF_TWO, t.policy());
+        assertEquals(32, new ChainingHashTable<Integer>(20, CapacityPolicy.POWER_OF_TWO).capacity());
+        assertEquals(CapacityPolicy.MERSENNE, new ChainingHashTable<Integer>().policy());
+
+        for (int i = 0; i < 7; i++) {
+            t.add(i * 8);
+            assertEquals(8, t.capacity());
+        }
+        t.add(Integer.MIN_VALUE);
+        assertEquals(16, t.capacity());
+        for (int i = 0; i < 7; i++) {
+            assertTrue(t.contains(i * 8));
+        }
+        assertTrue(t.contains(Integer.MIN_VALUE));
+    }
+
+    @Test
+    public void test1000RandomAddRemovePowerOfTwo() throws Exception {
+        Random random = new Random(0);
+        ChainingHashTable<Integer> t = new ChainingHashTable<>(7, CapacityPolicy.POWER_OF_TWO);
+        Set<Integer> h = new HashSet<Integer>();
+        int n = 3;
+        int cap = 8;
+        for (int i = 0; i < 1000; i++) {
+            final int r = random.nextInt(100);
+            if (random.nextDouble() < 0.67) {
+                if (t.loadFactor() > 0.75) {
+                    n++;
+                    cap = 1 << n;
+                }
+                assertEquals(h.add(r), t.add(r));
+                assertEquals(cap, t.capacity());
+            } else {
+                assertEquals(h.remove(r), t.remove(r));
+            }
+            assertEquals(h.size(), t.size());
+        }
+
+        for (Integer i : h) {
+            assertTrue(t.contains(i));
+        }
+    }
+
+    @Test
+    public void testPutReplaces() throws Exception {
+        ChainingHashTable<String> t = new ChainingHashTable<>();
+        String a = new String("a");
+        String b = new String("a");
+        assertEquals(null, t.put(a));
+        assertSame(a, t.put(b));
+        assertSame(b, t.get("a"));
+        assertEquals(1, t.size());
+    }
+
+    @Test
+    public void testFindAndRemoveKey() throws Exception {
+        ChainingHashTable<String> t = new ChainingHashTable<>();
+        t.add("apple");
+        t.add("banana");
+        // look strings up by their first letter, given the hash of the whole string
+        assertEquals("apple", t.findKey('a', "apple".hashCode(), (s, c) -> s.charAt(0) == c));
+        assertEquals(null, t.findKey('c', "apple".hashCode(), (s, c) -> s.charAt(0) == c));
+
+        assertEquals("banana", t.removeKey('b', "banana".hashCode(), (s, c) -> s.charAt(0) == c));
+        assertEquals(null, t.removeKey('b', "banana".hashCode(), (s, c) -> s.charAt(0) == c));
+        assertEquals(1, t.size());
+        assertFalse(t.contains("banana"));
+    }
+
+    @Test
+    public void testIteratorRemove() throws Exception {
+        ChainingHashTable<Integer> t = new ChainingHashTable<>();
+        List<Integer> values = Arrays.asList(0, 7, 14, 2, 9, 3);
+        for (Integer i : values) {
+            t.add(i);
+        }
+        // remove every even element, including both ends of the 0/7/14 chain
+        Iterator<Integer> it = t.iterator();
+        int seen = 0;
+        while (it.hasNext()) {
+            Integer i = it.next();
+            seen++;
+            if (i % 2 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(6, seen);
+        assertEquals(3, t.size());
+        for (Integer i : values) {
+            assertEquals(i % 2 != 0, t.contains(i));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testIteratorRemoveTwice() throws Exception {
+        ChainingHashTable<Integer> t = new ChainingHashTable<>();
+        t.add(1);
+        t.add(2);
+        Iterator<Integer> it = t.iterator();
+        it.next();
+        it.remove();
+        it.remove();
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testIteratorFailFast() throws Exception {
+        ChainingHashTable<Integer> t = new ChainingHashTable<>();
+        t.add(1);
+        t.add(2);
+        for (Integer i : t) {
+            t.add(i + 10);
+        }
+    }
+
+    /**
+     * Returns 2^blocks distinct strings that all have the same hashCode(),
+     * built from the colliding pair "Aa" and "BB".
+     */
+    static List<String> collidingStrings(int blocks) {
+        List<String> strings = new ArrayList<>();
+        strings.add("");
+        for (int i = 0; i < blocks; i++) {
+            List<String> longer = new ArrayList<>();
+            for (String s : strings) {
+                longer.add(s + "Aa");
+                longer.add(s + "BB");
+            }
+            strings = longer;
+        }
+        return strings;
+    }
+
+    @Test
+    public void testCollidingComparableKeysAreTreeified() throws Exception {
+        List<String> keys = collidingStrings(12);
+        ChainingHashTable<String> t = new ChainingHashTable<>();
+        for (String k : keys) {
+            assertTrue(t.add(k));
+        }
+        assertEquals(4096, t.size());
+        assertEquals(1, t.treeBuckets());
+        TreeBucket<String> tree = t.tree(t.hash(keys.get(0)));
+        assertEquals(4096, tree.size());
+        // an AVL tree of n nodes is at most 1.44 log2(n) levels deep
+        assertTrue(tree.height() <= 18);
+        for (String k : keys) {
+            assertTrue(t.contains(k));
+            assertSame(k, t.findKey(k, k.hashCode(), String::equals));
+        }
+        assertFalse(t.contains("AaAaAaAaAaAaAaAaAaAaAaCc"));
+        assertFalse(t.add(keys.get(17)));
+    }
+
+    @Test
+    public void testCollidingOtherKeysAreTreeified() throws Exception {
+        ChainingHashTable<LinearProbingHashTableTest.Collider> t = new ChainingHashTable<>();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(t.add(new LinearProbingHashTableTest.Collider(i, 5)));
+        }
+        assertEquals(1, t.treeBuckets());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(t.contains(new LinearProbingHashTableTest.Collider(i, 5)));
+        }
+        assertFalse(t.contains(new LinearProbingHashTableTest.Collider(100, 5)));
+        for (int i = 0; i < 100; i += 2) {
+            assertTrue(t.remove(new LinearProbingHashTableTest.Collider(i, 5)));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 2 == 1, t.contains(new LinearProbingHashTableTest.Collider(i, 5)));
+        }
+    }
+
+    @Test
+    public void testTreeTurnsBackIntoList() throws Exception {
+        List<String> keys = collidingStrings(4);
+        ChainingHashTable<String> t = new ChainingHashTable<>(1000);
+        for (int i = 0; i <= ChainingHashTable.TREEIFY_THRESHOLD; i++) {
+            t.add(keys.get(i));
+        }
+        assertEquals(1, t.treeBuckets());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(keys.get(i), t.removeKey(keys.get(i), keys.get(i).hashCode(), String::equals));
+        }
+        assertEquals(0, t.treeBuckets());
+        assertEquals(ChainingHashTable.UNTREEIFY_THRESHOLD, t.size());
+        for (int i = 3; i <= ChainingHashTable.TREEIFY_THRESHOLD; i++) {
+            assertEquals(keys.get(i), t.get(keys.get(i)));
+        }
+    }
+
+    @Test
+    public void testResizeKeepsTrees() throws Exception {
+        List<String> keys = collidingStrings(6);
+        ChainingHashTable<String> t = new ChainingHashTable<>();
+        for (String k : keys) {
+            t.add(k);
+        }
+        for (int i = 0; i < 1000; i++) {
+            t.add(Integer.toString(i));
+        }
+        assertTrue(t.capacity() > 1000);
+        assertEquals(1, t.treeBuckets());
+        assertEquals(1064, t.size());
+        for (String k : keys) {
+            assertTrue(t.contains(k));
+        }
+    }
+
+    @Test
+    public void testIteratorRemoveFromTree() throws Exception {
+        List<String> keys = collidingStrings(5);
+        ChainingHashTable<String> t = new ChainingHashTable<>();
+        for (String k : keys) {
+            t.add(k);
+        }
+        t.add("x");
+        Set<String> seen = new HashSet<>();
+        for (Iterator<String> it = t.iterator(); it.hasNext();) {
+            String s = it.next();
+            assertTrue(seen.add(s));
+            it.remove();
+        }
+        assertEquals(33, seen.size());
+        assertEquals(0, t.size());
+        assertFalse(t.iterator().hasNext());
+    }
+
+    @Test
+    public void testRandomOperationsWithTrees() throws Exception {
+        ChainingHashTable<LinearProbingHashTableTest.Collider> t = new ChainingHashTable<>();
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(19);
+        for (int i = 0; i < 50000; i++) {
+            int id = random.nextInt(500);
+            LinearProbingHashTableTest.Collider c = new LinearProbingHashTableTest.Collider(id, id % 4);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(id), t.add(c));
+            } else {
+                assertEquals(expected.remove(id), t.remove(c));
+            }
+            assertEquals(expected.size(), t.size());
+        }
+        Set<Integer> iterated = new HashSet<>();
+        for (LinearProbingHashTableTest.Collider c : t) {
+            iterated.add(c.id);
+        }
+        assertEquals(expected, iterated);
+    }
+
+    /**
+     * An element that counts how often its hashCode() is called.
+     */
+    static class CountingKey {
+        final int id;
+        int hashCodeCalls;
+
+        CountingKey(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            this.hashCodeCalls++;
+            return this.id * 31;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CountingKey && ((CountingKey) obj).id == this.id;
+        }
+    }
+
+    @Test
+    public void testResizeUsesCachedHashCodes() throws Exception {
+        ChainingHashTable<CountingKey> t = new ChainingHashTable<>();
+        List<CountingKey> keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            CountingKey k = new CountingKey(i);
+            keys.add(k);
+            t.add(k);
+        }
+        assertTrue(t.capacity() > 1000);
+        for (CountingKey k : keys) {
+            assertEquals(1, k.hashCodeCalls);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(t.contains(new CountingKey(i)));
+        }
+        for (CountingKey k : keys) {
+            assertEquals(1, k.hashCodeCalls);
+        }
+    }
+
+    @Test
+    public void testAddAllResizesOnce() throws Exception {
+        ChainingHashTable<Integer> t = new ChainingHashTable<>();
+        Set<Integer> elements = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            elements.add(i);
+        }
+        assertTrue(t.addAll(elements));
+        assertEquals(1, t.resizeCount());
+        assertEquals(16383, t.capacity());
+        assertEquals(10000, t.size());
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(t.contains(i));
+        }
+        assertFalse(t.addAll(elements));
+        assertEquals(10000, t.size());
+    }
+
+    @Test
+    public void testAddAllSkipsDuplicatesAndNulls() throws Exception {
+        ChainingHashTable<Integer> t = new ChainingHashTable<>(16, CapacityPolicy.POWER_OF_TWO);
+        t.add(3);
+        assertTrue(t.addAll(Arrays.asList(1, 2, 3, null, 2, 4)));
+        assertEquals(4, t.size());
+        assertFalse(t.addAll(Arrays.asList(1, 2)));
+        assertFalse(t.addAll(new ArrayList<Integer>()));
+        assertEquals(0, t.resizeCount());
+    }
+
+    @Test
+    public void testAddAllOfCollidingSet() throws Exception {
+        ChainingHashTable<String> t = new ChainingHashTable<>();
+        Set<String> keys = new HashSet<>(collidingStrings(6));
+        assertTrue(t.addAll(keys));
+        assertEquals(64, t.size());
+        assertEquals(1, t.treeBuckets());
+        for (String k : keys) {
+            assertTrue(t.contains(k));
+        }
+    }
+
+    @Test
+    public void testAddAllOfSetsNotDistinctUnderEquals() throws Exception {
+        Set<String> identity = Collections.newSetFromMap(new IdentityHashMap<>());
+        identity.add(new String("x"));
+        identity.add(new String("x"));
+        assertEquals(2, identity.size());
+        ChainingHashTable<String> t = new ChainingHashTable<>();
+        assertTrue(t.addAll(identity));
+        assertEquals(1, t.size());
+        assertTrue(t.remove("x"));
+        assertFalse(t.contains("x"));
+
+        Set<String> byIdentity = new TreeSet<>(Comparator.comparingInt(System::identityHashCode));
+        byIdentity.add(new String("y"));
+        byIdentity.add(new String("y"));
+        assertEquals(2, byIdentity.size());
+        ChainingHashTable<String> u = new ChainingHashTable<>();
+        assertTrue(u.addAll(byIdentity));
+        assertEquals(1, u.size());
+        assertTrue(u.remove("y"));
+        assertFalse(u.contains("y"));
+    }
+
+    @Test
+    public void testEnsureCapacity() throws Exception {
+        ChainingHashTable<Integer> t = new ChainingHashTable<>();
+        t.ensureCapacity(5);
+        assertEquals(7, t.capacity());
+        assertEquals(0, t.resizeCount());
+        t.ensureCapacity(100);
+        assertEquals(255, t.capacity());
+        assertEquals(1, t.resizeCount());
+        for (int i = 0; i < 100; i++) {
+            t.add(i);
+        }
+        assertEquals(255, t.capacity());
+        assertEquals(1, t.resizeCount());
+    }
+
+    @Test
+    public void testParallelBuildMatchesSequentialAdds() throws Exception {
+        Random random = new Random(22);
+        List<Integer> elements = new ArrayList<>();
+        for (int i = 0; i < 200000; i++) {
+            elements.add(random.nextInt(150000));
+        }
+        elements.set(17, null);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (CapacityPolicy policy : CapacityPolicy.values()) {
+            ChainingHashTable<Integer> t = ChainingHashTable.parallelBuild(elements, policy, pool);
+            ChainingHashTable<Integer> expected = new ChainingHashTable<>(7, policy);
+            expected.addAll(elements);
+            assertEquals(expected.capacity(), t.capacity());
+            assertEquals(expected.size(), t.size());
+            assertEquals(Arrays.asList(expected.getTable()), Arrays.asList(t.getTable()));
+            for (Integer e : elements) {
+                if (e != null) {
+                    assertTrue(t.contains(e));
+                }
+            }
+            assertFalse(t.contains(-1));
+            // the table carries on as usual
+            for (int i = 150000; i < 300000; i++) {
+                t.add(i);
+            }
+            assertEquals(expected.size() + 150000, t.size());
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void testParallelBuildTreeifies() throws Exception {
+        List<String> elements = new ArrayList<>(collidingStrings(8));
+        for (int i = 0; i < 1000; i++) {
+            elements.add("k" + i);
+        }
+        elements.addAll(collidingStrings(8));
+        ChainingHashTable<String> t = ChainingHashTable.parallelBuild(elements, CapacityPolicy.POWER_OF_TWO);
+        assertEquals(1256, t.size());
+        assertEquals(1, t.treeBuckets());
+        for (String s : elements) {
+            assertTrue(t.contains(s));
+        }
+        Set<String> iterated = new HashSet<>();
+        for (String s : t) {
+            iterated.add(s);
+        }
+        assertEquals(new HashSet<>(elements), iterated);
+    }
+
+    @Test
+    public void testParallelBuildOfEmptyList() throws Exception {
+        ChainingHashTable<String> t = ChainingHashTable.parallelBuild(new ArrayList<String>(), CapacityPolicy.MERSENNE);
+        assertEquals(0, t.size());
+        assertTrue(t.capacity() > 0);
+        assertTrue(t.add("a"));
+        assertTrue(t.contains("a"));
+    }
+
+    @Test
+    public void testCompute() throws Exception {
+        ChainingHashTable<String> t = new ChainingHashTable<>();
+        assertEquals("a", t.compute("a", "a".hashCode(), String::equals, old -> old == null ? "a" : null));
+        assertEquals(1, t.size());
+        String kept = t.get("a");
+        assertSame(kept, t.compute("a", "a".hashCode(), String::equals, old -> old));
+        assertNull(t.compute("a", "a".hashCode(), String::equals, old -> null));
+        assertEquals(0, t.size());
+        assertNull(t.compute("b", "b".hashCode(), String::equals, old -> null));
+        assertEquals(0, t.size());
+
+        // the same through a tree bucket
+        List<String> keys = collidingStrings(5);
+        for (String k : keys) {
+            t.add(k);
+        }
+        assertEquals(1, t.treeBuckets());
+        String k = keys.get(3);
+        assertNull(t.compute(k, k.hashCode(), String::equals, old -> null));
+        assertFalse(t.contains(k));
+        assertEquals(k, t.compute(k, k.hashCode(), String::equals, old -> k));
+        assertTrue(t.contains(k));
+        assertEquals(32, t.size());
+    }
+
+    @Test
+    public void testNoShrinkByDefault() throws Exception {
+        ChainingHashTable<Integer> t = new ChainingHashTable<>();
+        for (int i = 0; i < 1000; i++) {
+            t.add(i);
+        }
+        int capacity = t.capacity();
+        for (int i = 0; i < 1000; i++) {
+            t.remove(i);
+        }
+        assertEquals(0, t.size());
+        assertEquals(capacity, t.capacity());
+        assertEquals(0.0, t.shrinkThreshold(), 0.0);
+    }
+
+    @Test
+    public void testShrinkAfterDraining() throws Exception {
+        ChainingHashTable<Integer> t = new ChainingHashTable<>();
+        t.setShrinkThreshold(0.125);
+        for (int i = 0; i < 1000; i++) {
+            t.add(i);
+        }
+        assertEquals(2047, t.capacity());
+        for (int i = 0; i < 990; i++) {
+            assertTrue(t.remove(i));
+            assertTrue(t.loadFactor() >= 0.125 || t.capacity() == 7);
+        }
+        assertEquals(10, t.size());
+        assertTrue(t.capacity() < 64);
+        for (int i = 990; i < 1000; i++) {
+            assertTrue(t.contains(i));
+        }
+        for (int i = 990; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i), t.removeKey(i, Integer.hashCode(i), Object::equals));
+        }
+        // never below the capacity the table was created with
+        assertEquals(7, t.capacity());
+    }
+
+    @Test
+    public void testShrinkHysteresis() throws Exception {
+        ChainingHashTable<Integer> t = new ChainingHashTable<>(7, CapacityPolicy.POWER_OF_TWO);
+        t.setShrinkThreshold(0.25);
+        for (int i = 0; i < 1000; i++) {
+            t.add(i);
+        }
+        for (int i = 999; t.loadFactor() >= 0.25; i--) {
+            t.remove(i);
+        }
+        int resizes = t.resizeCount();
+        int capacity = t.capacity();
+        // hovering around either threshold does not resize back and forth
+        for (int round = 0; round < 100; round++) {
+            t.add(-1);
+            t.remove(-1);
+        }
+        assertEquals(resizes, t.resizeCount());
+        assertEquals(capacity, t.capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShrinkThresholdTooHigh() throws Exception {
+        new ChainingHashTable<String>().setShrinkThreshold(0.5);
+    }
+
+    @Test
+    public void testCompact() throws Exception {
+        ChainingHashTable<Integer> t = new ChainingHashTable<>();
+        for (int i = 0; i < 1000; i++) {
+            t.add(i);
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            t.remove(i);
+        }
+        assertEquals(2047, t.capacity());
+        t.compact();
+        assertEquals(500, t.size());
+        assertEquals(2047, t.capacity());
+        t.add(-1);
+        t.remove(-1);
+        for (int i = 900; i < 1000; i++) {
+            t.remove(i);
+        }
+        t.compact();
+        assertEquals(450, t.size());
+        assertEquals(2047, t.capacity());
+        for (int i = 0; i < 800; i++) {
+            t.remove(i);
+        }
+        t.compact();
+        assertEquals(50, t.size());
+        assertEquals(255, t.capacity());
+        for (int i = 801; i < 900; i += 2) {
+            assertTrue(t.contains(i));
+        }
+        ArrayList[] buckets = t.getTable();
+        int nonEmpty = 0;
+        for (ArrayList bucket : buckets) {
+            if (bucket != null) {
+                assertFalse(bucket.isEmpty());
+                nonEmpty++;
+            }
+        }
+        assertTrue(nonEmpty > 0);
+    }
+
+    @Test
+    public void testChainTrimToSize() throws Exception {
+        Chain<String> chain = new Chain<>();
+        for (int i = 0; i < 5; i++) {
+            chain.add("s" + i, i);
+        }
+        chain.remove(0);
+        chain.trimToSize();
+        assertEquals(4, chain.size());
+        assertEquals(4, chain.arrayLength());
+        assertEquals("s1", chain.get(0));
+        chain.add("s5", 5);
+        assertEquals(5, chain.size());
+        for (int i = 0; i < 4; i++) {
+            chain.remove(0);
+        }
+        chain.remove(0);
+        chain.trimToSize();
+        assertEquals(0, chain.arrayLength());
+        chain.add("s6", 6);
+        assertEquals("s6", chain.get(0));
+    }
+
     @Test
     public void testChainingHashTableAll() throws Exception {
         testNewTable();
@@ -515,6 +1123,12 @@ public class ChainingHashTableTest {
         test100Random();
         test1000RandomAddRemove();
         test1000x1000RandomAddRemove();
+        testMinValueHashCode();
+        testPowerOfTwoCapacity();
+        test1000RandomAddRemovePowerOfTwo();
+        testPutReplaces();
+        testFindAndRemoveKey();
+        testIteratorRemove();
     }
 
 }
@@ -0,0 +1,138 @@
+package hashtables;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import hashmaps.SimpleHashMap;
+import hashmaps.SimpleMapEntry;
+
+
+public class ConcurrentChainingHashTableTest {
+
+    @Test
+    public void testNewTable() throws Exception {
+        ConcurrentChainingHashTable<Integer> t = new ConcurrentChainingHashTable<>();
+        assertEquals(0, t.size());
+        assertEquals(16, t.capacity());
+        assertEquals(64, new ConcurrentChainingHashTable<Integer>(50, 4).capacity());
+    }
+
+    @Test
+    public void testSingleThreaded() throws Exception {
+        Random random = new Random(0);
+        for (int round = 0; round < 100; round++) {
+            ConcurrentChainingHashTable<Integer> t = new ConcurrentChainingHashTable<>(1, 4);
+            Set<Integer> h = new HashSet<Integer>();
+            for (int i = 0; i < 1000; i++) {
+                final int r = random.nextInt(200);
+                double d = random.nextDouble();
+                if (d < 0.6) {
+                    assertEquals(h.add(r), t.add(r));
+                } else if (d < 0.8) {
+                    assertEquals(h.remove(r), t.remove(r));
+                } else {
+                    assertEquals(h.contains(r), t.contains(r));
+                }
+                assertEquals(h.size(), t.size());
+            }
+            List<Integer> l = new ArrayList<>();
+            for (Integer i : t) {
+                l.add(i);
+            }
+            assertEquals(h, new HashSet<>(l));
+        }
+    }
+
+    @Test
+    public void testConcurrentWritersAndReaders() throws Exception {
+        final int THREADS = 8;
+        final int PER_THREAD = 20000;
+        ConcurrentChainingHashTable<Integer> t = new ConcurrentChainingHashTable<>(1, 16);
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 2);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < THREADS; w++) {
+                final int base = w * PER_THREAD;
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        assertTrue(t.add(base + i));
+                        assertTrue(t.contains(base + i));
+                    }
+                    // remove the odd half again
+                    for (int i = 1; i < PER_THREAD; i += 2) {
+                        assertTrue(t.remove(base + i));
+                    }
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(pool.submit(() -> {
+                    boolean seenZero = false;
+                    while (!done.get()) {
+                        // 0 is never removed, so once a reader has found it, it must keep finding it
+                        boolean found = t.contains(0);
+                        assertTrue(found || !seenZero);
+                        seenZero = found;
+                        for (Integer i : t) {
+                            assertNotNull(i);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : writers) {
+                f.get();
+            }
+            done.set(true);
+            for (Future<?> f : readers) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        assertEquals(THREADS * PER_THREAD / 2, t.size());
+        for (int i = 0; i < THREADS * PER_THREAD; i++) {
+            assertEquals(i % 2 == 0, t.contains(i));
+        }
+    }
+
+    @Test
+    public void testConcurrentSimpleHashMap() throws Exception {
+        final int THREADS = 4;
+        SimpleHashMap<Integer, Integer> m =
+                new SimpleHashMap<>(new ConcurrentChainingHashTable<SimpleMapEntry<Integer, Integer>>());
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < THREADS; w++) {
+            final int id = w;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    m.put(i, id);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(10000, m.size());
+        for (int i = 0; i < 10000; i++) {
+            assertNotNull(m.get(i));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package hashtables;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+
+public class CountMinSketchTest {
+
+    @Test
+    public void testCountsAndSaturates() throws Exception {
+        CountMinSketch s = new CountMinSketch(1000);
+        assertEquals(0, s.frequency("a"));
+        for (int i = 0; i < 5; i++) {
+            s.increment("a");
+        }
+        assertEquals(5, s.frequency("a"));
+        for (int i = 0; i < 100; i++) {
+            s.increment("a");
+        }
+        assertEquals(15, s.frequency("a"));
+        s.clear();
+        assertEquals(0, s.frequency("a"));
+    }
+
+    @Test
+    public void testNeverUnderestimates() throws Exception {
+        CountMinSketch s = new CountMinSketch(256);
+        for (int k = 0; k < 200; k++) {
+            for (int i = 0; i < k % 8; i++) {
+                s.increment(k);
+            }
+        }
+        for (int k = 0; k < 200; k++) {
+            assertTrue(s.frequency(k) >= k % 8);
+        }
+    }
+
+    @Test
+    public void testAgingHalvesCounts() throws Exception {
+        CountMinSketch s = new CountMinSketch(16);
+        assertEquals(16, s.width());
+        for (int i = 0; i < 15; i++) {
+            s.increment("hot");
+        }
+        assertEquals(15, s.frequency("hot"));
+        // the sample fills after about 10 * width increments, which halves
+        // every counter; without aging, "hot" would stay saturated forever
+        for (int i = 0; i < 2 * 10 * 16; i++) {
+            s.increment(-i - 1);
+        }
+        assertTrue(s.frequency("hot") < 15);
+    }
+}
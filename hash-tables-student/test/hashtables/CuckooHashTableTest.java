@@ -0,0 +1,182 @@
+package hashtables;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import hashtables.LinearProbingHashTableTest.Collider;
+
+
+public class CuckooHashTableTest {
+
+    @Test
+    public void testNewTable() throws Exception {
+        CuckooHashTable<Integer> t = new CuckooHashTable<>();
+        assertEquals(0, t.size());
+        assertEquals(16, t.capacity());
+        assertEquals(64, new CuckooHashTable<Integer>(40).capacity());
+        assertEquals(8, new CuckooHashTable<Integer>(1).capacity());
+    }
+
+    @Test
+    public void testAddGetContainsRemove() throws Exception {
+        CuckooHashTable<String> t = new CuckooHashTable<>();
+        assertTrue(t.add("a"));
+        assertFalse(t.add("a"));
+        assertTrue(t.contains("a"));
+        assertEquals("a", t.get("a"));
+        assertFalse(t.contains("b"));
+        assertNull(t.get("b"));
+        assertTrue(t.remove("a"));
+        assertFalse(t.remove("a"));
+        assertEquals(0, t.size());
+    }
+
+    @Test
+    public void testPutReplaces() throws Exception {
+        CuckooHashTable<Collider> t = new CuckooHashTable<>();
+        Collider first = new Collider(1, 7);
+        Collider second = new Collider(1, 7);
+        assertNull(t.put(first));
+        assertSame(first, t.put(second));
+        assertSame(second, t.get(first));
+        assertEquals(1, t.size());
+    }
+
+    @Test
+    public void testFillsToNinetyPercent() throws Exception {
+        CuckooHashTable<Integer> t = new CuckooHashTable<>(1 << 16);
+        int target = (int) (0.9 * (1 << 16));
+        for (int i = 0; i < target; i++) {
+            t.add(i);
+        }
+        assertEquals(1 << 16, t.capacity());
+        assertEquals(target, t.size());
+        for (int i = 0; i < target; i++) {
+            assertTrue(t.contains(i));
+        }
+        assertTrue(t.stashSize() <= CuckooHashTable.STASH_LIMIT);
+        t.add(-1);
+        assertEquals(1 << 17, t.capacity());
+    }
+
+    @Test
+    public void testIdenticalHashCodesUseTheStash() throws Exception {
+        CuckooHashTable<Collider> t = new CuckooHashTable<>();
+        for (int i = 0; i < 50; i++) {
+            assertTrue(t.add(new Collider(i, 42)));
+        }
+        assertEquals(50, t.size());
+        // two buckets of four slots; resizing cannot separate equal hash codes,
+        // so the stash overflows rather than the table doubling without end
+        assertEquals(50 - 2 * CuckooHashTable.BUCKET_SIZE, t.stashSize());
+        assertTrue(t.capacity() <= 256);
+        assertFalse(t.add(new Collider(0, 42)));
+        for (int i = 0; i < 50; i++) {
+            assertTrue(t.contains(new Collider(i, 42)));
+        }
+        assertFalse(t.contains(new Collider(50, 42)));
+        for (int i = 0; i < 45; i++) {
+            assertTrue(t.remove(new Collider(i, 42)));
+        }
+        assertEquals(0, t.stashSize());
+        for (int i = 45; i < 50; i++) {
+            assertTrue(t.contains(new Collider(i, 42)));
+        }
+    }
+
+    @Test
+    public void testSharedHashCodesKeepTheStashBounded() throws Exception {
+        CuckooHashTable<Collider> t = new CuckooHashTable<>();
+        for (int i = 0; i < 4000; i++) {
+            assertTrue(t.add(new Collider(i, i % 1000)));
+            assertTrue(t.stashSize() <= CuckooHashTable.STASH_LIMIT);
+        }
+        assertEquals(4000, t.size());
+        for (int i = 0; i < 4000; i++) {
+            assertTrue(t.contains(new Collider(i, i % 1000)));
+        }
+    }
+
+    @Test
+    public void testFindAndRemoveKey() throws Exception {
+        CuckooHashTable<String> t = new CuckooHashTable<>();
+        t.add("apple");
+        t.add("banana");
+        assertEquals("apple", t.findKey("apple", "apple".hashCode(), String::equals));
+        assertNull(t.findKey("cherry", "cherry".hashCode(), String::equals));
+        assertEquals("banana", t.removeKey("banana", "banana".hashCode(), String::equals));
+        assertNull(t.removeKey("banana", "banana".hashCode(), String::equals));
+        assertEquals(1, t.size());
+    }
+
+    @Test
+    public void testIteratorIncludesStash() throws Exception {
+        CuckooHashTable<Collider> t = new CuckooHashTable<>();
+        Set<Collider> expected = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            Collider c = new Collider(i, i % 2);
+            t.add(c);
+            expected.add(c);
+        }
+        Set<Collider> actual = new HashSet<>();
+        for (Collider c : t) {
+            actual.add(c);
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testIteratorRemove() throws Exception {
+        CuckooHashTable<Collider> t = new CuckooHashTable<>();
+        Set<Collider> expected = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            // a fifth of the elements share a hash code and overflow into the stash
+            Collider c = new Collider(i, i % 5 == 0 ? -1 : i);
+            t.add(c);
+            expected.add(c);
+        }
+        assertTrue(t.stashSize() > 0);
+        Set<Collider> seen = new HashSet<>();
+        Iterator<Collider> it = t.iterator();
+        while (it.hasNext()) {
+            Collider c = it.next();
+            assertTrue(seen.add(c));
+            if (c.id % 2 == 0) {
+                it.remove();
+                expected.remove(c);
+            }
+        }
+        assertEquals(200, seen.size());
+        assertEquals(expected.size(), t.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 2 != 0, t.contains(new Collider(i, i % 5 == 0 ? -1 : i)));
+        }
+    }
+
+    @Test
+    public void testManyActions() throws Exception {
+        Random random = new Random(0);
+        for (int round = 0; round < 200; round++) {
+            Set<Integer> expected = new HashSet<>();
+            CuckooHashTable<Integer> t = new CuckooHashTable<>();
+            for (int i = 0; i < 2000; i++) {
+                int e = random.nextInt(1000);
+                double d = random.nextDouble();
+                if (d < 0.5) {
+                    assertEquals(expected.add(e), t.add(e));
+                } else if (d < 0.75) {
+                    assertEquals(expected.remove(e), t.remove(e));
+                } else {
+                    assertEquals(expected.contains(e), t.contains(e));
+                }
+                assertEquals(expected.size(), t.size());
+            }
+        }
+    }
+}
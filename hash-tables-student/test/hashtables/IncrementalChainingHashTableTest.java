@@ -0,0 +1,110 @@
+package hashtables;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+public class IncrementalChainingHashTableTest {
+
+    @Test
+    public void testNewTable() throws Exception {
+        IncrementalChainingHashTable<Integer> t = new IncrementalChainingHashTable<>();
+        assertEquals(0, t.size());
+        assertEquals(7, t.capacity());
+        assertFalse(t.isMigrating());
+    }
+
+    @Test
+    public void testResizeIsIncremental() throws Exception {
+        IncrementalChainingHashTable<Integer> t =
+                new IncrementalChainingHashTable<>(1000, CapacityPolicy.POWER_OF_TWO);
+        assertEquals(1024, t.capacity());
+        for (int i = 0; i < 769; i++) {
+            t.add(i);
+        }
+        assertFalse(t.isMigrating());
+
+        t.add(769);
+        assertEquals(2048, t.capacity());
+        assertTrue(t.isMigrating());
+        // every element stays reachable while the buckets move across
+        for (int i = 0; i <= 769; i++) {
+            assertTrue(t.contains(i));
+        }
+
+        int writes = 0;
+        while (t.isMigrating()) {
+            t.add(10000 + writes);
+            writes++;
+        }
+        assertTrue(writes <= 1024 / IncrementalChainingHashTable.MIGRATION_STEP);
+        assertEquals(770 + writes, t.size());
+        for (int i = 0; i <= 769; i++) {
+            assertTrue(t.contains(i));
+        }
+    }
+
+    @Test
+    public void testIteratorDuringMigration() throws Exception {
+        IncrementalChainingHashTable<Integer> t = new IncrementalChainingHashTable<>();
+        for (int i = 0; i < 100; i++) {
+            t.add(i);
+        }
+        t.resize();
+        assertTrue(t.isMigrating());
+        List<Integer> l = new ArrayList<>();
+        for (Integer i : t) {
+            l.add(i);
+        }
+        assertEquals(100, l.size());
+        assertEquals(100, new HashSet<>(l).size());
+
+        t.finishMigration();
+        assertFalse(t.isMigrating());
+        assertEquals(100, t.size());
+    }
+
+    @Test
+    public void testPutAndKeys() throws Exception {
+        IncrementalChainingHashTable<String> t = new IncrementalChainingHashTable<>();
+        String a = new String("a");
+        String b = new String("a");
+        assertEquals(null, t.put(a));
+        assertSame(a, t.put(b));
+        assertSame(b, t.findKey("a", "a".hashCode(), String::equals));
+        assertSame(b, t.removeKey("a", "a".hashCode(), String::equals));
+        assertEquals(0, t.size());
+    }
+
+    @Test
+    public void test1000x1000RandomAddRemove() throws Exception {
+        Random random = new Random(0);
+        for (int round = 0; round < 1000; round++) {
+            IncrementalChainingHashTable<Integer> t = new IncrementalChainingHashTable<>();
+            Set<Integer> h = new HashSet<Integer>();
+            for (int i = 0; i < 1000; i++) {
+                final int r = random.nextInt(500);
+                double d = random.nextDouble();
+                if (d < 0.6) {
+                    assertEquals(h.add(r), t.add(r));
+                } else if (d < 0.8) {
+                    assertEquals(h.remove(r), t.remove(r));
+                } else {
+                    assertEquals(h.contains(r), t.contains(r));
+                }
+                assertEquals(h.size(), t.size());
+            }
+
+            for (Integer i : h) {
+                assertTrue(t.contains(i));
+            }
+        }
+    }
+}
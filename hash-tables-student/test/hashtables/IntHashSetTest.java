@@ -0,0 +1,105 @@
+package hashtables;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+public class IntHashSetTest {
+
+    @Test
+    public void testNewSet() throws Exception {
+        IntHashSet s = new IntHashSet();
+        assertEquals(0, s.size());
+        assertEquals(8, s.capacity());
+        assertEquals(0, s.toArray().length);
+    }
+
+    @Test
+    public void testZeroAndNegative() throws Exception {
+        IntHashSet s = new IntHashSet();
+        assertFalse(s.contains(0));
+        assertTrue(s.add(0));
+        assertFalse(s.add(0));
+        assertTrue(s.add(Integer.MIN_VALUE));
+        assertTrue(s.add(-1));
+        assertEquals(3, s.size());
+        assertTrue(s.contains(0));
+        assertTrue(s.contains(Integer.MIN_VALUE));
+
+        assertTrue(s.remove(0));
+        assertFalse(s.contains(0));
+        assertFalse(s.remove(0));
+        assertEquals(2, s.size());
+    }
+
+    @Test
+    public void testToArrayAndForEach() throws Exception {
+        IntHashSet s = new IntHashSet();
+        for (int i = -5; i <= 5; i++) {
+            s.add(i);
+        }
+        int[] a = s.toArray();
+        Arrays.sort(a);
+        assertArrayEquals(new int[] {-5, -4, -3, -2, -1, 0, 1, 2, 3, 4, 5}, a);
+
+        Set<Integer> seen = new HashSet<>();
+        s.forEach(v -> seen.add(v));
+        assertEquals(11, seen.size());
+
+        s.clear();
+        assertEquals(0, s.size());
+        assertFalse(s.contains(3));
+    }
+
+    @Test
+    public void testEnlarge() throws Exception {
+        IntHashSet s = new IntHashSet();
+        for (int i = 1; i <= 6; i++) {
+            s.add(i);
+            assertEquals(8, s.capacity());
+        }
+        s.add(7);
+        assertEquals(16, s.capacity());
+    }
+
+    @Test
+    public void test1000x1000RandomAddRemove() throws Exception {
+        Random random = new Random(0);
+        for (int round = 0; round < 1000; round++) {
+            IntHashSet s = new IntHashSet();
+            Set<Integer> h = new HashSet<Integer>();
+            for (int i = 0; i < 1000; i++) {
+                // multiples of 1024 collide without hash mixing
+                final int r = random.nextInt(100) * 1024;
+                if (random.nextDouble() < 0.67) {
+                    assertEquals(h.add(r), s.add(r));
+                } else {
+                    assertEquals(h.remove(r), s.remove(r));
+                }
+                assertEquals(h.size(), s.size());
+            }
+            for (int i = 0; i < 100; i++) {
+                assertEquals(h.contains(i * 1024), s.contains(i * 1024));
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testMissOnSmallSet() throws Exception {
+        for (int n = 1; n <= 8; n++) {
+            IntHashSet s = new IntHashSet(n);
+            for (int i = 1; i <= n; i++) {
+                s.add(i);
+            }
+            assertTrue(s.size() < s.capacity());
+            assertFalse(s.contains(99));
+            assertFalse(s.remove(99));
+        }
+    }
+}
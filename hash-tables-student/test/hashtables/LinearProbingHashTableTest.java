@@ -0,0 +1,204 @@
+package hashtables;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+public class LinearProbingHashTableTest {
+
+    /**
+     * A key whose hash code is chosen by the test, so that collisions
+     * can be forced regardless of how the table mixes hash codes.
+     */
+    static class Collider {
+        final int id;
+        final int hash;
+
+        Collider(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Collider && ((Collider) obj).id == id;
+        }
+    }
+
+    @Test
+    public void testNewTable() throws Exception {
+        LinearProbingHashTable<Integer> t = new LinearProbingHashTable<>();
+        assertEquals(0, t.size());
+        assertEquals(8, t.capacity());
+    }
+
+    @Test
+    public void testNewTableCapacityMultiple() throws Exception {
+        assertEquals(2, new LinearProbingHashTable<Integer>(2).capacity());
+        assertEquals(8, new LinearProbingHashTable<Integer>(5).capacity());
+        assertEquals(32, new LinearProbingHashTable<Integer>(20).capacity());
+        assertEquals(65536, new LinearProbingHashTable<Integer>(65000).capacity());
+    }
+
+    @Test
+    public void testAddGetContains() throws Exception {
+        LinearProbingHashTable<Integer> t = new LinearProbingHashTable<>();
+        assertFalse(t.contains(0));
+        assertEquals(null, t.get(0));
+
+        assertTrue(t.add(0));
+        assertFalse(t.add(0));
+        assertEquals(1, t.size());
+        assertTrue(t.contains(0));
+        assertEquals(Integer.valueOf(0), t.get(0));
+        assertFalse(t.contains(1));
+    }
+
+    @Test
+    public void testAddOverwrites() throws Exception {
+        LinearProbingHashTable<Collider> t = new LinearProbingHashTable<>();
+        Collider a = new Collider(1, 5);
+        Collider b = new Collider(1, 5);
+        assertTrue(t.add(a));
+        assertFalse(t.add(b));
+        assertSame(b, t.get(a));
+        assertEquals(1, t.size());
+    }
+
+    @Test
+    public void testRemoveShiftsRunBack() throws Exception {
+        LinearProbingHashTable<Collider> t = new LinearProbingHashTable<>();
+        Collider a = new Collider(0, 3);
+        Collider b = new Collider(1, 3);
+        Collider c = new Collider(2, 3);
+        t.add(a);
+        t.add(b);
+        t.add(c);
+
+        assertTrue(t.remove(a));
+        assertFalse(t.contains(a));
+        assertTrue(t.contains(b));
+        assertTrue(t.contains(c));
+
+        assertTrue(t.remove(c));
+        assertTrue(t.contains(b));
+        assertFalse(t.remove(c));
+        assertEquals(1, t.size());
+    }
+
+    @Test
+    public void testIterator() throws Exception {
+        LinearProbingHashTable<Integer> t = new LinearProbingHashTable<>();
+        for (Integer i : t) {
+            fail();
+        }
+        for (int i = 0; i < 20; i++) {
+            t.add(i);
+        }
+        List<Integer> l = new ArrayList<>();
+        for (Integer i : t) {
+            l.add(i);
+        }
+        assertEquals(20, l.size());
+        for (int i = 0; i < 20; i++) {
+            assertTrue(l.contains(i));
+        }
+    }
+
+    @Test
+    public void testIteratorRemove() throws Exception {
+        Random random = new Random(6);
+        for (int round = 0; round < 200; round++) {
+            LinearProbingHashTable<Collider> t = new LinearProbingHashTable<>();
+            Set<Integer> expected = new HashSet<>();
+            int count = random.nextInt(100);
+            for (int i = 0; i < count; i++) {
+                int r = random.nextInt(100);
+                // few distinct hash codes, so runs are long and wrap around
+                t.add(new Collider(r, r % 7));
+                expected.add(r);
+            }
+            Set<Integer> all = new HashSet<>(expected);
+            Set<Integer> seen = new HashSet<>();
+            Iterator<Collider> it = t.iterator();
+            while (it.hasNext()) {
+                Collider c = it.next();
+                assertTrue(seen.add(c.id));
+                if (random.nextBoolean()) {
+                    it.remove();
+                    expected.remove(c.id);
+                }
+            }
+            assertEquals(all, seen);
+            assertEquals(expected.size(), t.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(expected.contains(i), t.contains(new Collider(i, i % 7)));
+            }
+        }
+    }
+
+    @Test
+    public void testEnlarge() throws Exception {
+        LinearProbingHashTable<Integer> t = new LinearProbingHashTable<>();
+        for (int i = 0; i < 6; i++) {
+            t.add(i);
+            assertEquals(8, t.capacity());
+        }
+        t.add(6);
+        assertEquals(16, t.capacity());
+    }
+
+    @Test(timeout = 10000)
+    public void testMissOnSmallTable() throws Exception {
+        for (int n = 1; n <= 8; n++) {
+            LinearProbingHashTable<Integer> t = new LinearProbingHashTable<>(n);
+            for (int i = 0; i < n; i++) {
+                t.add(i);
+            }
+            assertTrue(t.size() < t.capacity());
+            assertFalse(t.contains(99));
+            assertNull(t.findKey(99, Integer.hashCode(99), Object::equals));
+            assertFalse(t.remove(99));
+            for (int i = 0; i < n; i++) {
+                assertTrue(t.contains(i));
+            }
+        }
+    }
+
+    @Test
+    public void test1000x1000RandomAddRemove() throws Exception {
+        Random random = new Random(0);
+        for (int round = 0; round < 1000; round++) {
+            LinearProbingHashTable<Collider> t = new LinearProbingHashTable<>();
+            Set<Integer> h = new HashSet<Integer>();
+            for (int i = 0; i < 1000; i++) {
+                final int r = random.nextInt(100);
+                // few distinct hash codes, so runs are long and wrap around
+                Collider c = new Collider(r, r % 13);
+                if (random.nextDouble() < 0.67) {
+                    assertEquals(h.add(r), t.add(c));
+                } else {
+                    assertEquals(h.remove(r), t.remove(c));
+                }
+                assertEquals(h.size(), t.size());
+            }
+
+            for (int i = 0; i < 100; i++) {
+                assertEquals(h.contains(i), t.contains(new Collider(i, i % 13)));
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package hashtables;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+
+public class LongHashSetTest {
+
+    @Test
+    public void testAddContainsRemove() throws Exception {
+        LongHashSet s = new LongHashSet();
+        assertTrue(s.add(0L));
+        assertTrue(s.add(Long.MAX_VALUE));
+        assertTrue(s.add(Long.MIN_VALUE));
+        assertFalse(s.add(Long.MAX_VALUE));
+        assertEquals(3, s.size());
+
+        assertTrue(s.contains(Long.MIN_VALUE));
+        assertFalse(s.contains(1L));
+        assertTrue(s.remove(Long.MIN_VALUE));
+        assertFalse(s.contains(Long.MIN_VALUE));
+        assertEquals(2, s.toArray().length);
+    }
+
+    @Test
+    public void test1000x1000RandomAddRemove() throws Exception {
+        Random random = new Random(0);
+        for (int round = 0; round < 1000; round++) {
+            LongHashSet s = new LongHashSet();
+            Set<Long> h = new HashSet<Long>();
+            for (int i = 0; i < 1000; i++) {
+                // keys differing only in their high bits
+                final long r = ((long) random.nextInt(100)) << 40;
+                if (random.nextDouble() < 0.67) {
+                    assertEquals(h.add(r), s.add(r));
+                } else {
+                    assertEquals(h.remove(r), s.remove(r));
+                }
+                assertEquals(h.size(), s.size());
+            }
+            for (long i = 0; i < 100; i++) {
+                assertEquals(h.contains(i << 40), s.contains(i << 40));
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testMissOnSmallSet() throws Exception {
+        for (int n = 1; n <= 8; n++) {
+            LongHashSet s = new LongHashSet(n);
+            for (long i = 1; i <= n; i++) {
+                s.add(i);
+            }
+            assertTrue(s.size() < s.capacity());
+            assertFalse(s.contains(99));
+            assertFalse(s.remove(99));
+        }
+    }
+}
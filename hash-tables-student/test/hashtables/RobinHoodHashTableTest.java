@@ -0,0 +1,163 @@
+package hashtables;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import hashtables.LinearProbingHashTableTest.Collider;
+
+
+public class RobinHoodHashTableTest {
+
+    @Test
+    public void testNewTable() throws Exception {
+        RobinHoodHashTable<Integer> t = new RobinHoodHashTable<>();
+        assertEquals(0, t.size());
+        assertEquals(8, t.capacity());
+        assertEquals(32, new RobinHoodHashTable<Integer>(20).capacity());
+    }
+
+    @Test
+    public void testAddGetContainsRemove() throws Exception {
+        RobinHoodHashTable<Integer> t = new RobinHoodHashTable<>();
+        assertTrue(t.add(0));
+        assertFalse(t.add(0));
+        assertTrue(t.contains(0));
+        assertEquals(Integer.valueOf(0), t.get(0));
+        assertFalse(t.contains(1));
+        assertEquals(null, t.get(1));
+
+        assertTrue(t.remove(0));
+        assertFalse(t.remove(0));
+        assertEquals(0, t.size());
+    }
+
+    @Test
+    public void testCollisionsAndMisses() throws Exception {
+        RobinHoodHashTable<Collider> t = new RobinHoodHashTable<>(64);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(t.add(new Collider(i, i % 2)));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertTrue(t.contains(new Collider(i, i % 2)));
+            assertFalse(t.contains(new Collider(i + 100, i % 2)));
+        }
+        for (int i = 0; i < 10; i += 3) {
+            assertTrue(t.remove(new Collider(i, i % 2)));
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i % 3 != 0, t.contains(new Collider(i, i % 2)));
+        }
+    }
+
+    @Test
+    public void testIterator() throws Exception {
+        RobinHoodHashTable<Integer> t = new RobinHoodHashTable<>();
+        for (int i = 0; i < 20; i++) {
+            t.add(i);
+        }
+        List<Integer> l = new ArrayList<>();
+        for (Integer i : t) {
+            l.add(i);
+        }
+        assertEquals(20, l.size());
+        for (int i = 0; i < 20; i++) {
+            assertTrue(l.contains(i));
+        }
+    }
+
+    @Test
+    public void testIteratorRemove() throws Exception {
+        Random random = new Random(6);
+        for (int round = 0; round < 200; round++) {
+            RobinHoodHashTable<Collider> t = new RobinHoodHashTable<>();
+            Set<Integer> expected = new HashSet<>();
+            int count = random.nextInt(100);
+            for (int i = 0; i < count; i++) {
+                int r = random.nextInt(100);
+                // few distinct hash codes, so runs are long and wrap around
+                t.add(new Collider(r, r % 7));
+                expected.add(r);
+            }
+            Set<Integer> all = new HashSet<>(expected);
+            Set<Integer> seen = new HashSet<>();
+            Iterator<Collider> it = t.iterator();
+            while (it.hasNext()) {
+                Collider c = it.next();
+                assertTrue(seen.add(c.id));
+                if (random.nextBoolean()) {
+                    it.remove();
+                    expected.remove(c.id);
+                }
+            }
+            assertEquals(all, seen);
+            assertEquals(expected.size(), t.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(expected.contains(i), t.contains(new Collider(i, i % 7)));
+            }
+        }
+    }
+
+    @Test
+    public void testProbeStatistics() throws Exception {
+        RobinHoodHashTable<Collider> t = new RobinHoodHashTable<>(16);
+        ProbeStatistics empty = t.probeStatistics();
+        assertEquals(0, empty.count());
+        assertEquals(0, empty.mean(), 0);
+        assertEquals(0, empty.max());
+
+        // four elements sharing one home slot take probe lengths 1 through 4
+        for (int i = 0; i < 4; i++) {
+            t.add(new Collider(i, 7));
+        }
+        ProbeStatistics s = t.probeStatistics();
+        assertEquals(4, s.count());
+        assertEquals(2.5, s.mean(), 0.0001);
+        assertEquals(4, s.max());
+        assertEquals(4, s.p99());
+        assertEquals(2, s.percentile(0.5));
+        assertEquals(1, s.countAt(3));
+    }
+
+    @Test
+    public void testProbeVarianceIsBounded() throws Exception {
+        Random random = new Random(0);
+        RobinHoodHashTable<Integer> t = new RobinHoodHashTable<>();
+        for (int i = 0; i < 100000; i++) {
+            t.add(random.nextInt());
+        }
+        ProbeStatistics s = t.probeStatistics();
+        assertTrue(s.mean() < 3);
+        assertTrue(s.p99() < 16);
+    }
+
+    @Test
+    public void test1000x1000RandomAddRemove() throws Exception {
+        Random random = new Random(0);
+        for (int round = 0; round < 1000; round++) {
+            RobinHoodHashTable<Collider> t = new RobinHoodHashTable<>();
+            Set<Integer> h = new HashSet<Integer>();
+            for (int i = 0; i < 1000; i++) {
+                final int r = random.nextInt(100);
+                Collider c = new Collider(r, r % 13);
+                if (random.nextDouble() < 0.67) {
+                    assertEquals(h.add(r), t.add(c));
+                } else {
+                    assertEquals(h.remove(r), t.remove(c));
+                }
+                assertEquals(h.size(), t.size());
+            }
+
+            for (int i = 0; i < 100; i++) {
+                assertEquals(h.contains(i), t.contains(new Collider(i, i % 13)));
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package hashtables;
+
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import hashtables.LinearProbingHashTableTest.Collider;
+
+
+public class SwissHashTableTest {
+
+    @Test
+    public void testNewTable() throws Exception {
+        SwissHashTable<Integer> t = new SwissHashTable<>();
+        assertEquals(0, t.size());
+        assertEquals(16, t.capacity());
+        assertEquals(16, new SwissHashTable<Integer>(14).capacity());
+        assertEquals(32, new SwissHashTable<Integer>(15).capacity());
+        assertEquals(128, new SwissHashTable<Integer>(100).capacity());
+    }
+
+    @Test
+    public void testAddGetContainsRemove() throws Exception {
+        SwissHashTable<String> t = new SwissHashTable<>();
+        assertTrue(t.add("a"));
+        assertFalse(t.add("a"));
+        assertFalse(t.add(null));
+        assertTrue(t.contains("a"));
+        assertEquals("a", t.get("a"));
+        assertFalse(t.contains("b"));
+        assertNull(t.get("b"));
+        assertNull(t.get(null));
+        assertTrue(t.remove("a"));
+        assertFalse(t.remove("a"));
+        assertEquals(0, t.size());
+    }
+
+    @Test
+    public void testPutReplaces() throws Exception {
+        SwissHashTable<Collider> t = new SwissHashTable<>();
+        Collider first = new Collider(1, 7);
+        Collider second = new Collider(1, 7);
+        assertNull(t.put(first));
+        assertSame(first, t.put(second));
+        assertSame(second, t.get(first));
+        assertEquals(1, t.size());
+    }
+
+    @Test
+    public void testGrowsAtSevenEighths() throws Exception {
+        SwissHashTable<Integer> t = new SwissHashTable<>();
+        for (int i = 0; i < 14; i++) {
+            t.add(i);
+        }
+        assertEquals(16, t.capacity());
+        t.add(14);
+        assertEquals(32, t.capacity());
+        for (int i = 0; i < 15; i++) {
+            assertTrue(t.contains(i));
+        }
+    }
+
+    @Test
+    public void testCollisionsSpillIntoLaterGroups() throws Exception {
+        SwissHashTable<Collider> t = new SwissHashTable<>();
+        for (int i = 0; i < 200; i++) {
+            assertTrue(t.add(new Collider(i, 42)));
+        }
+        assertEquals(200, t.size());
+        for (int i = 0; i < 200; i++) {
+            assertTrue(t.contains(new Collider(i, 42)));
+        }
+        assertFalse(t.contains(new Collider(200, 42)));
+        for (int i = 0; i < 200; i += 2) {
+            assertTrue(t.remove(new Collider(i, 42)));
+        }
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 2 == 1, t.contains(new Collider(i, 42)));
+        }
+    }
+
+    @Test
+    public void testTombstonesAreReclaimed() throws Exception {
+        SwissHashTable<Integer> t = new SwissHashTable<>(1000);
+        int capacity = t.capacity();
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 800; i++) {
+                t.add(round * 800 + i);
+            }
+            for (int i = 0; i < 800; i++) {
+                assertTrue(t.remove(round * 800 + i));
+            }
+        }
+        assertEquals(0, t.size());
+        assertEquals(capacity, t.capacity());
+    }
+
+    @Test
+    public void testFindKeyAndRemoveKey() throws Exception {
+        SwissHashTable<String> t = new SwissHashTable<>();
+        t.add("apple");
+        t.add("banana");
+        assertEquals("apple", t.findKey("APPLE", "apple".hashCode(), String::equalsIgnoreCase));
+        assertNull(t.findKey("cherry", "cherry".hashCode(), String::equalsIgnoreCase));
+        assertEquals("banana", t.removeKey("BANANA", "banana".hashCode(), String::equalsIgnoreCase));
+        assertEquals(1, t.size());
+        assertFalse(t.contains("banana"));
+    }
+
+    @Test
+    public void testIteratorRemove() throws Exception {
+        SwissHashTable<Integer> t = new SwissHashTable<>();
+        for (int i = 0; i < 100; i++) {
+            t.add(i);
+        }
+        Set<Integer> seen = new HashSet<>();
+        for (Iterator<Integer> it = t.iterator(); it.hasNext();) {
+            Integer i = it.next();
+            assertTrue(seen.add(i));
+            if (i % 3 == 0) {
+                it.remove();
+            }
+        }
+        assertEquals(100, seen.size());
+        assertEquals(66, t.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 3 != 0, t.contains(i));
+        }
+    }
+
+    @Test
+    public void testRandomOperationsAgainstHashSet() throws Exception {
+        SwissHashTable<Integer> t = new SwissHashTable<>();
+        Set<Integer> expected = new HashSet<>();
+        Random random = new Random(18);
+        for (int i = 0; i < 100000; i++) {
+            int k = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(k), t.add(k));
+            } else {
+                assertEquals(expected.remove(k), t.remove(k));
+            }
+            assertEquals(expected.size(), t.size());
+        }
+        for (int k = 0; k < 2000; k++) {
+            assertEquals(expected.contains(k), t.contains(k));
+        }
+        Set<Integer> iterated = new HashSet<>();
+        for (Integer k : t) {
+            iterated.add(k);
+        }
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void testGroupMatchersAgreeWithScalarLoop() throws Exception {
+        GroupMatcher swar = new SwarGroupMatcher();
+        Random random = new Random(7);
+        byte[] values = {SwissHashTable.EMPTY, SwissHashTable.DELETED, 0, 1, 0x7F, 0x01, 0x40};
+        byte[] ctrl = new byte[48];
+        for (int round = 0; round < 10000; round++) {
+            for (int i = 0; i < ctrl.length; i++) {
+                ctrl[i] = random.nextBoolean()
+                        ? values[random.nextInt(values.length)]
+                        : (byte) random.nextInt(128);
+            }
+            int offset = 16 * random.nextInt(3);
+            byte h2 = (byte) random.nextInt(128);
+            int match = 0;
+            int empty = 0;
+            int emptyOrDeleted = 0;
+            for (int i = 0; i < 16; i++) {
+                byte c = ctrl[offset + i];
+                match |= (c == h2 ? 1 : 0) << i;
+                empty |= (c == SwissHashTable.EMPTY ? 1 : 0) << i;
+                emptyOrDeleted |= (c < 0 ? 1 : 0) << i;
+            }
+            for (GroupMatcher m : new GroupMatcher[] {swar, SwissHashTable.MATCHER}) {
+                assertEquals(match, m.match(ctrl, offset, h2));
+                assertEquals(empty, m.matchEmpty(ctrl, offset));
+                assertEquals(emptyOrDeleted, m.matchEmptyOrDeleted(ctrl, offset));
+            }
+        }
+    }
+}